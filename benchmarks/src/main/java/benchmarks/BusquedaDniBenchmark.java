@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import modelo.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide la búsqueda de usuarios por DNI. El recorrido lineal reproduce la
+ * búsqueda que hacían ControladorLogin y ControladorAdmin sobre el listado de
+ * usuarios, como referencia para el índice de Instituto.buscarPorDni.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx6g", "-Djava.awt.headless=true"})
+public class BusquedaDniBenchmark {
+
+    private int siguiente;
+
+    @Benchmark
+    public Usuario recorridoLineal(InstitutoPoblado datos) {
+        String dni = datos.dnis[siguiente++ & (InstitutoPoblado.CONSULTAS - 1)];
+        List<Usuario> usuarios = datos.instituto.getUsuarios();
+        int i = 0;
+        while (i < usuarios.size()) {
+            if (usuarios.get(i).getDni().equals(dni)) {
+                return usuarios.get(i);
+            }
+            i++;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Usuario buscarPorDni(InstitutoPoblado datos) {
+        return datos.instituto.buscarPorDni(datos.dnis[siguiente++ & (InstitutoPoblado.CONSULTAS - 1)]);
+    }
+}
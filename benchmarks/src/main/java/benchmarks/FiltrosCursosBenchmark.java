@@ -0,0 +1,45 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import modelo.Curso;
+import modelo.EstadoCurso;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide los listados de cursos que muestran las ventanas de alumnos, docentes
+ * y del administrador.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx6g", "-Djava.awt.headless=true"})
+public class FiltrosCursosBenchmark {
+
+    private int siguiente;
+
+    @Benchmark
+    public List<Curso> filtrarCursosPorAlumno(InstitutoPoblado datos) {
+        return datos.instituto.filtrarCursosPorAlumno(datos.alumnos[siguiente++ & (InstitutoPoblado.CONSULTAS - 1)]);
+    }
+
+    @Benchmark
+    public List<Curso> filtrarCursosPorDocente(InstitutoPoblado datos) {
+        return datos.instituto.filtrarCursosPorDocente(datos.docentes[siguiente++ & (InstitutoPoblado.CONSULTAS - 1)], EstadoCurso.HABILITADO, EstadoCurso.CERRADO);
+    }
+
+    @Benchmark
+    public List<Curso> getCursosPorEstado(InstitutoPoblado datos) {
+        return datos.instituto.getCursosPorEstado(EstadoCurso.HABILITADO);
+    }
+}
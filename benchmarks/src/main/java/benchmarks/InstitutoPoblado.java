@@ -0,0 +1,64 @@
+package benchmarks;
+
+import herramientas.GeneradorInstituto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import modelo.Alumno;
+import modelo.Docente;
+import modelo.Instituto;
+import modelo.Usuario;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Instituto de prueba compartido por los benchmarks, con la cantidad de
+ * usuarios indicada por el parámetro "usuarios". Se genera con
+ * GeneradorInstituto y una semilla fija, de modo que todas las mediciones
+ * usan el mismo instituto: cursos en todos los estados, historial de cursadas
+ * finalizadas y alumnos con cursos aprobados.
+ */
+@State(Scope.Benchmark)
+public class InstitutoPoblado {
+
+    static final int CONSULTAS = 1024; // potencia de dos, para recorrer las consultas con una máscara
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int usuarios;
+
+    Instituto instituto;
+    String[] dnis;
+    Alumno[] alumnos;
+    Docente[] docentes;
+
+    /**
+     * Genera el instituto y elige al azar los DNI, alumnos y docentes que se
+     * consultan en cada medición.
+     */
+    @Setup
+    public void generar() {
+        Random aleatorio = new Random(42);
+        instituto = GeneradorInstituto.generar(42, usuarios);
+
+        List<Alumno> listaAlumnos = new ArrayList<>();
+        List<Docente> listaDocentes = new ArrayList<>();
+        for (Usuario usuario : instituto.getUsuarios()) {
+            if (usuario instanceof Alumno) {
+                listaAlumnos.add((Alumno) usuario);
+            } else if (usuario instanceof Docente) {
+                listaDocentes.add((Docente) usuario);
+            }
+        }
+
+        dnis = new String[CONSULTAS];
+        alumnos = new Alumno[CONSULTAS];
+        docentes = new Docente[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            alumnos[i] = listaAlumnos.get(aleatorio.nextInt(listaAlumnos.size()));
+            dnis[i] = alumnos[i].getDni();
+            docentes[i] = listaDocentes.get(aleatorio.nextInt(listaDocentes.size()));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import modelo.PassHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mide el hash de contraseñas sobre los DNI del instituto de prueba, que es
+ * lo que se calcula al crear cada usuario, y la verificación contra el hash
+ * almacenado, que es lo que se calcula en cada inicio de sesión.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx6g", "-Djava.awt.headless=true"})
+public class PassHasherBenchmark {
+
+    private int siguiente;
+
+    @Benchmark
+    public String hash(InstitutoPoblado datos) {
+        return PassHasher.hash(datos.dnis[siguiente++ & (InstitutoPoblado.CONSULTAS - 1)]);
+    }
+
+    @Benchmark
+    public boolean verificar(InstitutoPoblado datos) {
+        int i = siguiente++ & (InstitutoPoblado.CONSULTAS - 1);
+        return PassHasher.verificar(datos.dnis[i], datos.alumnos[i].getPassword());
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import modelo.Instituto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistencia.CargadorMapeado;
+
+/**
+ * Mide el guardado y la recuperación del instituto completo en el archivo de
+ * datos. La carga al iniciar con CargadorMapeado se compara con la lectura
+ * con ObjectInputStream de un archivo guardado con la serialización de Java,
+ * que es como se cargaba el instituto antes del formato binario.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// La serialización de Java recorre el grafo de objetos en forma recursiva y necesita una pila grande con un millón de usuarios
+@Fork(value = 1, jvmArgs = {"-Xmx6g", "-Xss512m", "-Djava.awt.headless=true"})
+public class PersistenciaBenchmark {
+
+    private File archivo;
+    private File archivoLegado;
+
+    /**
+     * Guarda el instituto una vez en el formato binario y otra con la
+     * serialización de Java, para tener archivos que recuperar.
+     *
+     * @param datos El instituto de prueba.
+     * @throws IOException Si no se pueden escribir los archivos temporales.
+     */
+    @Setup
+    public void preparar(InstitutoPoblado datos) throws IOException {
+        archivo = File.createTempFile("instituto", ".dat");
+        datos.instituto.serializarInstituto(archivo.getPath());
+        archivoLegado = File.createTempFile("instituto-legado", ".dat");
+        try (ObjectOutputStream salida = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(archivoLegado)))) {
+            salida.writeObject(datos.instituto);
+        }
+    }
+
+    /**
+     * Borra los archivos temporales.
+     */
+    @TearDown
+    public void limpiar() {
+        archivo.delete();
+        archivoLegado.delete();
+    }
+
+    @Benchmark
+    public long serializarInstituto(InstitutoPoblado datos) {
+        datos.instituto.serializarInstituto(archivo.getPath());
+        return archivo.length();
+    }
+
+    @Benchmark
+    public Instituto deserializarInstituto() {
+        return Instituto.deserializarInstituto(archivo.getPath());
+    }
+
+    @Benchmark
+    public Instituto cargarMapeado() throws IOException {
+        return CargadorMapeado.cargar(archivo.getPath());
+    }
+
+    @Benchmark
+    public Object cargarLegado() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream entrada = new ObjectInputStream(new BufferedInputStream(new FileInputStream(archivoLegado)))) {
+            return entrada.readObject();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import excepciones.CalificacionInvalidaException;
+import excepciones.TransicionEstadoInvalidaException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de las calificaciones guardadas en cada cursada: solo se califican
+ * los alumnos inscriptos, la cantidad sin calificar sigue a las
+ * calificaciones y la cursada finalizada las conserva al reiniciar el curso.
+ */
+class CalificacionesTest {
+
+    @Test
+    void soloSeCalificanLosAlumnosInscriptos() throws Exception {
+        Instituto instituto = new Instituto();
+        List<String> registradas = new ArrayList<>();
+        instituto.setRegistroOperaciones((secuencia, tipo, datos) -> registradas.add(tipo + " " + String.join(",", datos)));
+        ServicioInstituto servicio = new ServicioInstituto(instituto);
+        Curso curso = cursoCerrado(instituto, "30000001", "30000002");
+        Alumno ana = (Alumno) instituto.buscarPorDni("30000001");
+        Alumno eva = (Alumno) instituto.buscarPorDni("30000002");
+        instituto.crearAlumno("Juan", "Sosa", "30000003");
+        Alumno juan = (Alumno) instituto.buscarPorDni("30000003");
+        Cursada cursada = curso.getCursadaActiva();
+
+        assertThrows(CalificacionInvalidaException.class, () -> servicio.calificar(curso, juan, Calificacion.APROBADO));
+        assertFalse(instituto.calificar(curso, juan, Calificacion.APROBADO));
+        assertEquals(Calificacion.SIN_CALIFICAR, cursada.getCalificacion(juan));
+        assertEquals(2, cursada.getSinCalificar());
+        assertEquals(List.of(), registradas, "no se registra una calificación rechazada");
+
+        servicio.calificar(curso, ana, Calificacion.APROBADO);
+        servicio.calificar(curso, eva, Calificacion.DESAPROBADO);
+        assertTrue(cursada.todosCalificados());
+        assertEquals(List.of(ana), cursada.getAprobados());
+
+        servicio.calificar(curso, eva, Calificacion.SIN_CALIFICAR);
+        assertEquals(1, cursada.getSinCalificar());
+        assertEquals(3, registradas.size());
+    }
+
+    @Test
+    void unCursoSinCursadaActivaNoSeCalifica() {
+        Instituto instituto = new Instituto();
+        instituto.setRegistroOperaciones((secuencia, tipo, datos) -> { });
+        ServicioInstituto servicio = new ServicioInstituto(instituto);
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        instituto.crearAlumno("Ana", "Gómez", "30000001");
+        Curso curso = instituto.crearCurso("Álgebra", "Curso de prueba", 0, (Docente) instituto.buscarPorDni("20000001"));
+        instituto.altaCurso(curso);
+
+        assertThrows(CalificacionInvalidaException.class,
+                () -> servicio.calificar(curso, (Alumno) instituto.buscarPorDni("30000001"), Calificacion.APROBADO));
+    }
+
+    @Test
+    void laCursadaFinalizadaConservaLasCalificaciones() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        Curso curso = cursoCerrado(instituto, "30000001", "30000002");
+        Alumno ana = (Alumno) instituto.buscarPorDni("30000001");
+        Alumno eva = (Alumno) instituto.buscarPorDni("30000002");
+        Cursada finalizada = curso.getCursadaActiva();
+
+        instituto.finalizarCurso(curso, List.of(eva));
+        instituto.reiniciarCurso(curso, curso.getDocente());
+        instituto.inscribirAlumno(ana, curso);
+
+        assertEquals(Calificacion.DESAPROBADO, finalizada.getCalificacion(ana));
+        assertEquals(Calificacion.APROBADO, finalizada.getCalificacion(eva));
+        assertEquals(Calificacion.SIN_CALIFICAR, curso.getCursadaActiva().getCalificacion(ana));
+        assertEquals(1, curso.getCursadaActiva().getSinCalificar());
+    }
+
+    private static Curso cursoCerrado(Instituto instituto, String... dnis) throws TransicionEstadoInvalidaException {
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        Curso curso = instituto.crearCurso("Álgebra", "Curso de prueba", 0, (Docente) instituto.buscarPorDni("20000001"));
+        instituto.altaCurso(curso);
+        instituto.modificarCurso(curso, EstadoCurso.HABILITADO, 10);
+        for (String dni : dnis) {
+            instituto.crearAlumno("Alumno", dni, dni);
+            instituto.inscribirAlumno((Alumno) instituto.buscarPorDni(dni), curso);
+        }
+        instituto.modificarCurso(curso, EstadoCurso.CERRADO, 10);
+        return curso;
+    }
+}
@@ -0,0 +1,141 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import persistencia.CargadorMapeado;
+import persistencia.ConversorLegado;
+
+/**
+ * Pruebas del formato binario del instituto: un instituto decodificado vuelve
+ * a codificarse con los mismos bytes, y un archivo guardado con la
+ * serialización de Java se convierte una sola vez sin perder datos. El
+ * formato anterior no tiene listas de espera ni calificaciones, por lo que la
+ * conversión se prueba con un instituto sin ellas.
+ */
+class CodecInstitutoTest {
+
+    @TempDir
+    File directorio;
+
+    @Test
+    void decodificarYVolverACodificarDaLosMismosBytes() throws Exception {
+        Instituto original = institutoDePrueba();
+        byte[] datos = CodecInstituto.codificar(original);
+
+        Instituto leido = CodecInstituto.decodificar(ByteBuffer.wrap(datos));
+
+        assertArrayEquals(datos, CodecInstituto.codificar(leido));
+        verificarContenido(leido);
+    }
+
+    @Test
+    void convierteUnArchivoDelFormatoAnterior() throws Exception {
+        Instituto original = institutoLegado();
+        File archivo = new File(directorio, "instituto.dat");
+        try (ObjectOutputStream salida = new ObjectOutputStream(new FileOutputStream(archivo))) {
+            salida.writeObject(original);
+        }
+        assertTrue(CodecInstituto.esFormatoLegado(Files.readAllBytes(archivo.toPath())));
+
+        assertTrue(ConversorLegado.convertir(archivo.getPath()));
+
+        assertFalse(CodecInstituto.esFormatoLegado(Files.readAllBytes(archivo.toPath())));
+        assertTrue(new File(directorio, "instituto.dat.legado").exists(), "copia del archivo anterior");
+        Instituto convertido = CargadorMapeado.cargar(archivo.getPath());
+        assertArrayEquals(CodecInstituto.codificar(original), CodecInstituto.codificar(convertido));
+        Alumno ana = (Alumno) convertido.buscarPorDni("30000001");
+        assertTrue(PassHasher.verificar("claveAna", ana.getPassword()));
+        assertEquals(List.of(ana), convertido.getCursos().get(0).getCursadaActiva().getAlumnos());
+        assertEquals(List.of(convertido.getCursos().get(0)), ana.getCursosInscriptos());
+        assertFalse(ConversorLegado.convertir(archivo.getPath()), "ya está en el formato binario");
+    }
+
+    /**
+     * Arma un instituto con un curso finalizado y reiniciado, calificaciones,
+     * una lista de espera y una contraseña cambiada.
+     */
+    private static Instituto institutoDePrueba() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        instituto.crearAlumno("Ana", "Gómez", "30000001");
+        instituto.crearAlumno("Eva", "Ruiz", "30000002");
+        instituto.crearAlumno("Juan", "Sosa", "x-30000003");
+        Docente docente = (Docente) instituto.buscarPorDni("20000001");
+        Alumno ana = (Alumno) instituto.buscarPorDni("30000001");
+        Alumno eva = (Alumno) instituto.buscarPorDni("30000002");
+        Alumno juan = (Alumno) instituto.buscarPorDni("x-30000003");
+        ana.cambioPassword("claveAna");
+
+        Curso algebra = instituto.crearCurso("Álgebra", "Primer curso", 0, docente);
+        instituto.altaCurso(algebra);
+        instituto.modificarCurso(algebra, EstadoCurso.HABILITADO, 5);
+        instituto.inscribirAlumno(ana, algebra);
+        instituto.inscribirAlumno(eva, algebra);
+        instituto.modificarCurso(algebra, EstadoCurso.CERRADO, 5);
+        instituto.calificar(algebra, ana, Calificacion.APROBADO);
+        instituto.finalizarCurso(algebra, List.of(ana));
+        instituto.reiniciarCurso(algebra, docente);
+
+        Curso analisis = instituto.crearCurso("Análisis", "Segundo curso", 0, docente);
+        instituto.altaCurso(analisis);
+        instituto.modificarCurso(analisis, EstadoCurso.HABILITADO, 1);
+        instituto.inscribirAlumno(eva, analisis);
+        instituto.anotarEnListaEspera(juan, analisis);
+        instituto.calificar(analisis, eva, Calificacion.DESAPROBADO);
+        return instituto;
+    }
+
+    /**
+     * Arma un instituto con los datos que guardaban las versiones anteriores:
+     * usuarios, contraseñas y cursos con sus alumnos inscriptos.
+     */
+    private static Instituto institutoLegado() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        instituto.crearAlumno("Ana", "Gómez", "30000001");
+        instituto.crearAlumno("Eva", "Ruiz", "30000002");
+        Alumno ana = (Alumno) instituto.buscarPorDni("30000001");
+        ana.cambioPassword("claveAna");
+        Curso algebra = instituto.crearCurso("Álgebra", "Primer curso", 0, (Docente) instituto.buscarPorDni("20000001"));
+        instituto.altaCurso(algebra);
+        instituto.modificarCurso(algebra, EstadoCurso.HABILITADO, 5);
+        instituto.inscribirAlumno(ana, algebra);
+        return instituto;
+    }
+
+    private static void verificarContenido(Instituto instituto) {
+        Alumno ana = (Alumno) instituto.buscarPorDni("30000001");
+        Alumno eva = (Alumno) instituto.buscarPorDni("30000002");
+        Alumno juan = (Alumno) instituto.buscarPorDni("x-30000003");
+        assertTrue(PassHasher.verificar("claveAna", ana.getPassword()));
+        assertFalse(ana.isPasswordProvisoria());
+        assertTrue(eva.isPasswordProvisoria());
+
+        Curso algebra = instituto.getCursos().get(0);
+        Curso analisis = instituto.getCursos().get(1);
+        assertEquals(EstadoCurso.HABILITADO, algebra.getEstadoCurso());
+        Cursada finalizada = algebra.getCursadasFinalizadas().get(0);
+        assertEquals(List.of(ana, eva), finalizada.getAlumnos());
+        assertEquals(Calificacion.APROBADO, finalizada.getCalificacion(ana));
+        assertEquals(Calificacion.DESAPROBADO, finalizada.getCalificacion(eva));
+        assertEquals(1, ana.totalCursosAprobados());
+
+        assertEquals(EstadoCurso.CERRADO, analisis.getEstadoCurso());
+        assertEquals(List.of(eva), analisis.getCursadaActiva().getAlumnos());
+        assertEquals(List.of(juan), analisis.getCursadaActiva().getListaEspera());
+        assertEquals(Calificacion.DESAPROBADO, analisis.getCursadaActiva().getCalificacion(eva));
+    }
+}
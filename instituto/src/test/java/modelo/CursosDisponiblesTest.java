@@ -0,0 +1,50 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de los cursos disponibles para que un alumno se inscriba: solo los
+ * habilitados cuyos requisitos cumple y que no cursa ni aprobó.
+ */
+class CursosDisponiblesTest {
+
+    @Test
+    void losDisponiblesSiguenLasInscripcionesYLosAprobados() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        instituto.crearAlumno("Ana", "Gómez", "30000001");
+        instituto.crearAlumno("Eva", "Ruiz", "30000002");
+        Docente docente = (Docente) instituto.buscarPorDni("20000001");
+        Alumno ana = (Alumno) instituto.buscarPorDni("30000001");
+        Alumno eva = (Alumno) instituto.buscarPorDni("30000002");
+        Curso algebra = habilitado(instituto, "Álgebra", 0, docente);
+        Curso fisica = habilitado(instituto, "Física", 0, docente);
+        Curso analisis = habilitado(instituto, "Análisis", 1, docente);
+        Curso propuesto = instituto.crearCurso("Química", "Curso de prueba", 0, docente);
+        instituto.altaCurso(propuesto);
+
+        assertEquals(List.of(algebra, fisica), instituto.filtrarCursosPorAlumno(ana));
+
+        instituto.inscribirAlumno(ana, algebra);
+        assertEquals(List.of(fisica), instituto.filtrarCursosPorAlumno(ana));
+        assertEquals(List.of(algebra, fisica), instituto.filtrarCursosPorAlumno(eva));
+
+        instituto.modificarCurso(algebra, EstadoCurso.CERRADO, 10);
+        instituto.finalizarCurso(algebra, List.of(ana));
+        instituto.reiniciarCurso(algebra, docente);
+
+        assertEquals(List.of(fisica, analisis), instituto.filtrarCursosPorAlumno(ana));
+        assertEquals(List.of(algebra, fisica), instituto.filtrarCursosPorAlumno(eva));
+    }
+
+    private static Curso habilitado(Instituto instituto, String nombre, int requeridos, Docente docente) throws TransicionEstadoInvalidaException {
+        Curso curso = instituto.crearCurso(nombre, "Curso de prueba", requeridos, docente);
+        instituto.altaCurso(curso);
+        instituto.modificarCurso(curso, EstadoCurso.HABILITADO, 10);
+        return curso;
+    }
+}
@@ -0,0 +1,55 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de las transiciones de estado de un curso finalizado: solo vuelve a
+ * habilitarse al reiniciar la cursada, que archiva la cursada finalizada.
+ */
+class EstadoCursoTest {
+
+    @Test
+    void unCursoFinalizadoNoSeRehabilitaConModificarCurso() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        Curso curso = cursoFinalizado(instituto);
+        Cursada finalizada = curso.getCursadaActiva();
+
+        assertThrows(TransicionEstadoInvalidaException.class,
+                () -> instituto.modificarCurso(curso, EstadoCurso.HABILITADO, 5));
+        assertThrows(TransicionEstadoInvalidaException.class, () -> curso.setEstadoCurso(EstadoCurso.HABILITADO));
+        assertEquals(EstadoCurso.FINALIZADO, curso.getEstadoCurso());
+        assertSame(finalizada, curso.getCursadaActiva());
+    }
+
+    @Test
+    void reiniciarLaCursadaArchivaLaFinalizada() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        Curso curso = cursoFinalizado(instituto);
+        Cursada finalizada = curso.getCursadaActiva();
+
+        instituto.reiniciarCurso(curso, curso.getDocente());
+
+        assertEquals(EstadoCurso.HABILITADO, curso.getEstadoCurso());
+        assertEquals(List.of(finalizada), curso.getCursadasFinalizadas());
+        assertEquals(0, curso.getCursadaActiva().getCantidadAlumnos());
+        assertEquals(1, finalizada.getCantidadAlumnos());
+    }
+
+    private static Curso cursoFinalizado(Instituto instituto) throws TransicionEstadoInvalidaException {
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        instituto.crearAlumno("Ana", "Gómez", "30000001");
+        Curso curso = instituto.crearCurso("Álgebra", "Curso de prueba", 0, (Docente) instituto.buscarPorDni("20000001"));
+        instituto.altaCurso(curso);
+        instituto.modificarCurso(curso, EstadoCurso.HABILITADO, 5);
+        instituto.inscribirAlumno((Alumno) instituto.buscarPorDni("30000001"), curso);
+        instituto.modificarCurso(curso, EstadoCurso.CERRADO, 5);
+        instituto.finalizarCurso(curso, List.of((Alumno) instituto.buscarPorDni("30000001")));
+        return curso;
+    }
+}
@@ -0,0 +1,71 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas del índice de cursos por estado: los grupos siguen los cambios de
+ * estado y devuelven los cursos en el orden del catálogo, sin importar el
+ * orden en que cambiaron de estado ni la cantidad de cursos que requieren.
+ * Los grupos de cada docente se comportan igual y no mezclan cursos de otros
+ * docentes.
+ */
+class IndiceCursosTest {
+
+    @Test
+    void losHabilitadosSiguenElOrdenDelCatalogo() throws TransicionEstadoInvalidaException {
+        Docente docente = new Docente("Luis", "Pérez", "20000001");
+        IndiceCursos indice = new IndiceCursos();
+        int[] requeridos = {2, 0, 1, 0, 3};
+        Curso[] cursos = new Curso[requeridos.length];
+        for (int i = 0; i < cursos.length; i++) {
+            cursos[i] = new Curso("Curso " + i, "Curso de prueba", requeridos[i], docente);
+            indice.agregar(cursos[i], i);
+        }
+
+        for (int i : new int[]{4, 1, 3, 0, 2}) {
+            cursos[i].setEstadoCurso(EstadoCurso.HABILITADO);
+        }
+        cursos[3].setEstadoCurso(EstadoCurso.CERRADO);
+        cursos[3].setEstadoCurso(EstadoCurso.HABILITADO);
+        cursos[0].setEstadoCurso(EstadoCurso.CANCELADO);
+
+        assertEquals(List.of(cursos[1], cursos[2], cursos[3], cursos[4]), indice.getCursos(EstadoCurso.HABILITADO));
+        assertEquals(List.of(cursos[0]), indice.getCursos(EstadoCurso.CANCELADO));
+        assertEquals(List.of(), indice.getCursos(EstadoCurso.PROPUESTO));
+
+        assertEquals(List.of(cursos[1], cursos[3]), indice.getHabilitados(0));
+        assertEquals(List.of(cursos[1], cursos[2], cursos[3]), indice.getHabilitados(2));
+        assertEquals(List.of(cursos[1], cursos[2], cursos[3], cursos[4]), indice.getHabilitados(5));
+    }
+
+    @Test
+    void losCursosDeCadaDocenteSeIntercalanEnElOrdenDelCatalogo() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        instituto.crearDocente("Marta", "Díaz", "20000002");
+        Docente luis = (Docente) instituto.buscarPorDni("20000001");
+        Docente marta = (Docente) instituto.buscarPorDni("20000002");
+        Curso[] cursos = new Curso[6];
+        for (int i = 0; i < cursos.length; i++) {
+            cursos[i] = instituto.crearCurso("Curso " + i, "Curso de prueba", 0, i % 3 == 2 ? marta : luis);
+            instituto.altaCurso(cursos[i]);
+        }
+
+        instituto.modificarCurso(cursos[4], EstadoCurso.HABILITADO, 10);
+        instituto.modificarCurso(cursos[0], EstadoCurso.HABILITADO, 10);
+        instituto.modificarCurso(cursos[3], EstadoCurso.HABILITADO, 10);
+        instituto.modificarCurso(cursos[3], EstadoCurso.CERRADO, 10);
+        instituto.modificarCurso(cursos[2], EstadoCurso.HABILITADO, 10);
+
+        assertEquals(List.of(cursos[0], cursos[4]), instituto.filtrarCursosPorDocente(luis, EstadoCurso.HABILITADO));
+        assertEquals(List.of(cursos[0], cursos[3], cursos[4]),
+                instituto.filtrarCursosPorDocente(luis, EstadoCurso.HABILITADO, EstadoCurso.CERRADO));
+        assertEquals(List.of(cursos[1]), instituto.filtrarCursosPorDocente(luis, EstadoCurso.PROPUESTO));
+        assertEquals(List.of(cursos[2]), instituto.filtrarCursosPorDocente(marta, EstadoCurso.HABILITADO, EstadoCurso.CERRADO));
+        assertEquals(List.of(cursos[5]), instituto.filtrarCursosPorDocente(marta, EstadoCurso.PROPUESTO));
+    }
+}
@@ -0,0 +1,91 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Prueba de estrés de la reserva de lugares de Curso.inscribirAlumno: muchos
+ * hilos se inscriben a la vez en un curso con pocos lugares, y nunca deben
+ * quedar más alumnos que el tope ni cerrarse el curso más de una vez.
+ */
+class InscripcionConcurrenteTest {
+
+    private static final int HILOS = 64;
+    private static final int TOPE = 7;
+    private static final int REPETICIONES = 200;
+
+    @Test
+    void noSeSuperaElTopeConInscripcionesSimultaneas() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        try {
+            for (int repeticion = 0; repeticion < REPETICIONES; repeticion++) {
+                probarRepeticion(hilos, repeticion);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private static void probarRepeticion(ExecutorService hilos, int repeticion) throws Exception {
+        Docente docente = new Docente("Ana", "Gómez", "10000000");
+        Curso curso = new Curso("Curso " + repeticion, "Curso de prueba", 0, docente);
+        ContadorCierres cierres = new ContadorCierres();
+        curso.indexar(cierres, 0);
+        habilitar(curso, docente);
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> inscripciones = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            Alumno alumno = new Alumno("Alumno", String.valueOf(i), String.valueOf(20000000 + i));
+            inscripciones.add(hilos.submit(() -> {
+                largada.await();
+                return curso.inscribirAlumno(alumno);
+            }));
+        }
+        largada.countDown();
+
+        int inscriptos = 0;
+        for (Future<Boolean> inscripcion : inscripciones) {
+            if (inscripcion.get()) {
+                inscriptos++;
+            }
+        }
+
+        Cursada cursada = curso.getCursadaActiva();
+        assertEquals(TOPE, inscriptos, "inscripciones aceptadas");
+        assertEquals(TOPE, cursada.getLugaresOcupados(), "lugares ocupados");
+        assertEquals(TOPE, cursada.getCantidadAlumnos(), "alumnos inscriptos");
+        assertEquals(EstadoCurso.CERRADO, curso.getEstadoCurso());
+        assertEquals(1, cierres.cantidad.get(), "transiciones a CERRADO");
+    }
+
+    private static void habilitar(Curso curso, Docente docente) throws TransicionEstadoInvalidaException {
+        curso.setTopeAlumnos(TOPE);
+        curso.altaCursada(docente);
+        curso.setEstadoCurso(EstadoCurso.HABILITADO);
+    }
+
+    /**
+     * Índice que solo cuenta las veces que el curso pasa a cerrado.
+     */
+    private static final class ContadorCierres extends IndiceCursos {
+
+        private final AtomicInteger cantidad = new AtomicInteger();
+
+        @Override
+        void estadoCambiado(Curso curso, EstadoCurso estadoAnterior) {
+            if (curso.getEstadoCurso() == EstadoCurso.CERRADO && estadoAnterior != EstadoCurso.CERRADO) {
+                cantidad.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de LimitadorIngresos: el cubo de intentos de cada clave y los
+ * bloqueos por fallos consecutivos, cuya duración se duplica hasta el máximo
+ * y vuelve a la inicial después de un ingreso exitoso.
+ */
+class LimitadorIngresosTest {
+
+    private static final long BLOQUEO_INICIAL_MS = 200;
+    private static final long BLOQUEO_MAXIMO_MS = 800;
+    private static final long MARGEN_MS = 100;
+
+    @Test
+    void soloLosIntentosFallidosAgotanElCubo() {
+        LimitadorIngresos limitador = new LimitadorIngresos(3, 1, 100, 1, 1, TimeUnit.HOURS, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limitador.consumir("30000001"));
+            limitador.registrarExito("30000001");
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limitador.consumir("30000001"));
+        }
+        assertTrue(limitador.consumir("30000001") > 0, "cubo agotado");
+        assertEquals(0, limitador.consumir("30000002"), "las claves son independientes");
+
+        limitador.devolver("30000001");
+        assertEquals(0, limitador.consumir("30000001"));
+        assertEquals(9, limitador.getIntentos());
+        assertEquals(1, limitador.getRechazados());
+    }
+
+    @Test
+    void losBloqueosSeDuplicanHastaElMaximoYSeReinicianConUnExito() throws InterruptedException {
+        LimitadorIngresos limitador = new LimitadorIngresos(100, 1, 2, BLOQUEO_INICIAL_MS, BLOQUEO_MAXIMO_MS, TimeUnit.MILLISECONDS, 100);
+
+        assertBloqueo(limitador, BLOQUEO_INICIAL_MS);
+        assertBloqueo(limitador, BLOQUEO_INICIAL_MS * 2);
+        assertBloqueo(limitador, BLOQUEO_MAXIMO_MS);
+        assertBloqueo(limitador, BLOQUEO_MAXIMO_MS);
+
+        assertEquals(0, limitador.consumir("30000001"));
+        limitador.registrarExito("30000001");
+        assertBloqueo(limitador, BLOQUEO_INICIAL_MS);
+        assertEquals(5, limitador.getBloqueos());
+    }
+
+    /**
+     * Registra los fallos que bloquean la clave, verifica la duración del
+     * bloqueo y espera a que termine.
+     */
+    private static void assertBloqueo(LimitadorIngresos limitador, long duracionMs) throws InterruptedException {
+        assertEquals(0, limitador.consumir("30000001"));
+        limitador.registrarFallo("30000001");
+        assertEquals(0, limitador.consumir("30000001"), "un fallo no alcanza para bloquear");
+        limitador.registrarFallo("30000001");
+
+        long espera = TimeUnit.NANOSECONDS.toMillis(limitador.consumir("30000001"));
+        assertTrue(espera > duracionMs - MARGEN_MS && espera <= duracionMs, "bloqueo de " + espera + " ms, se esperaban " + duracionMs);
+        Thread.sleep(espera + 10);
+    }
+}
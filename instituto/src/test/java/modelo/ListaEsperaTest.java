@@ -0,0 +1,58 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de la lista de espera de una cursada: primero entran los alumnos
+ * con más cursos aprobados al anotarse y, entre los que tienen los mismos,
+ * el que se anotó antes.
+ */
+class ListaEsperaTest {
+
+    @Test
+    void losEmpatesSeResuelvenPorOrdenDeLlegada() throws TransicionEstadoInvalidaException {
+        Instituto instituto = new Instituto();
+        instituto.crearDocente("Luis", "Pérez", "20000001");
+        Docente docente = (Docente) instituto.buscarPorDni("20000001");
+        Curso aprobado = instituto.crearCurso("Introducción", "Curso de prueba", 0, docente);
+        instituto.altaCurso(aprobado);
+        Curso curso = instituto.crearCurso("Álgebra", "Curso de prueba", 0, docente);
+        instituto.altaCurso(curso);
+        instituto.modificarCurso(curso, EstadoCurso.HABILITADO, 1);
+
+        Alumno eva = alumno(instituto, "Eva", "30000001", null);
+        Alumno juan = alumno(instituto, "Juan", "30000002", null);
+        Alumno ana = alumno(instituto, "Ana", "30000003", aprobado);
+        Alumno pedro = alumno(instituto, "Pedro", "30000004", null);
+        Alumno luz = alumno(instituto, "Luz", "30000005", aprobado);
+
+        assertEquals(ResultadoInscripcion.ACEPTADO, instituto.solicitarInscripcion(eva, curso));
+        for (Alumno alumno : List.of(juan, ana, pedro, luz)) {
+            assertEquals(ResultadoInscripcion.EN_ESPERA, instituto.solicitarInscripcion(alumno, curso));
+        }
+        assertEquals(ResultadoInscripcion.EN_ESPERA, instituto.solicitarInscripcion(juan, curso), "no se anota dos veces");
+        assertEquals(List.of(ana, luz, juan, pedro), curso.getCursadaActiva().getListaEspera());
+
+        // La prioridad se fija al anotarse
+        pedro.agregarCursoAprobado(aprobado);
+        assertEquals(List.of(ana, luz, juan, pedro), curso.getCursadaActiva().getListaEspera());
+
+        assertEquals(List.of(ana, luz), instituto.modificarCurso(curso, EstadoCurso.HABILITADO, 3));
+        assertEquals(List.of(eva, ana, luz), curso.getCursadaActiva().getAlumnos());
+        assertEquals(List.of(juan, pedro), curso.getCursadaActiva().getListaEspera());
+        assertEquals(EstadoCurso.CERRADO, curso.getEstadoCurso());
+    }
+
+    private static Alumno alumno(Instituto instituto, String nombre, String dni, Curso aprobado) {
+        instituto.crearAlumno(nombre, "Gómez", dni);
+        Alumno alumno = (Alumno) instituto.buscarPorDni(dni);
+        if (aprobado != null) {
+            alumno.agregarCursoAprobado(aprobado);
+        }
+        return alumno;
+    }
+}
@@ -0,0 +1,49 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de MapaDni con las claves que no entran en la tabla de enteros: DNI
+ * de más de ocho dígitos, con letras o con ceros a la izquierda, mezclados
+ * con DNI numéricos mientras la tabla crece.
+ */
+class MapaDniTest {
+
+    @Test
+    void distingueLasClavesQueNoSonDniNumericosCortos() {
+        MapaDni<String> mapa = new MapaDni<>(1);
+        String[] dnis = {"12345678", "123456789", "0012345678", "012345678", "12345678A", "A1", "", "1", "01", "001"};
+        for (String dni : dnis) {
+            assertNull(mapa.put(dni, "valor " + dni));
+        }
+
+        assertEquals(dnis.length, mapa.size());
+        for (String dni : dnis) {
+            assertEquals("valor " + dni, mapa.get(dni), dni);
+        }
+        assertNull(mapa.get("1234567890"));
+        assertNull(mapa.get("0001"));
+        assertNull(mapa.get("a1"));
+    }
+
+    @Test
+    void conservaLasEntradasAlCrecerYReemplazaValores() {
+        MapaDni<Integer> mapa = new MapaDni<>(1);
+        for (int i = 0; i < 10_000; i++) {
+            mapa.put(String.valueOf(30_000_000 + i), i);
+            mapa.put("9" + (30_000_000 + i), -i);
+        }
+
+        assertEquals(20_000, mapa.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, mapa.get(String.valueOf(30_000_000 + i)));
+            assertEquals(-i, mapa.get("9" + (30_000_000 + i)));
+        }
+        assertEquals(7, mapa.put("30000007", 70));
+        assertEquals(70, mapa.get("30000007"));
+        assertEquals(20_000, mapa.size());
+    }
+}
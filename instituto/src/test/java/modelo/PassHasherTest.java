@@ -0,0 +1,62 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pruebas de PassHasher: los hashes sin sal siguen siendo el SHA-256 en
+ * hexadecimal de las versiones anteriores, las tres formas de verificar
+ * coinciden y los hashes derivados se verifican con su propia sal y costo.
+ */
+class PassHasherTest {
+
+    private static final String SHA256_12345678 = "ef797c8118f02dfb649607dd5d3f8c7623048c9c063d532cc95c5ed7a898a64f";
+    private static final String SHA256_CONTRASENA = "edf9cf90718610ee7de53c0dcc250739239044de9ba115bb0ca6026c3e4958a5";
+
+    @Test
+    void elHashSimpleEsElSha256EnHexadecimal() {
+        assertEquals(SHA256_12345678, PassHasher.hash("12345678"));
+        assertEquals(SHA256_12345678, PassHasher.hash("12345678".toCharArray()));
+        assertEquals(SHA256_CONTRASENA, PassHasher.hash("contraseña".toCharArray()), "se codifica en UTF-8");
+        assertTrue(PassHasher.esHashSimple(SHA256_12345678));
+        assertTrue(PassHasher.requiereActualizacion(SHA256_12345678));
+    }
+
+    @Test
+    void lasTresFormasDeVerificarCoinciden() {
+        for (String hash : new String[]{SHA256_CONTRASENA, PassHasher.derivar("contraseña".toCharArray(), 1000)}) {
+            assertTrue(PassHasher.verificar("contraseña", hash));
+            assertTrue(PassHasher.verificar("contraseña".toCharArray(), hash));
+            assertTrue(PassHasher.verificar("contraseña".getBytes(StandardCharsets.UTF_8), hash));
+            assertFalse(PassHasher.verificar("contrasena", hash));
+            assertFalse(PassHasher.verificar("".toCharArray(), hash));
+            assertFalse(PassHasher.verificar("contraseñas".getBytes(StandardCharsets.UTF_8), hash));
+        }
+    }
+
+    @Test
+    void losHashesDerivadosUsanSalYConservanSuCosto() {
+        String primero = PassHasher.derivar("clave123".toCharArray(), 1000);
+        String segundo = PassHasher.derivar("clave123".toCharArray(), 1000);
+
+        assertNotEquals(primero, segundo, "cada hash tiene su propia sal");
+        assertTrue(primero.startsWith("pbkdf2-sha256$1000$"), primero);
+        assertFalse(PassHasher.esHashSimple(primero));
+        assertTrue(PassHasher.verificar("clave123", segundo));
+        assertEquals(PassHasher.ITERACIONES > 1000, PassHasher.requiereActualizacion(primero));
+        assertFalse(PassHasher.requiereActualizacion(PassHasher.derivar("clave123".toCharArray(), PassHasher.ITERACIONES)));
+    }
+
+    @Test
+    void unHashMalFormadoNoCorrespondeANingunaContraseña() {
+        assertFalse(PassHasher.verificar("clave123", "pbkdf2-sha256$1000$sal"));
+        assertFalse(PassHasher.verificar("clave123", "pbkdf2-sha256$mil$c2Fs$aGFzaA=="));
+        assertFalse(PassHasher.verificar("clave123", "no es hexadecimal"));
+        assertTrue(PassHasher.requiereActualizacion("pbkdf2-sha256$mil$c2Fs$aGFzaA=="));
+    }
+}
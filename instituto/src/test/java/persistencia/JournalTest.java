@@ -0,0 +1,85 @@
+package persistencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import modelo.InformadorErrores;
+import modelo.Instituto;
+import modelo.TipoOperacion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Pruebas de la reproducción del journal: un registro cortado al final se
+ * descarta, y un registro que no puede aplicarse o una secuencia faltante
+ * impiden el arranque con un error que indica la operación.
+ */
+class JournalTest {
+
+    @TempDir
+    File directorio;
+
+    @Test
+    void descartaElRegistroCortadoAlFinalYSigueAgregando() throws IOException {
+        File archivo = new File(directorio, "instituto.journal");
+        Journal journal = new Journal(archivo.getPath(), InformadorErrores.SALIDA_ERRORES);
+        journal.escribirLote(Arrays.asList(
+                Journal.codificar(1, TipoOperacion.ALTA_ALUMNO, "Ana", "Gómez", "30000001"),
+                Journal.codificar(2, TipoOperacion.ALTA_DOCENTE, "Luis", "Pérez", "20000001")));
+        journal.cerrar();
+        long longitudValida = archivo.length();
+        byte[] cortado = Journal.codificar(3, TipoOperacion.ALTA_ALUMNO, "Eva", "Ruiz", "30000002");
+        try (FileOutputStream salida = new FileOutputStream(archivo, true)) {
+            salida.write(cortado, 0, cortado.length - 3);
+        }
+
+        Instituto instituto = new Instituto();
+        Journal reproducido = new Journal(archivo.getPath(), InformadorErrores.SALIDA_ERRORES);
+        assertEquals(2, reproducido.reproducir(instituto));
+        assertEquals(longitudValida, archivo.length(), "el registro cortado se recorta");
+        assertNotNull(instituto.buscarPorDni("30000001"));
+        assertNotNull(instituto.buscarPorDni("20000001"));
+
+        reproducido.escribirLote(List.of(cortado));
+        reproducido.cerrar();
+        Instituto otro = new Instituto();
+        assertEquals(3, new Journal(archivo.getPath(), InformadorErrores.SALIDA_ERRORES).reproducir(otro));
+        assertNotNull(otro.buscarPorDni("30000002"));
+    }
+
+    @Test
+    void informaLaSecuenciaDeUnRegistroQueNoPuedeAplicarse() throws IOException {
+        File archivo = new File(directorio, "instituto.journal");
+        Journal journal = new Journal(archivo.getPath(), InformadorErrores.SALIDA_ERRORES);
+        journal.escribirLote(Arrays.asList(
+                Journal.codificar(1, TipoOperacion.ALTA_ALUMNO, "Ana", "Gómez", "30000001"),
+                Journal.codificar(2, TipoOperacion.INSCRIPCION, "30000001", "7")));
+        journal.cerrar();
+
+        IOException error = assertThrows(IOException.class,
+                () -> new Journal(archivo.getPath(), InformadorErrores.SALIDA_ERRORES).reproducir(new Instituto()));
+        assertTrue(error.getMessage().startsWith("Operación 2 "), error.getMessage());
+    }
+
+    @Test
+    void rechazaUnaSecuenciaFaltante() throws IOException {
+        File archivo = new File(directorio, "instituto.journal");
+        Journal journal = new Journal(archivo.getPath(), InformadorErrores.SALIDA_ERRORES);
+        journal.escribirLote(Arrays.asList(
+                Journal.codificar(1, TipoOperacion.ALTA_ALUMNO, "Ana", "Gómez", "30000001"),
+                Journal.codificar(3, TipoOperacion.ALTA_ALUMNO, "Eva", "Ruiz", "30000002")));
+        journal.cerrar();
+
+        Instituto instituto = new Instituto();
+        IOException error = assertThrows(IOException.class,
+                () -> new Journal(archivo.getPath(), InformadorErrores.SALIDA_ERRORES).reproducir(instituto));
+        assertTrue(error.getMessage().contains("Falta la operación 2"), error.getMessage());
+    }
+}
@@ -0,0 +1,45 @@
+package app;
+
+import java.io.IOException;
+import modelo.InformadorErrores;
+import modelo.ServicioInstituto;
+import persistencia.ArranqueInstituto;
+import servidor.ServidorInstituto;
+
+public class MainServidor {
+
+    private static final int PUERTO_PREDETERMINADO = 8080;
+
+    /**
+     * Punto de entrada del modo sin interfaz gráfica. Carga el Instituto y
+     * aplica el journal con ArranqueInstituto, igual que Main, y en lugar de la
+     * ventana de inicio de sesión inicia el servidor HTTP local que expone las
+     * operaciones del instituto. Los errores se informan por la salida de
+     * errores.
+     *
+     * @param args el puerto en el que escucha el servidor (opcional, 8080 por
+     * defecto)
+     */
+    public static void main(String[] args) {
+        int puerto = args.length > 0 ? Integer.parseInt(args[0]) : PUERTO_PREDETERMINADO;
+
+        ServicioInstituto servicio;
+        try {
+            servicio = ArranqueInstituto.iniciar(InformadorErrores.SALIDA_ERRORES);
+        } catch (IOException e) {
+            System.err.println("Error al recuperar los datos: " + e.getMessage());
+            return;
+        }
+
+        ServidorInstituto servidor;
+        try {
+            servidor = new ServidorInstituto(servicio, puerto);
+        } catch (IOException e) {
+            System.err.println("No se pudo iniciar el servidor en el puerto " + puerto + ": " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> servidor.detener(1), "detencion-servidor"));
+        servidor.iniciar();
+        System.out.println("Servidor del instituto escuchando en http://localhost:" + servidor.getPuerto() + "/api");
+    }
+}
@@ -2,8 +2,8 @@ package controlador;
 
 import excepciones.ExisteUsuarioException;
 import excepciones.NoExisteUsuarioException;
+import excepciones.TransicionEstadoInvalidaException;
 
-import javax.swing.DefaultListModel;
 import javax.swing.JOptionPane;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
@@ -11,11 +11,13 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
+import java.util.List;
 import javax.swing.table.DefaultTableModel;
 
 import modelo.Administrador;
 import modelo.Curso;
-import modelo.Instituto;
+import modelo.EstadoCurso;
+import modelo.ServicioInstituto;
 import modelo.Usuario;
 
 import visual.VentanaAdmin;
@@ -27,20 +29,20 @@ import visual.VentanaCambioPassword;
 public class ControladorAdmin implements ActionListener {
 
     private VentanaAdmin vista;
-    private Instituto instituto;
+    private ServicioInstituto servicio;
     private Administrador usuarioLogeado;
 
     /**
      * Constructor para el controlador de administrador.
      *
      * @param vista La ventana de administrador.
-     * @param instituto El instituto asociado.
+     * @param servicio El servicio del instituto asociado.
      * @param usuarioLogeado El administrador que ha iniciado sesión.
      */
-    public ControladorAdmin(VentanaAdmin vista, Instituto instituto, Administrador usuarioLogeado) {
+    public ControladorAdmin(VentanaAdmin vista, ServicioInstituto servicio, Administrador usuarioLogeado) {
         // Inicialización de atributos y configuración de escuchadores de eventos
         this.vista = vista;
-        this.instituto = instituto;
+        this.servicio = servicio;
         this.usuarioLogeado = usuarioLogeado;
         this.vista.jButtonCrearUsuario.addActionListener(this);
         this.vista.jButtonBuscarUsuario.addActionListener(this);
@@ -99,7 +101,7 @@ public class ControladorAdmin implements ActionListener {
             } else if (e.getSource() == vista.jRadioButtonCuentaAlumno || e.getSource() == vista.jRadioButtonCuentaDocente) {
                 habilitarBotonCrearUsuario();
             }
-        } catch (ExisteUsuarioException | NoExisteUsuarioException ex) {
+        } catch (ExisteUsuarioException | NoExisteUsuarioException | TransicionEstadoInvalidaException ex) {
             JOptionPane.showMessageDialog(null, ex.getMessage());
         }
     }
@@ -110,8 +112,9 @@ public class ControladorAdmin implements ActionListener {
      * existe y las entradas de nombre, apellido y DNI son válidas, crea un
      * nuevo usuario (alumno o docente) según la selección del radio button
      * correspondiente. Luego, muestra un mensaje de éxito, limpia los campos
-     * del registro, carga el listado de usuarios actualizado y guarda los datos
-     * en un archivo.
+     * del registro, carga el listado de usuarios actualizado y registra el
+     * alta en el journal del instituto. El servicio vuelve a verificar el DNI
+     * al dar el alta, por si otro usuario fue creado mientras tanto.
      *
      * @throws ExisteUsuarioException Si el usuario ya existe en el sistema.
      */
@@ -124,17 +127,16 @@ public class ControladorAdmin implements ActionListener {
 
         if (validarEntradasCrearUsuario(nombre, apellido, dni)) {
             if (vista.jRadioButtonCuentaAlumno.isSelected()) {
-                instituto.crearAlumno(nombre, apellido, dni);
+                servicio.crearAlumno(nombre, apellido, dni);
                 JOptionPane.showMessageDialog(null, "Alumno " + nombre + " " + apellido + " DNI " + dni + " creado con éxito.");
                 limpiarCamposRegistro();
 
             } else if (vista.jRadioButtonCuentaDocente.isSelected()) {
-                instituto.crearDocente(nombre, apellido, dni);
+                servicio.crearDocente(nombre, apellido, dni);
                 JOptionPane.showMessageDialog(null, "Docente " + nombre + " " + apellido + " DNI " + dni + " creado con éxito.");
                 limpiarCamposRegistro();
             }
             cargarListadoUsuarios();
-            instituto.serializarInstituto("instituto.dat");//se guardan los datos en archivo
         }
     }
 
@@ -169,8 +171,8 @@ public class ControladorAdmin implements ActionListener {
      * encontrar al usuario correspondiente. Luego, realiza el blanqueo de la
      * contraseña del usuario encontrado. Actualiza los botones de la cuenta
      * según el estado del usuario. Muestra un mensaje de éxito indicando que la
-     * contraseña ha sido restaurada. Finalmente, serializa los datos
-     * actualizados del instituto en un archivo.
+     * contraseña ha sido restaurada. Finalmente, registra el blanqueo en el
+     * journal del instituto.
      *
      * @throws NoExisteUsuarioException Si no se encuentra ningún usuario con el
      * DNI proporcionado.
@@ -178,10 +180,9 @@ public class ControladorAdmin implements ActionListener {
     private void ejecutarBlanquearClave() throws NoExisteUsuarioException {
         String dni = vista.jTextFieldBuscarUsuario.getText();
         Usuario user = buscarUsuarioIngresado(dni);
-        user.blanquearPassword();
+        servicio.blanquearPassword(user);
         actualizarBotonesCuenta(user);
         JOptionPane.showMessageDialog(null, "Clave restaurada con éxito.");
-        instituto.serializarInstituto("instituto.dat");
     }
 
     /**
@@ -191,8 +192,8 @@ public class ControladorAdmin implements ActionListener {
      * encontrado. Muestra la descripción actualizada del usuario suspendido.
      * Actualiza los botones de la cuenta según el estado del usuario. Muestra
      * un mensaje indicando que la cuenta ha sido suspendida. Recarga el listado
-     * de usuarios en la interfaz. Finalmente, serializa los datos actualizados
-     * del instituto en un archivo.
+     * de usuarios en la interfaz. Finalmente, registra la suspensión en el
+     * journal del instituto.
      *
      * @throws NoExisteUsuarioException Si no se encuentra ningún usuario con el
      * DNI proporcionado.
@@ -200,12 +201,11 @@ public class ControladorAdmin implements ActionListener {
     private void ejecutarSuspenderCuenta() throws NoExisteUsuarioException {
         String dni = vista.jTextFieldBuscarUsuario.getText();
         Usuario user = buscarUsuarioIngresado(dni);
-        user.suspenderUsuario();
+        servicio.suspenderUsuario(user);
         mostrarDescripcionUsuario(user);
         actualizarBotonesCuenta(user);
         JOptionPane.showMessageDialog(null, "Cuenta suspendida.");
         cargarListadoUsuarios();
-        instituto.serializarInstituto("instituto.dat");
     }
 
     /**
@@ -215,8 +215,8 @@ public class ControladorAdmin implements ActionListener {
      * encontrado. Muestra la descripción actualizada del usuario con la cuenta
      * reactivada. Actualiza los botones de la cuenta según el estado del
      * usuario. Muestra un mensaje indicando que la cuenta ha sido reactivada.
-     * Recarga el listado de usuarios en la interfaz. Finalmente, serializa los
-     * datos actualizados del instituto en un archivo.
+     * Recarga el listado de usuarios en la interfaz. Finalmente, registra la
+     * reactivación en el journal del instituto.
      *
      * @throws NoExisteUsuarioException Si no se encuentra ningún usuario con el
      * DNI proporcionado.
@@ -224,12 +224,11 @@ public class ControladorAdmin implements ActionListener {
     private void ejecutarReactivarCuenta() throws NoExisteUsuarioException {
         String dni = vista.jTextFieldBuscarUsuario.getText();
         Usuario user = buscarUsuarioIngresado(dni);
-        user.reactivarUsuario();
+        servicio.reactivarUsuario(user);
         mostrarDescripcionUsuario(user);
         actualizarBotonesCuenta(user);
         JOptionPane.showMessageDialog(null, "Cuenta reactivada con éxito.");
         cargarListadoUsuarios();
-        instituto.serializarInstituto("instituto.dat");
     }
 
     /**
@@ -246,30 +245,33 @@ public class ControladorAdmin implements ActionListener {
     /**
      * Ejecuta la modificación del estado y tope de alumnos de un curso
      * seleccionado. Obtiene el curso seleccionado en la lista de cursos de la
-     * vista. Actualiza el estado del curso según lo seleccionado en el
-     * JComboBox de modificación de estado. Valida la entrada del tope de
-     * alumnos antes de aplicar los cambios. Si la entrada del tope de alumnos
-     * es válida, establece el tope de alumnos del curso. Si el estado del curso
-     * es "Habilitado" y no tiene una cursada activa, se da de alta una cursada
-     * activa. Muestra un mensaje de éxito al usuario. Deshabilita los botones
-     * relacionados con la modificación del estado del curso. Actualiza la lista
-     * de cursos mostrados en la interfaz. Serializa los datos del instituto en
-     * el archivo "instituto.dat".
+     * vista. Valida la entrada del tope de alumnos antes de aplicar los
+     * cambios. Si la entrada del tope de alumnos es válida, actualiza el estado
+     * del curso según lo seleccionado en el JComboBox de modificación de estado
+     * y establece el tope de alumnos del curso. Si el estado del curso es
+     * "Habilitado" y no tiene una cursada activa, se da de alta una cursada
+     * activa; si gana lugares, se inscriben los alumnos de su lista de espera.
+     * Registra la modificación en el journal del instituto, muestra un
+     * mensaje de éxito al usuario, deshabilita los botones relacionados con la
+     * modificación del estado del curso y actualiza la lista de cursos
+     * mostrados en la interfaz.
+     *
+     * @throws TransicionEstadoInvalidaException Si el curso no puede pasar de
+     * su estado actual al seleccionado.
      */
-    private void ejecutarModificarCurso() {
+    private void ejecutarModificarCurso() throws TransicionEstadoInvalidaException {
         Curso curso = vista.jListCursos.getSelectedValue();
-        curso.setEstadoCurso((String) vista.jComboBoxModificarEstadoCurso.getSelectedItem());
+        EstadoCurso estado = EstadoCurso.desdeNombre((String) vista.jComboBoxModificarEstadoCurso.getSelectedItem());
         if (validarEntradaTopeAlumno(vista.jTextFieldTopeAlumnos.getText())) {
-            curso.setTopeAlumnos(Integer.parseInt(vista.jTextFieldTopeAlumnos.getText()));
-            if ("Habilitado".equals((String) vista.jComboBoxModificarEstadoCurso.getSelectedItem())) {
-                if (curso.getCursadaActiva() == null) {
-                    curso.altaCursada(curso.getDocente());
-                }
+            String tope = vista.jTextFieldTopeAlumnos.getText();
+            int promovidos = servicio.modificarCurso(curso, estado, Integer.parseInt(tope));
+            if (promovidos > 0) {
+                JOptionPane.showMessageDialog(null, "Cambios aplicados con éxito. Alumnos inscriptos desde la lista de espera: " + promovidos);
+            } else {
+                JOptionPane.showMessageDialog(null, "Cambios aplicados con éxito.");
             }
-            JOptionPane.showMessageDialog(null, "Cambios aplicados con éxito.");
             deshabilitarBotonesModificarEstado();
             actualizarListaCursos();
-            instituto.serializarInstituto("instituto.dat");
         }
     }
 
@@ -283,14 +285,11 @@ public class ControladorAdmin implements ActionListener {
      * DNI especificado.
      */
     private Usuario buscarUsuarioIngresado(String dni) throws NoExisteUsuarioException {
-        DefaultListModel<Usuario> listaUsuarios = instituto.getUsuarios();
-        for (int i = 0; i < listaUsuarios.size(); i++) {
-            Usuario user = listaUsuarios.getElementAt(i);
-            if (user.getDni().equals(dni)) {
-                return user;
-            }
+        Usuario user = servicio.buscarPorDni(dni);
+        if (user == null) {
+            throw new NoExisteUsuarioException(dni);
         }
-        throw new NoExisteUsuarioException(dni);
+        return user;
     }
 
     /**
@@ -313,9 +312,9 @@ public class ControladorAdmin implements ActionListener {
     private void actualizarListaCursos() {
         // Obtener la lista de cursos del estado seleccionado
         deshabilitarBotonesModificarEstado();
-        String estadoSeleccionado = (String) vista.jComboBoxFiltroCursos.getSelectedItem();
-        DefaultListModel<Curso> cursosPorEstado = instituto.getCursosPorEstado(estadoSeleccionado);
-        vista.jListCursos.setModel(cursosPorEstado);
+        EstadoCurso estadoSeleccionado = EstadoCurso.desdeNombre((String) vista.jComboBoxFiltroCursos.getSelectedItem());
+        List<Curso> cursosPorEstado = servicio.getCursosPorEstado(estadoSeleccionado);
+        vista.jListCursos.setModel(new ListaSoloLectura<>(cursosPorEstado));
         vista.jTextFieldTopeAlumnos.setText("");
     }
 
@@ -446,7 +445,7 @@ public class ControladorAdmin implements ActionListener {
     private void ejecutarCambiarContraseña() {
         VentanaCambioPassword ventanaPassword = new VentanaCambioPassword();
         ventanaPassword.setVisible(true);
-        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioLogeado, instituto);
+        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioLogeado, servicio);
         ctrlPassword.iniciar();
     }
 
@@ -503,13 +502,8 @@ public class ControladorAdmin implements ActionListener {
      * usuarios.
      */
     private void existeUsuario(String dniUsuario) throws ExisteUsuarioException {
-        DefaultListModel<Usuario> listaUsuarios = instituto.getUsuarios();
-
-        for (int i = 0; i < listaUsuarios.size(); i++) {
-            Usuario usuario = listaUsuarios.getElementAt(i);
-            if (usuario.getDni().equals(dniUsuario)) {
-                throw new ExisteUsuarioException(dniUsuario);
-            }
+        if (servicio.buscarPorDni(dniUsuario) != null) {
+            throw new ExisteUsuarioException(dniUsuario);
         }
     }
 
@@ -563,7 +557,7 @@ public class ControladorAdmin implements ActionListener {
      * Carga el listado de usuarios en una tabla en la vista.
      */
     private void cargarListadoUsuarios() {
-        DefaultListModel<Usuario> listadoUsuarios = instituto.getUsuarios();
+        List<Usuario> listadoUsuarios = servicio.getUsuarios();
         DefaultTableModel model = new DefaultTableModel();
 
         model.addColumn("Nombre");
@@ -572,9 +566,7 @@ public class ControladorAdmin implements ActionListener {
         model.addColumn("Perfil");
         model.addColumn("Estado Cuenta");
 
-        for (int i = 0; i < listadoUsuarios.size(); i++) {
-            // Obtiene el usuario en la posición i
-            Usuario usuario = listadoUsuarios.getElementAt(i);
+        for (Usuario usuario : listadoUsuarios) {
 
             // Obtiene los valores de los atributos del usuario
             String nombre = usuario.getNombre();
@@ -2,8 +2,12 @@ package controlador;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import javax.swing.DefaultListModel;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.ListSelectionEvent;
@@ -11,7 +15,8 @@ import javax.swing.event.ListSelectionListener;
 
 import modelo.Alumno;
 import modelo.Curso;
-import modelo.Instituto;
+import modelo.ResultadoInscripcion;
+import modelo.ServicioInstituto;
 
 import visual.VentanaAlumno;
 import visual.VentanaCambioPassword;
@@ -26,7 +31,7 @@ import visual.VentanaCambioPassword;
 public class ControladorAlumno implements ActionListener {
 
     private VentanaAlumno vista;
-    private Instituto instituto;
+    private ServicioInstituto servicio;
     private Alumno usuarioLogeado;
     private DefaultListModel<Curso> cursosDisponibles;
     private DefaultListModel<Curso> cursosAgregados;
@@ -35,12 +40,12 @@ public class ControladorAlumno implements ActionListener {
      * Constructor de la clase ControladorAlumno.
      *
      * @param vista La ventana de alumno asociada a este controlador.
-     * @param instituto El instituto del sistema.
+     * @param servicio El servicio del instituto del sistema.
      * @param usuarioLogeado El alumno que ha iniciado sesión.
      */
-    public ControladorAlumno(VentanaAlumno vista, Instituto instituto, Alumno usuarioLogeado) {
+    public ControladorAlumno(VentanaAlumno vista, ServicioInstituto servicio, Alumno usuarioLogeado) {
         this.vista = vista;
-        this.instituto = instituto;
+        this.servicio = servicio;
         this.usuarioLogeado = usuarioLogeado;
         this.cursosDisponibles = new DefaultListModel<>();
         this.cursosAgregados = new DefaultListModel<>();
@@ -181,16 +186,46 @@ public class ControladorAlumno implements ActionListener {
 
     /**
      * Finaliza el proceso de inscripción a cursos. Este método se ejecuta
-     * cuando se presiona el botón para finalizar la inscripción. Agrega los
-     * cursos inscriptos al alumno, serializa el instituto, limpia la lista de
-     * cursos agregados y muestra un mensaje de éxito en la interfaz de usuario.
+     * cuando se presiona el botón para finalizar la inscripción. Encola la
+     * inscripción en los cursos agregados y limpia la lista; cuando la cola
+     * termina de procesarla muestra el resultado en la interfaz de usuario,
+     * indicando los cursos en los que no se pudo inscribir.
      */
     private void ejecutarFinalizarInscripcion() {
-        agregarCursosInscriptos(usuarioLogeado);
-        instituto.serializarInstituto("instituto.dat");
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 0; i < cursosAgregados.size(); i++) {
+            cursos.add(cursosAgregados.getElementAt(i));
+        }
         cursosAgregados.removeAllElements();
-        JOptionPane.showMessageDialog(null, "Inscripción realizada con éxito.");
-        actualizarPestaña0();
+        refrescarBotonFinalizar();
+        servicio.getColaInscripciones().encolar(usuarioLogeado, cursos).whenComplete((resultados, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex != null) {
+                JOptionPane.showMessageDialog(null, "Error al realizar la inscripción");
+            } else {
+                mostrarResultadoInscripcion(resultados);
+            }
+            actualizarPestaña0();
+        }));
+    }
+
+    /**
+     * Muestra el resultado de la inscripción. Si el alumno no quedó inscripto
+     * en algún curso se indica el motivo de cada uno.
+     *
+     * @param resultados El resultado de la inscripción en cada curso.
+     */
+    private void mostrarResultadoInscripcion(Map<Curso, ResultadoInscripcion> resultados) {
+        StringBuilder rechazados = new StringBuilder();
+        for (Map.Entry<Curso, ResultadoInscripcion> resultado : resultados.entrySet()) {
+            if (resultado.getValue() != ResultadoInscripcion.ACEPTADO) {
+                rechazados.append("\n").append(resultado.getKey().getNombreCurso()).append(": ").append(resultado.getValue());
+            }
+        }
+        if (rechazados.length() == 0) {
+            JOptionPane.showMessageDialog(null, "Inscripción realizada con éxito.");
+        } else {
+            JOptionPane.showMessageDialog(null, "No se pudo realizar la inscripción en:" + rechazados);
+        }
     }
 
     /**
@@ -201,7 +236,8 @@ public class ControladorAlumno implements ActionListener {
     private void actualizarPestaña0() {
         deshabilitarBotonesPestaña0();
 
-        cursosDisponibles = instituto.filtrarCursosPorAlumno(usuarioLogeado);
+        cursosDisponibles = new DefaultListModel<>();
+        cursosDisponibles.addAll(servicio.filtrarCursosPorAlumno(usuarioLogeado));
         vista.jListCursosDisponibles.setModel(cursosDisponibles);
         vista.jListCursosAgregados.setModel(cursosAgregados);
     }
@@ -212,8 +248,8 @@ public class ControladorAlumno implements ActionListener {
      * alumno.
      */
     private void actualizarPestaña1() {
-        vista.jListCursosInscriptos.setModel(usuarioLogeado.getCursosInscriptos());
-        vista.jListCursosAprobados.setModel(usuarioLogeado.getCursosAprobados());
+        vista.jListCursosInscriptos.setModel(new ListaSoloLectura<>(servicio.getCursosInscriptos(usuarioLogeado)));
+        vista.jListCursosAprobados.setModel(new ListaSoloLectura<>(servicio.getCursosAprobados(usuarioLogeado)));
     }
 
     /**
@@ -240,25 +276,6 @@ public class ControladorAlumno implements ActionListener {
         }
     }
 
-    /**
-     * Agrega los cursos seleccionados a la lista de cursos inscriptos del
-     * usuario logeado. Este método se utiliza al finalizar la inscripción a
-     * cursos. Además, inscribe al usuario en los cursos seleccionados en el
-     * instituto.
-     *
-     * @param usuarioLogeado El alumno que está realizando la inscripción.
-     */
-    private void agregarCursosInscriptos(Alumno usuarioLogeado) {
-        int i = 0;
-        Curso cursoAgregado;
-        while (i < cursosAgregados.size()) {
-            cursoAgregado = cursosAgregados.getElementAt(i);
-            usuarioLogeado.agregarCursoInscripto(cursoAgregado);
-            cursoAgregado.inscribirAlumno(usuarioLogeado); // Se agrega el alumno al DefaultList del instituto
-            i++;
-        }
-    }
-
     /**
      * Muestra los datos del usuario logeado en la interfaz de usuario. Esto
      * incluye el nombre, apellido y DNI del usuario.
@@ -277,7 +294,7 @@ public class ControladorAlumno implements ActionListener {
     private void ejecutarCambiarContraseña() {
         VentanaCambioPassword ventanaPassword = new VentanaCambioPassword();
         ventanaPassword.setVisible(true);
-        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioLogeado, instituto);
+        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioLogeado, servicio);
         ctrlPassword.iniciar();
 
     }
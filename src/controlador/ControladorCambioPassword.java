@@ -1,15 +1,18 @@
 package controlador;
 
 import excepciones.ContraseñaInvalidaException;
-import modelo.Instituto;
+import modelo.ServicioInstituto;
 import modelo.Usuario;
-import static modelo.PassHasher.hash;
 import visual.VentanaCambioPassword;
 import visual.VentanaLogin;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 /**
  * Controlador para la funcionalidad de cambio de contraseña.
@@ -18,19 +21,19 @@ public class ControladorCambioPassword implements ActionListener {
 
     private VentanaCambioPassword vista;
     private Usuario usuarioLogeado;
-    private Instituto instituto;
+    private ServicioInstituto servicio;
 
     /**
      * Constructor de la clase ControladorCambioPassword.
      *
      * @param vista La ventana de cambio de contraseña.
      * @param usuarioLogeado El usuario logeado que desea cambiar su contraseña.
-     * @param instituto El instituto al que pertenece el usuario.
+     * @param servicio El servicio del instituto al que pertenece el usuario.
      */
-    public ControladorCambioPassword(VentanaCambioPassword vista, Usuario usuarioLogeado, Instituto instituto) {
+    public ControladorCambioPassword(VentanaCambioPassword vista, Usuario usuarioLogeado, ServicioInstituto servicio) {
         this.vista = vista;
         this.usuarioLogeado = usuarioLogeado;
-        this.instituto = instituto;
+        this.servicio = servicio;
         this.vista.jButtonCambioPassword.addActionListener(this);
     }
 
@@ -66,10 +69,12 @@ public class ControladorCambioPassword implements ActionListener {
      * Ejecuta el proceso de cambio de contraseña del usuario logeado. Verifica
      * las entradas de contraseña y realiza el cambio si son válidas. Muestra
      * mensajes de error si la contraseña actual es incorrecta o si la nueva
-     * contraseña y su confirmación no coinciden. En caso de éxito, actualiza la
-     * contraseña del usuario en el sistema, guarda los cambios en el archivo
-     * del instituto, muestra un mensaje de éxito, cierra la ventana de cambio
-     * de contraseña y abre la ventana de inicio de sesión.
+     * contraseña y su confirmación no coinciden. La contraseña actual se
+     * verifica fuera de la interfaz gráfica, y mientras tanto el botón queda
+     * deshabilitado. En caso de éxito, actualiza la contraseña del usuario en
+     * el sistema, registra el cambio en el journal del instituto, muestra un
+     * mensaje de éxito, cierra la ventana de cambio de contraseña y abre la
+     * ventana de inicio de sesión.
      *
      * @throws ContraseñaInvalidaException Si la contraseña actual es incorrecta
      * o si la nueva contraseña y su confirmación no coinciden.
@@ -78,26 +83,39 @@ public class ControladorCambioPassword implements ActionListener {
 
         if (validarEntradasCambiarContraseña()) {
 
-            String contraseñaActual = hash(vista.jPasswordFieldActual.getText());
-            String contraseñaNueva = hash(vista.jPasswordFieldNueva.getText());
-            String contraseñaConfirmada = hash(vista.jPasswordFieldConfirmar.getText());
             validarContraseña();//verifica que pass y dni sean distintas
-            if (usuarioLogeado.getPassword().equals(contraseñaActual)) {
-                if (contraseñaNueva.equals(contraseñaConfirmada)) {
-                    usuarioLogeado.cambioPassword(vista.jPasswordFieldNueva.getText());
-                    instituto.serializarInstituto("instituto.dat");
+            char[] contraseñaActual = vista.jPasswordFieldActual.getPassword();
+            char[] contraseñaNueva = vista.jPasswordFieldNueva.getPassword();
+            char[] contraseñaConfirmada = vista.jPasswordFieldConfirmar.getPassword();
+            boolean coinciden = Arrays.equals(contraseñaNueva, contraseñaConfirmada);
+            Arrays.fill(contraseñaConfirmada, '\0');
+            if (!coinciden) {
+                Arrays.fill(contraseñaActual, '\0');
+                Arrays.fill(contraseñaNueva, '\0');
+                vista.jLabelErrorConfirmarContraseña.setText("No coinciden");
+                return;
+            }
+            vista.jButtonCambioPassword.setEnabled(false);
+            servicio.cambiarPassword(usuarioLogeado, contraseñaActual, contraseñaNueva).whenComplete((cambiada, ex) -> SwingUtilities.invokeLater(() -> {
+                vista.jButtonCambioPassword.setEnabled(true);
+                if (ex != null) {
+                    Throwable causa = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (causa instanceof RejectedExecutionException) {
+                        JOptionPane.showMessageDialog(null, "Hay demasiadas operaciones en curso. Intente nuevamente.");
+                    } else {
+                        JOptionPane.showMessageDialog(null, "Error al guardar los datos");
+                    }
+                } else if (cambiada) {
                     JOptionPane.showMessageDialog(null, "Contraseña actualizada con éxito.");
                     vista.dispose();
                     VentanaLogin ventanaLogin = new VentanaLogin();
                     ventanaLogin.setVisible(true);
-                    ControladorLogin controladorLogin = new ControladorLogin(ventanaLogin, instituto);
+                    ControladorLogin controladorLogin = new ControladorLogin(ventanaLogin, servicio);
                     controladorLogin.iniciar();
                 } else {
-                    vista.jLabelErrorConfirmarContraseña.setText("No coinciden");
+                    vista.jLabelErrorContraseñaActual.setText("Contraseña errónea");
                 }
-            } else {
-                vista.jLabelErrorContraseñaActual.setText("Contraseña errónea");
-            }
+            }));
 
         }
     }
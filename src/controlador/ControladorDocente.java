@@ -1,18 +1,23 @@
 package controlador;
 
+import excepciones.CalificacionInvalidaException;
 import excepciones.ExisteCursoException;
+import excepciones.TransicionEstadoInvalidaException;
 
 import modelo.Alumno;
+import modelo.Calificacion;
 import modelo.Curso;
 import modelo.Docente;
-import modelo.Instituto;
+import modelo.EstadoCurso;
+import modelo.ServicioInstituto;
 
 import visual.VentanaCambioPassword;
 import visual.VentanaDocente;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import javax.swing.DefaultListModel;
+import java.util.Collections;
+import java.util.List;
 import javax.swing.JOptionPane;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -26,19 +31,19 @@ import javax.swing.event.ListSelectionListener;
 public class ControladorDocente implements ActionListener {
 
     private VentanaDocente vista;
-    private Instituto instituto;
+    private ServicioInstituto servicio;
     private Docente usuarioLogeado;
 
     /**
      * Constructor de la clase ControladorDocente.
      *
      * @param vista La ventana asociada al controlador.
-     * @param instituto El instituto al que pertenece el docente.
+     * @param servicio El servicio del instituto al que pertenece el docente.
      * @param usuarioLogeado El docente que está utilizando la ventana.
      */
-    public ControladorDocente(VentanaDocente vista, Instituto instituto, Docente usuarioLogeado) {
+    public ControladorDocente(VentanaDocente vista, ServicioInstituto servicio, Docente usuarioLogeado) {
         this.vista = vista;
-        this.instituto = instituto;
+        this.servicio = servicio;
         this.usuarioLogeado = usuarioLogeado;
         this.vista.jButtonProponerCurso.addActionListener(this);
         this.vista.jButtonCerrarInscripcion.addActionListener(this);
@@ -82,7 +87,7 @@ public class ControladorDocente implements ActionListener {
             } else if (e.getSource() == vista.jButtonCambiarContraseña) {
                 ejecutarCambiarContraseña();
             }
-        } catch (ExisteCursoException ex) {
+        } catch (ExisteCursoException | TransicionEstadoInvalidaException | CalificacionInvalidaException ex) {
             JOptionPane.showMessageDialog(null, ex.getMessage());
         }
     }
@@ -94,7 +99,7 @@ public class ControladorDocente implements ActionListener {
      * sistema. Si las entradas son válidas, crea un nuevo curso utilizando los
      * datos proporcionados y lo agrega al instituto. Luego, restablece los
      * campos de entrada de la interfaz y muestra un mensaje de confirmación.
-     * Finalmente, serializa los datos actualizados del instituto en un archivo.
+     * Finalmente, registra el alta del curso en el journal del instituto.
      *
      * @throws ExisteCursoException Si ya existe un curso con el mismo nombre en
      * el sistema.
@@ -105,13 +110,11 @@ public class ControladorDocente implements ActionListener {
         int cursosRequeridosIndex = vista.jComboBoxCursosRequeridos.getSelectedIndex();
         existeCurso(nombreCurso);
         if (validarEntradasProponerCurso()) {
-            Curso nuevoCurso = instituto.crearCurso(nombreCurso, descripcionCurso, cursosRequeridosIndex, usuarioLogeado);
-            instituto.altaCurso(nuevoCurso);
+            servicio.proponerCurso(nombreCurso, descripcionCurso, cursosRequeridosIndex, usuarioLogeado);
             vista.jTextFieldNombreCurso.setText("");
             vista.jTextAreaDescripcionCurso.setText("");
             vista.jComboBoxCursosRequeridos.setSelectedIndex(0);
             JOptionPane.showMessageDialog(null, "Curso propuesto.");
-            instituto.serializarInstituto("instituto.dat");
         }
     }
 
@@ -144,12 +147,11 @@ public class ControladorDocente implements ActionListener {
      * Deshabilita los botones de la pestaña 1 de la interfaz.
      */
     private void actualizarPestaña1() {
-        DefaultListModel<Curso> cursosCalificar = new DefaultListModel<>();
-        DefaultListModel<Alumno> alumnosCalificar = new DefaultListModel<>();
-        cursosCalificar = instituto.filtrarCursosPorDocente(usuarioLogeado, "Habilitado", "Cerrado");
+        List<Curso> cursosCalificar = servicio.filtrarCursosPorDocente(usuarioLogeado, EstadoCurso.HABILITADO, EstadoCurso.CERRADO);
+        List<Alumno> alumnosCalificar = Collections.emptyList();
         vista.jListCursosCalificar.setEnabled(true);
-        vista.jListCursosCalificar.setModel(cursosCalificar);
-        vista.jListAlumnosCalificar.setModel(alumnosCalificar);
+        vista.jListCursosCalificar.setModel(new ListaSoloLectura<>(cursosCalificar));
+        vista.jListAlumnosCalificar.setModel(new ListaSoloLectura<>(alumnosCalificar));
         deshabilitarBotonesPestaña1();
     }
 
@@ -160,10 +162,9 @@ public class ControladorDocente implements ActionListener {
      * interfaz.
      */
     private void actualizarPestaña2() {
-        DefaultListModel<Curso> cursosFinalizados = new DefaultListModel<>();
         vista.jButtonReiniciarCurso.setEnabled(false);
-        cursosFinalizados = instituto.filtrarCursosPorDocente(usuarioLogeado, "Finalizado", "");
-        vista.jListCursosFinalizados.setModel(cursosFinalizados);
+        List<Curso> cursosFinalizados = servicio.filtrarCursosPorDocente(usuarioLogeado, EstadoCurso.FINALIZADO);
+        vista.jListCursosFinalizados.setModel(new ListaSoloLectura<>(cursosFinalizados));
     }
 
     /**
@@ -172,12 +173,10 @@ public class ControladorDocente implements ActionListener {
      * cursos propuestos y cancelados en la interfaz.
      */
     private void actualizarPestaña3() {
-        DefaultListModel<Curso> cursosPropuestos = new DefaultListModel<>();
-        cursosPropuestos = instituto.filtrarCursosPorDocente(usuarioLogeado, "Propuesto", "");
-        vista.jListCursosPropuestos.setModel(cursosPropuestos);
-        DefaultListModel<Curso> cursosCancelados = new DefaultListModel<>();
-        cursosCancelados = instituto.filtrarCursosPorDocente(usuarioLogeado, "Cancelado", "");
-        vista.jListCursosCancelados.setModel(cursosCancelados);
+        List<Curso> cursosPropuestos = servicio.filtrarCursosPorDocente(usuarioLogeado, EstadoCurso.PROPUESTO);
+        vista.jListCursosPropuestos.setModel(new ListaSoloLectura<>(cursosPropuestos));
+        List<Curso> cursosCancelados = servicio.filtrarCursosPorDocente(usuarioLogeado, EstadoCurso.CANCELADO);
+        vista.jListCursosCancelados.setModel(new ListaSoloLectura<>(cursosCancelados));
     }
 
     /**
@@ -188,9 +187,9 @@ public class ControladorDocente implements ActionListener {
      * finalizado, habilita el botón para reiniciar el curso.
      *
      * 2. Para la lista de cursos a calificar: Cuando se selecciona un curso a
-     * calificar, actualiza la lista de alumnos, resetea las calificaciones, y
-     * habilita o deshabilita el botón para cerrar la inscripción según el
-     * estado del curso.
+     * calificar, actualiza la lista de alumnos y habilita o deshabilita el
+     * botón para cerrar la inscripción según el estado del curso. Las
+     * calificaciones ya cargadas se conservan en la cursada.
      *
      * 3. Para la lista de alumnos a calificar: Cuando se selecciona un alumno y
      * el estado del curso es "Cerrado", habilita los botones para calificar y
@@ -211,9 +210,8 @@ public class ControladorDocente implements ActionListener {
             public void valueChanged(ListSelectionEvent event) {
                 if (!event.getValueIsAdjusting()) {
                     if ((vista.jListCursosCalificar.getSelectedValue()) != null) {
-                        vista.jListAlumnosCalificar.setModel(vista.jListCursosCalificar.getSelectedValue().getCursadaActiva().getAlumnos());
-                        resetearCalificaciones();
-                        if ("Habilitado".equals(vista.jListCursosCalificar.getSelectedValue().getEstadoCurso())) {
+                        vista.jListAlumnosCalificar.setModel(new ListaSoloLectura<>(vista.jListCursosCalificar.getSelectedValue().getCursadaActiva().getAlumnos()));
+                        if (vista.jListCursosCalificar.getSelectedValue().getEstadoCurso() == EstadoCurso.HABILITADO) {
                             deshabilitarBotonesPestaña1();
                             vista.jButtonCerrarInscripcion.setEnabled(true);
                         } else {
@@ -227,9 +225,11 @@ public class ControladorDocente implements ActionListener {
         this.vista.jListAlumnosCalificar.addListSelectionListener(new ListSelectionListener() {
             public void valueChanged(ListSelectionEvent event) {
                 if (!event.getValueIsAdjusting()) {
-                    if (((vista.jListAlumnosCalificar.getSelectedValue()) != null) && ("Cerrado".equals(vista.jListCursosCalificar.getSelectedValue().getEstadoCurso()))) {
+                    if (((vista.jListAlumnosCalificar.getSelectedValue()) != null) && (vista.jListCursosCalificar.getSelectedValue().getEstadoCurso() == EstadoCurso.CERRADO)) {
                         habilitarBotonesCalificar();
-                        vista.jTextFieldCalificado.setText(vista.jListAlumnosCalificar.getSelectedValue().getCalificacion());
+                        Curso curso = vista.jListCursosCalificar.getSelectedValue();
+                        vista.jTextFieldCalificado.setText(curso.getCursadaActiva().getCalificacion(vista.jListAlumnosCalificar.getSelectedValue()).toString());
+                        comprobarCalificados();
                     }
                 }
             }
@@ -241,15 +241,15 @@ public class ControladorDocente implements ActionListener {
      * curso, se almacena la información de la cursada anterior, se reinicia la
      * cursada actual con el docente actual como responsable, se muestra un
      * mensaje de confirmación y se actualiza la pestaña 2 de la interfaz del
-     * docente. Finalmente, se serializan los datos actualizados del instituto
-     * en un archivo.
+     * docente. El reinicio queda registrado en el journal del instituto.
+     *
+     * @throws TransicionEstadoInvalidaException Si el curso no está
+     * finalizado.
      */
-    private void ejecutarReiniciarCurso() {
+    private void ejecutarReiniciarCurso() throws TransicionEstadoInvalidaException {
         Curso curso = vista.jListCursosFinalizados.getSelectedValue();
-        curso.almacenarCursada(curso);
-        curso.reiniciarCursada(usuarioLogeado);
+        servicio.reiniciarCurso(curso, usuarioLogeado);
         JOptionPane.showMessageDialog(null, "Se reinició el curso.");
-        instituto.serializarInstituto("instituto.dat");
         actualizarPestaña2();
     }
 
@@ -286,13 +286,16 @@ public class ControladorDocente implements ActionListener {
      * Cierra la inscripción de un curso seleccionado para calificar por el
      * docente. Establece el estado del curso como "Cerrado" y muestra un
      * mensaje de confirmación. Luego, actualiza la pestaña 1 de la interfaz del
-     * docente y serializa los datos actualizados del instituto en un archivo.
+     * docente y registra el cambio de estado en el journal del instituto.
+     *
+     * @throws TransicionEstadoInvalidaException Si el curso no está
+     * habilitado.
      */
-    private void ejecutarCerrarInscripcion() {
-        vista.jListCursosCalificar.getSelectedValue().setEstadoCurso("Cerrado");
+    private void ejecutarCerrarInscripcion() throws TransicionEstadoInvalidaException {
+        Curso curso = vista.jListCursosCalificar.getSelectedValue();
+        servicio.cerrarInscripcion(curso);
         JOptionPane.showMessageDialog(null, "Se cerró la inscripción");
         actualizarPestaña1();
-        instituto.serializarInstituto("instituto.dat");
     }
 
     /**
@@ -308,6 +311,7 @@ public class ControladorDocente implements ActionListener {
         if (vista.jListCursosCalificar.getSelectedValue() != null) {
             vista.jListCursosCalificar.setEnabled(false);
         }
+        Curso curso = vista.jListCursosCalificar.getSelectedValue();
         Alumno alumno = vista.jListAlumnosCalificar.getSelectedValue();
 
         // Verificar si ningún radio button ha sido seleccionado
@@ -316,78 +320,52 @@ public class ControladorDocente implements ActionListener {
             return; // Salir del método para evitar continuar con la lógica
         }// Arrojar advertencia si ninguna opción ha sido seleccionada
 
-        if (vista.jRadioButtonCursadaAprobada.isSelected()) {
-            alumno.setCalificacion("Aprobado");
-            vista.jTextFieldCalificado.setText(alumno.getCalificacion());
-            comprobarCalificados();
-        } else if (vista.jRadioButtonCursadaDesaprobada.isSelected()) {
-            alumno.setCalificacion("Desaprobado");
-            vista.jTextFieldCalificado.setText(alumno.getCalificacion());
-            comprobarCalificados();
-        } 
+        try {
+            if (vista.jRadioButtonCursadaAprobada.isSelected()) {
+                servicio.calificar(curso, alumno, Calificacion.APROBADO);
+            } else {
+                servicio.calificar(curso, alumno, Calificacion.DESAPROBADO);
+            }
+        } catch (CalificacionInvalidaException e) {
+            JOptionPane.showMessageDialog(null, e.getMessage());
+            return;
+        }
+        vista.jTextFieldCalificado.setText(curso.getCursadaActiva().getCalificacion(alumno).toString());
+        comprobarCalificados();
     }
 
     /**
      * Verifica si todos los alumnos de la cursada han sido calificados. Si
-     * todos los alumnos tienen una calificación diferente de "Sin calificar",
-     * habilita el botón para finalizar el curso en la interfaz del docente; de
-     * lo contrario, deshabilita el botón.
+     * ningún alumno está sin calificar, habilita el botón para finalizar el
+     * curso en la interfaz del docente; de lo contrario, deshabilita el botón.
      */
     private void comprobarCalificados() {
-        DefaultListModel<Alumno> alumnosCalificar = (DefaultListModel<Alumno>) vista.jListAlumnosCalificar.getModel();
-        int i = 0;
-        boolean botonFinalizar = true;
-        while (i < alumnosCalificar.getSize()) {
-            if ("Sin calificar".equals(alumnosCalificar.getElementAt(i).getCalificacion())) {
-                botonFinalizar = false;
-            }
-            i++;
-        }
-        vista.jButtonFinalizarCurso.setEnabled(botonFinalizar);
+        Curso curso = vista.jListCursosCalificar.getSelectedValue();
+        vista.jButtonFinalizarCurso.setEnabled(curso != null && curso.getCursadaActiva().todosCalificados());
     }
 
     /**
      * Finaliza un curso seleccionado para calificar por el docente. Agrega los
      * cursos aprobados por los alumnos a sus listas de cursos aprobados y
      * elimina el curso finalizado de sus listas de cursos inscriptos. Establece
-     * el estado del curso como "Finalizado". Luego, resetea las calificaciones
-     * de los alumnos a "Sin calificar", muestra un mensaje de confirmación y
-     * actualiza la pestaña 1 de la interfaz del docente. Finalmente, serializa
-     * los datos actualizados del instituto en un archivo.
+     * el estado del curso como "Finalizado", y la cursada conserva las
+     * calificaciones. Luego, muestra un mensaje de confirmación y actualiza la
+     * pestaña 1 de la interfaz del docente. La finalización, junto
+     * con los DNI de los alumnos aprobados, queda registrada en el journal del
+     * instituto.
+     *
+     * @throws TransicionEstadoInvalidaException Si el curso no puede
+     * finalizarse desde su estado actual.
+     * @throws CalificacionInvalidaException Si queda algún alumno sin
+     * calificar.
      */
-    private void ejecutarFinalizarCurso() {
-        DefaultListModel<Alumno> alumnosCalificar = (DefaultListModel<Alumno>) vista.jListAlumnosCalificar.getModel();
-        int i = 0;
-        Alumno alumno;
-        while (i < alumnosCalificar.getSize()) {
-            alumno = alumnosCalificar.getElementAt(i);
-            if ("Aprobado".equals(alumnosCalificar.getElementAt(i).getCalificacion())) {
-                alumno.agregarCursoAprobado(vista.jListCursosCalificar.getSelectedValue()); //agrega a la lista alu
-            }
-            alumno.quitarCursoInscripto(vista.jListCursosCalificar.getSelectedValue());//borra de lista inscrpto
-            i++;
-        }
-        vista.jListCursosCalificar.getSelectedValue().setEstadoCurso("Finalizado");
-        resetearCalificaciones();
+    private void ejecutarFinalizarCurso() throws TransicionEstadoInvalidaException, CalificacionInvalidaException {
+        Curso curso = vista.jListCursosCalificar.getSelectedValue();
+        servicio.finalizarCurso(curso);
         JOptionPane.showMessageDialog(null, "Se cerraron las calificaciones. Curso Finalizado.");
-        instituto.serializarInstituto("instituto.dat");
         actualizarPestaña1();
     }
 
-    /**
-     * Resetea las calificaciones de los alumnos a "Sin calificar" en la pestaña
-     * de calificaciones de la interfaz del docente.
-     */
-    private void resetearCalificaciones() {
-        DefaultListModel<Alumno> alumnosCalificar = (DefaultListModel<Alumno>) vista.jListAlumnosCalificar.getModel();
-        int i = 0;
-
-        while (i < alumnosCalificar.getSize()) {
-            alumnosCalificar.getElementAt(i).setCalificacion("Sin calificar");
-            i++;
-        }
-    }
-
     /**
      * Muestra los datos del docente, incluyendo nombre, apellido y DNI.
      */
@@ -405,7 +383,7 @@ public class ControladorDocente implements ActionListener {
     private void ejecutarCambiarContraseña() {
         VentanaCambioPassword ventanaPassword = new VentanaCambioPassword();
         ventanaPassword.setVisible(true);
-        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioLogeado, instituto);
+        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioLogeado, servicio);
         ctrlPassword.iniciar();
     }
 
@@ -442,10 +420,9 @@ public class ControladorDocente implements ActionListener {
      * proporcionado.
      */
     private void existeCurso(String nombreCurso) throws ExisteCursoException {
-        DefaultListModel<Curso> listaCursos = instituto.getCursos();
+        List<Curso> listaCursos = servicio.getCursos();
 
-        for (int i = 0; i < listaCursos.size(); i++) {
-            Curso curso = listaCursos.getElementAt(i);
+        for (Curso curso : listaCursos) {
             if (curso.getNombreCurso().equals(nombreCurso)) {
                 throw new ExisteCursoException(nombreCurso);
             }
@@ -2,17 +2,20 @@ package controlador;
 
 import excepciones.ContraseñaInvalidaException;
 import excepciones.CuentaSuspendidaException;
+import excepciones.DemasiadosIntentosException;
 import excepciones.NoExisteUsuarioException;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import javax.swing.DefaultListModel;
+import java.util.Arrays;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import modelo.Administrador;
 import modelo.Alumno;
 import modelo.Docente;
 import modelo.Usuario;
-import modelo.Instituto;
-import static modelo.PassHasher.hash;
+import modelo.ServicioInstituto;
 import visual.VentanaLogin;
 import visual.VentanaAdmin;
 import visual.VentanaAlumno;
@@ -25,17 +28,17 @@ import visual.VentanaDocente;
 public class ControladorLogin implements ActionListener {
 
     private VentanaLogin vista;
-    private Instituto instituto;
+    private ServicioInstituto servicio;
 
     /**
      * Constructor de la clase ControladorLogin.
      *
      * @param vista La ventana de inicio de sesión.
-     * @param instituto El instituto al que pertenece el usuario.
+     * @param servicio El servicio del instituto al que pertenece el usuario.
      */
-    public ControladorLogin(VentanaLogin vista, Instituto instituto) {
+    public ControladorLogin(VentanaLogin vista, ServicioInstituto servicio) {
         this.vista = vista;
-        this.instituto = instituto;
+        this.servicio = servicio;
         this.vista.jButtonLogin.addActionListener(this);
     }
 
@@ -49,58 +52,65 @@ public class ControladorLogin implements ActionListener {
 
     /**
      * Maneja el evento de acción si se presiona el botón de inicio de sesión en
-     * la interfaz gráfica. Sino captura cualquier tipo de excepcion que pudiera
-     * suceder.
+     * la interfaz gráfica.
      *
      * @param e El evento de acción generado por el botón de inicio de sesión.
      */
     @Override
     public void actionPerformed(ActionEvent e) {
-        try {
-
-            if (e.getSource() == vista.jButtonLogin) {
-                ejecutarLogin();//serializado
-            }
-        } catch (NoExisteUsuarioException ex) {
-            JOptionPane.showMessageDialog(null, ex.getMessage());
-            limpiarVentanaLogin();
-            return;
-        } catch (ContraseñaInvalidaException ex) {
-            JOptionPane.showMessageDialog(null, ex.getMessage());
-            limpiarVentanaLogin();
-            return;
-        } catch (CuentaSuspendidaException ex) {
-            JOptionPane.showMessageDialog(null, ex.getMessage());
-            limpiarVentanaLogin();
-            return;
+        if (e.getSource() == vista.jButtonLogin) {
+            ejecutarLogin();//serializado
         }
     }
 
     /**
-     * Si laautenticación es exitosa, verifica si es el primer inicio de sesión
-     * y muestra la ventana de cambio de contraseña si es así. De lo contrario,
-     * abre la ventana correspondiente según el perfil del usuario autenticado.
-     * Si hay algún error durante el proceso de inicio de sesión, muestra un
-     * mensaje de error y limpia la ventana de inicio de sesión.
+     * Valida las entradas y solicita la autenticación del usuario. La
+     * contraseña se verifica fuera de la interfaz gráfica, y mientras tanto
+     * el botón de inicio de sesión queda deshabilitado. Si la autenticación es
+     * exitosa y el usuario debe cambiar su contraseña, muestra la ventana de
+     * cambio de contraseña. De lo contrario, abre la ventana correspondiente
+     * según el perfil del usuario autenticado.
      */
-    private void ejecutarLogin() throws NoExisteUsuarioException, ContraseñaInvalidaException, CuentaSuspendidaException {
+    private void ejecutarLogin() {
         String dni = vista.jTextDNIUsuario.getText();
-        String pass = hash(vista.jPasswordLogin.getText());
-
-        if (validarEntradaUsuario(dni, vista.jPasswordLogin.getText())) {
+        char[] pass = vista.jPasswordLogin.getPassword();
 
-            Usuario usuario = null;
-            usuario = validarUsuario(dni);
-            verificarContraseña(usuario, pass);
-            verificarCuentaSuspendida(usuario);
-            if (hash(usuario.getDni()).equals(usuario.getPassword())) {
+        if (!validarEntradaUsuario(dni, pass)) {
+            Arrays.fill(pass, '\0');
+            return;
+        }
+        vista.jButtonLogin.setEnabled(false);
+        servicio.autenticarAsync(dni, pass).whenComplete((usuario, ex) -> SwingUtilities.invokeLater(() -> {
+            vista.jButtonLogin.setEnabled(true);
+            if (ex != null) {
+                mostrarErrorLogin(ex instanceof CompletionException ? ex.getCause() : ex);
+                return;
+            }
+            if (servicio.debeCambiarPassword(usuario)) {
                 verificarPrimerIngreso(usuario);
             } else {
                 abrirVentanaSegunPerfil(usuario);
             }
             vista.dispose();
+        }));
+    }
 
+    /**
+     * Muestra el motivo por el que falló el inicio de sesión y limpia la
+     * ventana de inicio de sesión.
+     *
+     * @param causa La excepción que impidió el inicio de sesión.
+     */
+    private void mostrarErrorLogin(Throwable causa) {
+        if (causa instanceof NoExisteUsuarioException || causa instanceof ContraseñaInvalidaException
+                || causa instanceof CuentaSuspendidaException || causa instanceof DemasiadosIntentosException) {
+            JOptionPane.showMessageDialog(null, causa.getMessage());
+        } else if (causa instanceof RejectedExecutionException) {
+            JOptionPane.showMessageDialog(null, "Hay demasiados inicios de sesión en curso. Intente nuevamente.");
+        } else {
+            JOptionPane.showMessageDialog(null, "Error al iniciar sesión");
         }
+        limpiarVentanaLogin();
     }
 
     /**
@@ -112,12 +122,12 @@ public class ControladorLogin implements ActionListener {
      * @return true si el DNI y la contraseña no están vacíos, false de lo
      * contrario.
      */
-    private boolean validarEntradaUsuario(String dni, String pass) {
+    private boolean validarEntradaUsuario(String dni, char[] pass) {
         if (dni.isEmpty()) {
             vista.jLabelErrorDni.setText("Ingrese el DNI");
             return false;
         }
-        if (pass.isEmpty()) {
+        if (pass.length == 0) {
             vista.jLabelErrorContraseña.setText("Ingrese contraseña");
             return false;
         }
@@ -125,80 +135,16 @@ public class ControladorLogin implements ActionListener {
     }
 
     /**
-     * Valida la existencia de un usuario en el sistema mediante su número de
-     * identificación (DNI).
-     *
-     * @param dni El número de identificación del usuario a validar.
-     * @return El usuario si existe en el sistema.
-     * @throws NoExisteUsuarioException Si no se encuentra ningún usuario con el
-     * DNI proporcionado.
-     */
-    private Usuario validarUsuario(String dni) throws NoExisteUsuarioException {
-        Usuario buscado = existeUsuario(dni);
-
-        if (buscado == null) {
-            throw new NoExisteUsuarioException(dni);
-        }
-
-        return buscado;
-    }
-
-    /**
-     * Verifica si el usuario existe dentro del listado del instituto.
-     *
-     * @param dniUsuario El DNI del usuario.
-     * @return El usuario si existe, null si no.
-     */
-    private Usuario existeUsuario(String dniUsuario) {
-        DefaultListModel<Usuario> listaUsuarios = instituto.getUsuarios();
-
-        for (int i = 0; i < listaUsuarios.size(); i++) {
-            Usuario usuario = listaUsuarios.getElementAt(i);
-            if (usuario.getDni().equals(dniUsuario)) {
-                return usuario;
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Verifica si la contraseña proporcionada coincide con la contraseña del
-     * usuario.
-     *
-     * @param user El usuario cuya contraseña se va a verificar.
-     * @param contraseña La contraseña proporcionada para verificar.
-     * @throws ContraseñaInvalidaException Si la contraseña proporcionada no
-     * coincide con la contraseña del usuario.
-     */
-    private void verificarContraseña(Usuario user, String contraseña) throws ContraseñaInvalidaException {
-        if (!user.getPassword().equals(contraseña)) {
-            throw new ContraseñaInvalidaException();
-        }
-    }
-
-    /**
-     * Verifica si la cuenta del usuario está suspendida.
-     *
-     * @param user El usuario.
-     * @throws CuentaSuspendidaException si la cuenta está suspendida.
-     */
-    private void verificarCuentaSuspendida(Usuario user) throws CuentaSuspendidaException {
-        if (user.isSancionado()) {
-            throw new CuentaSuspendidaException();
-        }
-    }
-
-    /**
-     * Verifica si es el primer inicio de sesión del usuario y muestra la
-     * ventana de cambio de contraseña si corresponde.
+     * Muestra la ventana de cambio de contraseña al usuario que debe
+     * cambiarla: en su primer inicio de sesión, después de un blanqueo o
+     * cuando su contraseña venció.
      *
      * @param usuarioValidado El usuario validado.
      */
     private void verificarPrimerIngreso(Usuario usuarioValidado) {
         VentanaCambioPassword ventanaPassword = new VentanaCambioPassword();
         ventanaPassword.setVisible(true);
-        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioValidado, instituto);
+        ControladorCambioPassword ctrlPassword = new ControladorCambioPassword(ventanaPassword, usuarioValidado, servicio);
         ctrlPassword.iniciar();
     }
 
@@ -212,19 +158,19 @@ public class ControladorLogin implements ActionListener {
             case "Admin":
                 VentanaAdmin ventanaAdmin = new VentanaAdmin();
                 ventanaAdmin.setVisible(true);
-                ControladorAdmin ctrlAdmin = new ControladorAdmin(ventanaAdmin, instituto, (Administrador) usuarioValidado);
+                ControladorAdmin ctrlAdmin = new ControladorAdmin(ventanaAdmin, servicio, (Administrador) usuarioValidado);
                 ctrlAdmin.iniciar();
                 break;
             case "Alumno":
                 VentanaAlumno ventanaAlumno = new VentanaAlumno();
                 ventanaAlumno.setVisible(true);
-                ControladorAlumno ctrlAlumno = new ControladorAlumno(ventanaAlumno, instituto, (Alumno) usuarioValidado);
+                ControladorAlumno ctrlAlumno = new ControladorAlumno(ventanaAlumno, servicio, (Alumno) usuarioValidado);
                 ctrlAlumno.iniciar();
                 break;
             case "Docente":
                 VentanaDocente ventanaDocente = new VentanaDocente();
                 ventanaDocente.setVisible(true);
-                ControladorDocente ctrlDocente = new ControladorDocente(ventanaDocente, instituto, (Docente) usuarioValidado);
+                ControladorDocente ctrlDocente = new ControladorDocente(ventanaDocente, servicio, (Docente) usuarioValidado);
                 ctrlDocente.iniciar();
                 break;
             default:
@@ -0,0 +1,38 @@
+package controlador;
+
+import java.util.List;
+import javax.swing.AbstractListModel;
+
+/**
+ * Modelo de solo lectura para mostrar en un JList una lista del modelo, sin
+ * copiarla a un DefaultListModel. No avisa cambios a la vista: los
+ * controladores crean uno nuevo cada vez que actualizan la lista.
+ *
+ * @param <E> El tipo de los elementos de la lista.
+ */
+final class ListaSoloLectura<E> extends AbstractListModel<E> {
+
+    private static final long serialVersionUID = 2351852233570583976L;
+
+    private final transient List<E> elementos; // solo se muestra, no se serializa con el modelo
+
+    /**
+     * Constructor de la clase ListaSoloLectura.
+     *
+     * @param elementos La lista a mostrar, que no debe modificarse mientras
+     * se muestra.
+     */
+    ListaSoloLectura(List<E> elementos) {
+        this.elementos = elementos;
+    }
+
+    @Override
+    public int getSize() {
+        return elementos.size();
+    }
+
+    @Override
+    public E getElementAt(int indice) {
+        return elementos.get(indice);
+    }
+}
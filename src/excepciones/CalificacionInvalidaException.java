@@ -0,0 +1,19 @@
+package excepciones;
+
+/**
+ * Excepción lanzada cuando una carga de calificaciones contiene un alumno que no está inscripto en la cursada o una calificación no válida.
+ * En ese caso no se aplica ninguna calificación de la carga.
+ */
+public class CalificacionInvalidaException extends Exception {
+
+    private static final long serialVersionUID = 7599522127129556665L;
+
+    /**
+     * Constructor de la excepción.
+     * Crea una nueva instancia de CalificacionInvalidaException con un mensaje personalizado que indica el problema encontrado.
+     * @param mensaje La descripción de la calificación rechazada.
+     */
+    public CalificacionInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
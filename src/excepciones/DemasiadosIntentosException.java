@@ -0,0 +1,32 @@
+package excepciones;
+
+/**
+ * Excepción lanzada cuando se rechaza un inicio de sesión porque hubo
+ * demasiados intentos recientes para el mismo DNI o desde el mismo origen.
+ * El bloqueo es temporal y se levanta solo al cabo del tiempo indicado.
+ */
+public class DemasiadosIntentosException extends Exception {
+
+    private static final long serialVersionUID = 9079543044843194322L;
+
+    private final long segundosEspera;
+
+    /**
+     * Constructor de la excepción.
+     * Crea una nueva instancia de DemasiadosIntentosException con un mensaje
+     * que indica cuánto tiempo debe esperarse antes de volver a intentar.
+     * @param segundosEspera Los segundos que faltan para poder volver a intentar.
+     */
+    public DemasiadosIntentosException(long segundosEspera) {
+        super("Demasiados intentos de inicio de sesión. Intente nuevamente en " + segundosEspera + " segundos.");
+        this.segundosEspera = segundosEspera;
+    }
+
+    /**
+     * Devuelve los segundos que faltan para poder volver a intentar.
+     * @return Los segundos de espera.
+     */
+    public long getSegundosEspera() {
+        return segundosEspera;
+    }
+}
@@ -0,0 +1,20 @@
+package excepciones;
+
+/**
+ * Excepción lanzada cuando se intenta pasar un curso a un estado que no está permitido desde su estado actual.
+ */
+public class TransicionEstadoInvalidaException extends Exception {
+
+    private static final long serialVersionUID = 7003202602941205614L;
+
+    /**
+     * Constructor de la excepción.
+     * Crea una nueva instancia de TransicionEstadoInvalidaException con un mensaje personalizado que indica el curso y los estados involucrados.
+     * @param nombreCurso El nombre del curso.
+     * @param estadoActual El estado actual del curso.
+     * @param estadoNuevo El estado al que se intentó pasar.
+     */
+    public TransicionEstadoInvalidaException(String nombreCurso, String estadoActual, String estadoNuevo) {
+        super("El curso " + nombreCurso + " no puede pasar de " + estadoActual + " a " + estadoNuevo + ".");
+    }
+}
@@ -0,0 +1,262 @@
+package herramientas;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import modelo.Alumno;
+import modelo.Curso;
+import modelo.Docente;
+import modelo.EstadoCurso;
+import modelo.Instituto;
+
+/**
+ * Generador de institutos sintéticos para pruebas de carga y de escala. Crea
+ * los alumnos, docentes y cursos con los mismos métodos que usa el sistema
+ * (crearAlumno, crearDocente, crearCurso) y simula varios ciclos lectivos:
+ * en cada ciclo los alumnos se inscriben en cursos cuyos requisitos cumplen,
+ * y los cursos se cierran, se califican, se finalizan y se reinician, de modo
+ * que cada curso acumula su historial de cursadas finalizadas.
+ *
+ * Al terminar, una parte de los cursos queda propuesta o cancelada sin haber
+ * dictado nunca, y el resto queda habilitado, cerrado o finalizado según la
+ * última cursada. El resultado depende solo de la semilla y de las
+ * cantidades indicadas.
+ */
+public class GeneradorInstituto {
+
+    private static final String[] NOMBRES = {
+        "Juan", "María", "Lucas", "Sofía", "Mateo", "Valentina", "Martín", "Camila", "Tomás", "Lucía",
+        "Santiago", "Martina", "Joaquín", "Julieta", "Nicolás", "Agustina", "Facundo", "Florencia", "Ignacio", "Micaela"
+    };
+    private static final String[] APELLIDOS = {
+        "González", "Rodríguez", "Gómez", "Fernández", "López", "Díaz", "Martínez", "Pérez", "García", "Sánchez",
+        "Romero", "Sosa", "Álvarez", "Torres", "Ruiz", "Ramírez", "Flores", "Acosta", "Benítez", "Medina"
+    };
+    private static final String[] MATERIAS = {
+        "Análisis matemático", "Álgebra", "Física", "Química", "Programación", "Bases de datos",
+        "Sistemas operativos", "Redes", "Estadística", "Inglés técnico", "Arquitectura", "Economía"
+    };
+
+    private static final int DNI_DOCENTES = 10_000_000;
+    private static final int DNI_ALUMNOS = 20_000_000;
+    private static final int MAXIMO_REQUERIDOS = 3;
+    private static final int INSCRIPCIONES_POR_CICLO = 2;
+    private static final int INTENTOS_POR_INSCRIPCION = 4;
+    private static final int PORCENTAJE_APROBADOS = 70;
+
+    private final long semilla;
+    private final int cantidadAlumnos;
+    private final int cantidadDocentes;
+    private final int cantidadCursos;
+    private final int ciclos;
+
+    /**
+     * Constructor de la clase GeneradorInstituto.
+     *
+     * @param semilla La semilla de los números aleatorios.
+     * @param cantidadAlumnos La cantidad de alumnos a crear.
+     * @param cantidadDocentes La cantidad de docentes a crear, al menos uno.
+     * @param cantidadCursos La cantidad de cursos a crear.
+     * @param ciclos La cantidad de ciclos lectivos a simular, al menos uno.
+     */
+    public GeneradorInstituto(long semilla, int cantidadAlumnos, int cantidadDocentes, int cantidadCursos, int ciclos) {
+        if (cantidadDocentes < 1 || ciclos < 1 || cantidadAlumnos < 0 || cantidadCursos < 0) {
+            throw new IllegalArgumentException("Se requiere al menos un docente y un ciclo.");
+        }
+        this.semilla = semilla;
+        this.cantidadAlumnos = cantidadAlumnos;
+        this.cantidadDocentes = cantidadDocentes;
+        this.cantidadCursos = cantidadCursos;
+        this.ciclos = ciclos;
+    }
+
+    /**
+     * Genera un instituto con la cantidad total de usuarios indicada, en la
+     * proporción habitual de un docente cada mil usuarios y un curso cada
+     * cien, con al menos diez cursos.
+     *
+     * @param semilla La semilla de los números aleatorios.
+     * @param usuarios La cantidad total de usuarios, incluido el
+     * administrador.
+     * @return El instituto generado.
+     */
+    public static Instituto generar(long semilla, int usuarios) {
+        int docentes = Math.max(1, usuarios / 1000);
+        return new GeneradorInstituto(semilla, Math.max(0, usuarios - docentes - 1), docentes, Math.max(10, usuarios / 100), 3).generar();
+    }
+
+    /**
+     * Genera el instituto.
+     *
+     * @return El instituto generado.
+     */
+    public Instituto generar() {
+        Random aleatorio = new Random(semilla);
+        Instituto instituto = new Instituto();
+
+        Docente[] docentes = new Docente[cantidadDocentes];
+        for (int i = 0; i < cantidadDocentes; i++) {
+            String dni = String.valueOf(DNI_DOCENTES + i);
+            instituto.crearDocente(elegir(aleatorio, NOMBRES), elegir(aleatorio, APELLIDOS), dni);
+            docentes[i] = (Docente) instituto.buscarPorDni(dni);
+        }
+
+        Alumno[] alumnos = new Alumno[cantidadAlumnos];
+        for (int i = 0; i < cantidadAlumnos; i++) {
+            String dni = String.valueOf(DNI_ALUMNOS + i);
+            instituto.crearAlumno(elegir(aleatorio, NOMBRES), elegir(aleatorio, APELLIDOS), dni);
+            alumnos[i] = (Alumno) instituto.buscarPorDni(dni);
+        }
+
+        // Cada curso tiene un estado final; los propuestos y cancelados nunca se dictan
+        Curso[] cursos = new Curso[cantidadCursos];
+        int[] requeridos = new int[cantidadCursos];
+        EstadoCurso[] estadosFinales = new EstadoCurso[cantidadCursos];
+        List<Integer> dictados = new ArrayList<>();
+        for (int i = 0; i < cantidadCursos; i++) {
+            requeridos[i] = i % (MAXIMO_REQUERIDOS + 1);
+            String nombre = MATERIAS[i % MATERIAS.length] + " " + (i / MATERIAS.length + 1);
+            cursos[i] = instituto.crearCurso(nombre, "Curso de " + nombre, requeridos[i], docentes[i % cantidadDocentes]);
+            instituto.altaCurso(cursos[i]);
+            estadosFinales[i] = elegirEstadoFinal(aleatorio);
+            if (estadosFinales[i] == EstadoCurso.CANCELADO) {
+                cambiarEstado(cursos[i], EstadoCurso.CANCELADO);
+            } else if (estadosFinales[i] != EstadoCurso.PROPUESTO) {
+                dictados.add(i);
+            }
+        }
+
+        int[] aprobados = new int[cantidadAlumnos];
+        int tope = dictados.isEmpty() ? 0 : (int) ((long) cantidadAlumnos * INSCRIPCIONES_POR_CICLO * 6 / 5 / dictados.size()) + 1;
+        for (int ciclo = 0; ciclo < ciclos; ciclo++) {
+            boolean ultimo = ciclo == ciclos - 1;
+            for (int i : dictados) {
+                try {
+                    if (ciclo == 0) {
+                        instituto.modificarCurso(cursos[i], EstadoCurso.HABILITADO, tope);
+                    } else {
+                        instituto.reiniciarCurso(cursos[i], cursos[i].getDocente());
+                    }
+                } catch (TransicionEstadoInvalidaException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            inscribir(instituto, aleatorio, alumnos, aprobados, cursos, requeridos, dictados);
+            for (int i : dictados) {
+                if (!ultimo || estadosFinales[i] != EstadoCurso.HABILITADO) {
+                    cambiarEstado(cursos[i], EstadoCurso.CERRADO);
+                }
+                if (!ultimo || estadosFinales[i] == EstadoCurso.FINALIZADO) {
+                    finalizar(instituto, aleatorio, cursos[i], aprobados);
+                }
+            }
+        }
+        return instituto;
+    }
+
+    /**
+     * Inscribe a cada alumno en algunos de los cursos dictados cuyos
+     * requisitos cumple y que no aprobó. Si el curso elegido no sirve se
+     * prueba con otro, hasta una cantidad fija de intentos.
+     */
+    private static void inscribir(Instituto instituto, Random aleatorio, Alumno[] alumnos, int[] aprobados, Curso[] cursos, int[] requeridos, List<Integer> dictados) {
+        if (dictados.isEmpty()) {
+            return;
+        }
+        for (int a = 0; a < alumnos.length; a++) {
+            for (int inscripcion = 0; inscripcion < INSCRIPCIONES_POR_CICLO; inscripcion++) {
+                for (int intento = 0; intento < INTENTOS_POR_INSCRIPCION; intento++) {
+                    int i = dictados.get(aleatorio.nextInt(dictados.size()));
+                    if (requeridos[i] <= aprobados[a] && !alumnos[a].estaInscriptoOAprobado(cursos[i])
+                            && instituto.inscribirAlumno(alumnos[a], cursos[i])) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finaliza la cursada activa de un curso aprobando a una parte de sus
+     * alumnos.
+     */
+    private static void finalizar(Instituto instituto, Random aleatorio, Curso curso, int[] aprobados) {
+        List<Alumno> alumnosAprobados = new ArrayList<>();
+        for (Alumno alumno : curso.getCursadaActiva().getAlumnos()) {
+            if (aleatorio.nextInt(100) < PORCENTAJE_APROBADOS) {
+                alumnosAprobados.add(alumno);
+                aprobados[Integer.parseInt(alumno.getDni()) - DNI_ALUMNOS]++;
+            }
+        }
+        try {
+            instituto.finalizarCurso(curso, alumnosAprobados);
+        } catch (TransicionEstadoInvalidaException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Cambia el estado de un curso si todavía no lo tiene. Las transiciones
+     * que usa el generador son siempre válidas.
+     */
+    private static void cambiarEstado(Curso curso, EstadoCurso estado) {
+        if (curso.getEstadoCurso() == estado) {
+            return;
+        }
+        try {
+            curso.setEstadoCurso(estado);
+        } catch (TransicionEstadoInvalidaException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Elige el estado en que termina un curso: un 10% queda propuesto, un 5%
+     * cancelado, un 30% habilitado, un 20% cerrado y el resto finalizado.
+     */
+    private static EstadoCurso elegirEstadoFinal(Random aleatorio) {
+        int valor = aleatorio.nextInt(100);
+        if (valor < 10) {
+            return EstadoCurso.PROPUESTO;
+        } else if (valor < 15) {
+            return EstadoCurso.CANCELADO;
+        } else if (valor < 45) {
+            return EstadoCurso.HABILITADO;
+        } else if (valor < 65) {
+            return EstadoCurso.CERRADO;
+        }
+        return EstadoCurso.FINALIZADO;
+    }
+
+    private static String elegir(Random aleatorio, String[] opciones) {
+        return opciones[aleatorio.nextInt(opciones.length)];
+    }
+
+    /**
+     * Genera un instituto y lo guarda en un archivo de datos.
+     *
+     * @param args El archivo de salida, la cantidad de alumnos, docentes y
+     * cursos, la cantidad de ciclos y la semilla. Todos son opcionales salvo
+     * el archivo.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Uso: GeneradorInstituto archivo [alumnos] [docentes] [cursos] [ciclos] [semilla]");
+            return;
+        }
+        int alumnos = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int docentes = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(1, alumnos / 1000);
+        int cursos = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(10, alumnos / 100);
+        int ciclos = args.length > 4 ? Integer.parseInt(args[4]) : 3;
+        long semilla = args.length > 5 ? Long.parseLong(args[5]) : 42;
+
+        long inicio = System.nanoTime();
+        Instituto instituto = new GeneradorInstituto(semilla, alumnos, docentes, cursos, ciclos).generar();
+        long generado = System.nanoTime();
+        instituto.serializarInstituto(args[0]);
+        long guardado = System.nanoTime();
+        System.out.printf("Generados %d usuarios y %d cursos en %.0f ms, guardados en %.0f ms%n",
+                instituto.getUsuarios().size(), instituto.getCursos().size(), (generado - inicio) / 1e6, (guardado - generado) / 1e6);
+    }
+}
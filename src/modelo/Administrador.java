@@ -6,6 +6,8 @@ package modelo;
  */
 public class Administrador extends Usuario {
 
+    private static final long serialVersionUID = 2899871222184131196L;
+
     /**
      * Constructor de la clase Administrador.
      *
@@ -18,4 +20,18 @@ public class Administrador extends Usuario {
         this.perfil = "Admin";
     }
 
+    /**
+     * Constructor utilizado al leer el instituto desde el formato binario.
+     *
+     * @param nombre El nombre del administrador.
+     * @param apellido El apellido del administrador.
+     * @param dni El DNI del administrador.
+     * @param password El hash de la contraseña almacenada.
+     * @param sancionado Si la cuenta está sancionada.
+     */
+    Administrador(String nombre, String apellido, String dni, String password, boolean sancionado) {
+        super(nombre, apellido, dni, password, sancionado);
+        this.perfil = "Admin";
+    }
+
 }
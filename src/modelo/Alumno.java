@@ -1,6 +1,14 @@
 package modelo;
 
-import javax.swing.DefaultListModel;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Clase que representa a un alumno en el sistema.
@@ -8,9 +16,21 @@ import javax.swing.DefaultListModel;
  */
 public class Alumno extends Usuario {
 
-    private DefaultListModel<Curso> cursosAprobados;
-    private DefaultListModel<Curso> cursosInscriptos;
-    private String calificacion;
+    private static final long serialVersionUID = 691160455730566553L;
+
+    /**
+     * Campos guardados por la serialización de Java. Los cursos se guardan
+     * como listas y se declaran como List para poder leer también los archivos
+     * de las versiones anteriores, que los guardaban como DefaultListModel.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("cursosAprobados", List.class),
+        new ObjectStreamField("cursosInscriptos", List.class)
+    };
+
+    private List<Curso> cursosAprobados;
+    private Set<Curso> cursosInscriptos; // en orden de inscripción, se quitan en tiempo constante al finalizar cada curso
+    private transient Set<Curso> conjuntoAprobados; // copia de la lista para consultas en tiempo constante, se reconstruye al cargar
 
     /**
      * Constructor de la clase Alumno.
@@ -21,9 +41,23 @@ public class Alumno extends Usuario {
     public Alumno(String nombre, String apellido, String dni) {
         super(nombre, apellido, dni);
         this.perfil = "Alumno";
-        this.calificacion = "Sin calificar"; // para uso del docente al momento de calificar.
-        this.cursosInscriptos = new DefaultListModel<>();
-        this.cursosAprobados = new DefaultListModel<>();
+        this.cursosInscriptos = new LinkedHashSet<>();
+        this.cursosAprobados = new ArrayList<>();
+    }
+
+    /**
+     * Constructor utilizado al leer el instituto desde el formato binario.
+     * @param nombre El nombre del alumno.
+     * @param apellido El apellido del alumno.
+     * @param dni El DNI del alumno.
+     * @param password El hash de la contraseña almacenada.
+     * @param sancionado Si la cuenta está sancionada.
+     */
+    Alumno(String nombre, String apellido, String dni, String password, boolean sancionado) {
+        super(nombre, apellido, dni, password, sancionado);
+        this.perfil = "Alumno";
+        this.cursosInscriptos = new LinkedHashSet<>();
+        this.cursosAprobados = new ArrayList<>();
     }
 
     /**
@@ -35,44 +69,30 @@ public class Alumno extends Usuario {
     }
 
     /**
-     * Obtiene la lista de cursos en los que el alumno está inscripto.
+     * Obtiene una copia de la lista de cursos en los que el alumno está
+     * inscripto, en orden de inscripción. Si otros hilos pueden inscribir al
+     * alumno al mismo tiempo, debe consultarse a través de ServicioInstituto.
      * @return La lista de cursos inscriptos.
      */
-    public DefaultListModel<Curso> getCursosInscriptos() {
-        return cursosInscriptos;
+    public List<Curso> getCursosInscriptos() {
+        return new ArrayList<>(cursosInscriptos);
     }
 
     /**
-     * Obtiene la lista de cursos que el alumno ha aprobado.
+     * Obtiene una copia de la lista de cursos que el alumno ha aprobado.
      * @return La lista de cursos aprobados.
      */
-    public DefaultListModel<Curso> getCursosAprobados() {
-        return cursosAprobados;
-    }
-
-    /**
-     * Metodo para obtener en la visual el estado temporal de la calificacion del alumno
-     * al momento que el docente cierra las notas.
-     * @return La calificación del alumno.
-     */
-    public String getCalificacion() {
-        return calificacion;
+    public List<Curso> getCursosAprobados() {
+        return new ArrayList<>(cursosAprobados);
     }
 
-    /**
-     * Establece la calificación del alumno de manera temporal para cerrar la cursada.
-     * @param calificacion La nueva calificación del alumno.
-     */
-    public void setCalificacion(String calificacion) {
-        this.calificacion = calificacion;
-    }
-    
     /**
      * Agrega un curso aprobado por el alumno.
      * @param cursoAprobado El curso aprobado que se va a agregar.
      */
     public void agregarCursoAprobado(Curso cursoAprobado){
-        cursosAprobados.addElement(cursoAprobado);
+        cursosAprobados.add(cursoAprobado);
+        getConjuntoAprobados().add(cursoAprobado);
     }
     
     /**
@@ -80,7 +100,7 @@ public class Alumno extends Usuario {
      * @param nuevoCurso El nuevo curso en el que se inscribe el alumno.
      */
     public void agregarCursoInscripto (Curso nuevoCurso){
-        cursosInscriptos.addElement(nuevoCurso);
+        cursosInscriptos.add(nuevoCurso);
     }
     
     /**
@@ -89,6 +109,89 @@ public class Alumno extends Usuario {
      * cursos inscriptos.
      */
     public void quitarCursoInscripto (Curso cursoFinalizado){
-        cursosInscriptos.removeElement(cursoFinalizado);
+        cursosInscriptos.remove(cursoFinalizado);
+    }
+
+    /**
+     * Indica si el alumno está inscripto en el curso o ya lo aprobó, en cuyo
+     * caso no puede volver a inscribirse.
+     * @param curso El curso a consultar.
+     * @return true si el alumno está inscripto en el curso o lo aprobó.
+     */
+    public boolean estaInscriptoOAprobado(Curso curso) {
+        return cursosInscriptos.contains(curso) || getConjuntoAprobados().contains(curso);
+    }
+
+    /**
+     * Obtiene el conjunto de cursos aprobados, construyéndolo a partir de la
+     * lista la primera vez que se utiliza luego de cargar el instituto.
+     * @return El conjunto de cursos aprobados.
+     */
+    private Set<Curso> getConjuntoAprobados() {
+        if (conjuntoAprobados == null) {
+            conjuntoAprobados = new HashSet<>(cursosAprobados);
+        }
+        return conjuntoAprobados;
+    }
+
+    /**
+     * Escribe los cursos aprobados e inscriptos del alumno en el formato
+     * binario del instituto, como referencias a los cursos.
+     * @param salida El flujo de escritura del formato binario.
+     * @throws IOException Si algún curso no pertenece al instituto.
+     */
+    void escribirCursos(CodecInstituto.Salida salida) throws IOException {
+        salida.escribirVarInt(cursosAprobados.size());
+        for (Curso curso : cursosAprobados) {
+            salida.escribirReferencia(curso);
+        }
+        salida.escribirVarInt(cursosInscriptos.size());
+        for (Curso curso : cursosInscriptos) {
+            salida.escribirReferencia(curso);
+        }
+    }
+
+    /**
+     * Lee los cursos aprobados e inscriptos del alumno desde el formato
+     * binario del instituto.
+     * @param entrada El flujo de lectura del formato binario.
+     * @throws IOException Si los datos están dañados.
+     */
+    void leerCursos(CodecInstituto.Entrada entrada) throws IOException {
+        int aprobados = entrada.leerVarInt();
+        for (int i = 0; i < aprobados; i++) {
+            cursosAprobados.add(entrada.leerCurso());
+        }
+        int inscriptos = entrada.leerVarInt();
+        for (int i = 0; i < inscriptos; i++) {
+            cursosInscriptos.add(entrada.leerCurso());
+        }
+    }
+
+    /**
+     * Escribe el alumno con la serialización de Java, guardando los cursos
+     * como ArrayList.
+     * @param salida El flujo de salida.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    private void writeObject(ObjectOutputStream salida) throws IOException {
+        ObjectOutputStream.PutField campos = salida.putFields();
+        campos.put("cursosAprobados", cursosAprobados);
+        campos.put("cursosInscriptos", new ArrayList<>(cursosInscriptos));
+        salida.writeFields();
+    }
+
+    /**
+     * Lee un alumno guardado con la serialización de Java, incluidos los de
+     * las versiones anteriores, convirtiendo sus listas de cursos.
+     * @param entrada El flujo de entrada.
+     * @throws IOException Si ocurre un error al leer.
+     * @throws ClassNotFoundException Si no se encuentra la clase de algún
+     * objeto leído.
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        cursosAprobados = CodecInstituto.leerListaLegada(campos.get("cursosAprobados", null));
+        cursosInscriptos = new LinkedHashSet<>(CodecInstituto.<Curso>leerListaLegada(campos.get("cursosInscriptos", null)));
     }  
 }
@@ -0,0 +1,78 @@
+package modelo;
+
+/**
+ * Enumera las calificaciones de un alumno en una cursada. Cada calificación
+ * tiene un código fijo, que es el que se guarda en el archivo de datos, y el
+ * nombre con el que se muestra al usuario.
+ */
+public enum Calificacion {
+
+    SIN_CALIFICAR(0, "Sin calificar"),
+    APROBADO(1, "Aprobado"),
+    DESAPROBADO(2, "Desaprobado");
+
+    private final byte codigo;
+    private final String nombre;
+
+    /**
+     * Constructor de la calificación.
+     *
+     * @param codigo El código con el que se almacena la calificación.
+     * @param nombre El nombre con el que se muestra la calificación.
+     */
+    private Calificacion(int codigo, String nombre) {
+        this.codigo = (byte) codigo;
+        this.nombre = nombre;
+    }
+
+    /**
+     * Obtiene el código con el que se almacena la calificación en el archivo
+     * de datos.
+     *
+     * @return El código de la calificación.
+     */
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Se sobreescribe el toString para mostrar el nombre de la calificación.
+     *
+     * @return El nombre de la calificación.
+     */
+    @Override
+    public String toString() {
+        return nombre;
+    }
+
+    /**
+     * Busca la calificación correspondiente a un código almacenado.
+     *
+     * @param codigo El código leído del archivo de datos.
+     * @return La calificación, o null si el código no es conocido.
+     */
+    public static Calificacion desdeCodigo(int codigo) {
+        for (Calificacion calificacion : values()) {
+            if (calificacion.codigo == codigo) {
+                return calificacion;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Busca la calificación correspondiente a un nombre, tal como se muestra
+     * en la interfaz y se registra en el journal.
+     *
+     * @param nombre El nombre de la calificación.
+     * @return La calificación, o null si el nombre no es conocido.
+     */
+    public static Calificacion desdeNombre(String nombre) {
+        for (Calificacion calificacion : values()) {
+            if (calificacion.nombre.equals(nombre)) {
+                return calificacion;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,321 @@
+package modelo;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.DefaultListModel;
+
+/**
+ * Formato binario versionado del instituto. Reemplaza a la serialización por
+ * defecto de Java, que además de los datos guarda descriptores de clase y el
+ * estado interno de las colecciones. Cada clase del modelo escribe y lee
+ * sus propios campos: los DNI numéricos y los estados se guardan como enteros,
+ * los textos como UTF-8 precedidos por su longitud, y los usuarios y cursos
+ * compartidos se referencian por su posición en los listados del instituto.
+ *
+ * El archivo comienza con la marca "ICET" y el número de versión del formato.
+ */
+public final class CodecInstituto {
+
+    private static final int MARCA = 0x49434554; // "ICET"
+    private static final int VERSION = 4; // la versión 2 agrega las listas de espera de las cursadas, la 3 el estado de las contraseñas y la 4 las calificaciones
+    private static final int MARCA_SERIALIZACION_JAVA = 0xACED;
+
+    /**
+     * Constructor privado, la clase solo ofrece métodos estáticos.
+     */
+    private CodecInstituto() {
+    }
+
+    /**
+     * Codifica el instituto completo en el formato binario.
+     *
+     * @param instituto El instituto a codificar.
+     * @return Los bytes del instituto codificado.
+     * @throws IOException Si el instituto referencia objetos que no pertenecen
+     * a sus listados.
+     */
+    public static byte[] codificar(Instituto instituto) throws IOException {
+        Salida salida = new Salida();
+        salida.escribirInt(MARCA);
+        salida.escribirByte(VERSION);
+        instituto.escribir(salida);
+        return salida.toByteArray();
+    }
+
+    /**
+     * Decodifica un instituto desde un buffer en formato binario. El buffer
+     * puede ser un arreglo en memoria o un archivo mapeado.
+     *
+     * @param buffer El buffer posicionado al comienzo de los datos.
+     * @return El instituto decodificado.
+     * @throws IOException Si los datos no corresponden al formato o están
+     * incompletos.
+     */
+    public static Instituto decodificar(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MARCA) {
+                throw new IOException("El archivo no tiene el formato del instituto.");
+            }
+            int version = buffer.get() & 0xFF;
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Versión de formato no soportada: " + version);
+            }
+            return Instituto.leer(new Entrada(buffer, version));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | ClassCastException e) {
+            throw new IOException("Datos del instituto incompletos o dañados.", e);
+        }
+    }
+
+    /**
+     * Indica si los primeros bytes de un archivo corresponden a la
+     * serialización por defecto de Java usada por las versiones anteriores.
+     *
+     * @param inicio Los primeros bytes del archivo.
+     * @return true si el archivo está en el formato anterior.
+     */
+    public static boolean esFormatoLegado(byte[] inicio) {
+        return inicio.length >= 2 && (((inicio[0] & 0xFF) << 8) | (inicio[1] & 0xFF)) == MARCA_SERIALIZACION_JAVA;
+    }
+
+    /**
+     * Convierte en lista una colección leída con la serialización de Java.
+     * Los archivos de las versiones anteriores guardan las colecciones del
+     * modelo como DefaultListModel y los actuales como listas.
+     *
+     * @param <E> El tipo de los elementos.
+     * @param coleccion La colección leída, o null si no estaba en el archivo.
+     * @return Una lista nueva con los elementos, vacía si no había colección.
+     * @throws InvalidObjectException Si el objeto leído no es una colección.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> ArrayList<E> leerListaLegada(Object coleccion) throws InvalidObjectException {
+        if (coleccion == null) {
+            return new ArrayList<>();
+        }
+        if (coleccion instanceof DefaultListModel) {
+            DefaultListModel<E> modelo = (DefaultListModel<E>) coleccion;
+            ArrayList<E> lista = new ArrayList<>(modelo.size());
+            for (int i = 0; i < modelo.size(); i++) {
+                lista.add(modelo.getElementAt(i));
+            }
+            return lista;
+        }
+        if (coleccion instanceof Collection) {
+            return new ArrayList<>((Collection<E>) coleccion);
+        }
+        throw new InvalidObjectException("Colección de tipo desconocido: " + coleccion.getClass().getName());
+    }
+
+    /**
+     * Flujo de escritura del formato binario. Lleva la posición asignada a cada
+     * usuario y curso para poder referenciarlos.
+     */
+    static final class Salida {
+
+        private byte[] bytes = new byte[4096];
+        private int posicion;
+        private final Map<Object, Integer> referencias = new IdentityHashMap<>();
+
+        void escribirByte(int valor) {
+            asegurarCapacidad(1);
+            bytes[posicion++] = (byte) valor;
+        }
+
+        void escribirBoolean(boolean valor) {
+            escribirByte(valor ? 1 : 0);
+        }
+
+        void escribirInt(int valor) {
+            asegurarCapacidad(4);
+            bytes[posicion++] = (byte) (valor >>> 24);
+            bytes[posicion++] = (byte) (valor >>> 16);
+            bytes[posicion++] = (byte) (valor >>> 8);
+            bytes[posicion++] = (byte) valor;
+        }
+
+        void escribirLong(long valor) {
+            escribirInt((int) (valor >>> 32));
+            escribirInt((int) valor);
+        }
+
+        /**
+         * Escribe un entero no negativo usando de uno a cinco bytes, siete
+         * bits por byte.
+         */
+        void escribirVarInt(int valor) {
+            while ((valor & ~0x7F) != 0) {
+                escribirByte((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            escribirByte(valor);
+        }
+
+        /**
+         * Escribe un texto en UTF-8 precedido por su longitud más uno, de modo
+         * que la longitud cero represente un texto nulo.
+         */
+        void escribirTexto(String texto) {
+            if (texto == null) {
+                escribirVarInt(0);
+                return;
+            }
+            byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+            escribirVarInt(utf8.length + 1);
+            asegurarCapacidad(utf8.length);
+            System.arraycopy(utf8, 0, bytes, posicion, utf8.length);
+            posicion += utf8.length;
+        }
+
+        /**
+         * Escribe un DNI. Los DNI de hasta nueve dígitos se guardan como un
+         * entero junto con su cantidad de dígitos, para conservar los ceros a
+         * la izquierda; el resto se guarda como texto.
+         */
+        void escribirDni(String dni) {
+            if (esDniNumerico(dni)) {
+                escribirByte(dni.length());
+                escribirInt(Integer.parseInt(dni));
+            } else {
+                escribirByte(0);
+                escribirTexto(dni);
+            }
+        }
+
+        void registrarReferencia(Object objeto, int indice) {
+            referencias.put(objeto, indice);
+        }
+
+        void escribirReferencia(Object objeto) throws IOException {
+            Integer indice = referencias.get(objeto);
+            if (indice == null) {
+                throw new IOException("Referencia a un objeto que no pertenece al instituto: " + objeto);
+            }
+            escribirVarInt(indice);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, posicion);
+        }
+
+        private void asegurarCapacidad(int adicional) {
+            if (posicion + adicional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, posicion + adicional));
+            }
+        }
+
+        private static boolean esDniNumerico(String dni) {
+            if (dni.isEmpty() || dni.length() > 9) {
+                return false;
+            }
+            for (int i = 0; i < dni.length(); i++) {
+                char c = dni.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Flujo de lectura del formato binario sobre un ByteBuffer. Lleva los
+     * usuarios y cursos ya leídos para resolver las referencias.
+     */
+    static final class Entrada {
+
+        private final ByteBuffer buffer;
+        final int version;
+        private byte[] utf8 = new byte[64];
+        final List<Usuario> usuarios = new ArrayList<>();
+        final List<Curso> cursos = new ArrayList<>();
+
+        Entrada(ByteBuffer buffer, int version) {
+            this.buffer = buffer;
+            this.version = version;
+        }
+
+        int leerByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        boolean leerBoolean() {
+            return buffer.get() != 0;
+        }
+
+        int leerInt() {
+            return buffer.getInt();
+        }
+
+        long leerLong() {
+            return buffer.getLong();
+        }
+
+        int leerVarInt() throws IOException {
+            int valor = 0;
+            for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+                int b = buffer.get();
+                valor |= (b & 0x7F) << desplazamiento;
+                if ((b & 0x80) == 0) {
+                    return valor;
+                }
+            }
+            throw new IOException("Entero mal codificado.");
+        }
+
+        /**
+         * Lee un texto. Si el buffer está respaldado por un arreglo se decodifica
+         * directamente desde él; si es un archivo mapeado, los bytes se copian a
+         * un arreglo auxiliar que se reutiliza entre lecturas.
+         */
+        String leerTexto() throws IOException {
+            int longitud = leerVarInt();
+            if (longitud == 0) {
+                return null;
+            }
+            longitud--;
+            if (buffer.hasArray()) {
+                String texto = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), longitud, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + longitud);
+                return texto;
+            }
+            if (utf8.length < longitud) {
+                utf8 = new byte[Math.max(longitud, utf8.length * 2)];
+            }
+            buffer.get(utf8, 0, longitud);
+            return new String(utf8, 0, longitud, StandardCharsets.UTF_8);
+        }
+
+        String leerDni() throws IOException {
+            int digitos = leerByte();
+            if (digitos == 0) {
+                return leerTexto();
+            }
+            String numero = Integer.toString(leerInt());
+            if (numero.length() >= digitos) {
+                return numero;
+            }
+            StringBuilder dni = new StringBuilder(digitos);
+            for (int i = numero.length(); i < digitos; i++) {
+                dni.append('0');
+            }
+            return dni.append(numero).toString();
+        }
+
+        Usuario leerUsuario() throws IOException {
+            return usuarios.get(leerVarInt());
+        }
+
+        Curso leerCurso() throws IOException {
+            return cursos.get(leerVarInt());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package modelo;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de admisión de inscripciones para los momentos en que muchos alumnos
+ * se inscriben a la vez. Cada alumno encola el lote de cursos elegidos y
+ * recibe, cuando termina de procesarse, el resultado de cada curso.
+ *
+ * Las solicitudes de cada curso forman un carril que se atiende en orden de
+ * llegada, de a un trabajador por vez. Los lotes se reparten en los carriles
+ * de forma atómica, de modo que el orden entre dos alumnos es el mismo en
+ * todos los cursos que comparten y el resultado es igual al de procesar los
+ * lotes uno tras otro en orden de llegada. Los carriles de cursos distintos
+ * se atienden en paralelo con una cantidad fija de trabajadores, que
+ * atienden un tramo de cada carril por vez para no postergar a los demás.
+ */
+public class ColaInscripciones {
+
+    private static final int SOLICITUDES_POR_TURNO = 32;
+
+    private final ServicioInstituto servicio;
+    private final ExecutorService trabajadores;
+    private final Map<Curso, Carril> carriles;
+
+    /**
+     * Constructor de la clase ColaInscripciones.
+     *
+     * @param servicio El servicio del instituto que realiza las inscripciones.
+     * @param cantidadTrabajadores La cantidad de hilos que atienden los
+     * carriles.
+     */
+    public ColaInscripciones(ServicioInstituto servicio, int cantidadTrabajadores) {
+        this.servicio = servicio;
+        this.carriles = new HashMap<>();
+        this.trabajadores = Executors.newFixedThreadPool(cantidadTrabajadores, tarea -> {
+            Thread hilo = new Thread(tarea, "cola-inscripciones");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Encola la inscripción de un alumno en un lote de cursos.
+     *
+     * @param alumno El alumno que se inscribe.
+     * @param cursos Los cursos elegidos por el alumno.
+     * @return El resultado de cada curso, en el orden del lote, disponible
+     * cuando se procesaron todas sus solicitudes.
+     */
+    public CompletableFuture<Map<Curso, ResultadoInscripcion>> encolar(Alumno alumno, List<Curso> cursos) {
+        Map<Curso, CompletableFuture<ResultadoInscripcion>> pendientes = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Curso curso : cursos) {
+                if (pendientes.containsKey(curso)) {
+                    continue;
+                }
+                CompletableFuture<ResultadoInscripcion> resultado = new CompletableFuture<>();
+                pendientes.put(curso, resultado);
+                Carril carril = carriles.get(curso);
+                if (carril == null) {
+                    carril = new Carril(curso);
+                    carriles.put(curso, carril);
+                }
+                carril.solicitudes.add(new Solicitud(alumno, resultado));
+                if (!carril.programado) {
+                    carril.programado = true;
+                    trabajadores.execute(carril);
+                }
+            }
+        }
+        return CompletableFuture.allOf(pendientes.values().toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<Curso, ResultadoInscripcion> resultados = new LinkedHashMap<>();
+            for (Map.Entry<Curso, CompletableFuture<ResultadoInscripcion>> pendiente : pendientes.entrySet()) {
+                resultados.put(pendiente.getKey(), pendiente.getValue().join());
+            }
+            return resultados;
+        });
+    }
+
+    /**
+     * Deja de aceptar trabajo y espera a que se procesen las solicitudes ya
+     * encoladas.
+     *
+     * @param espera El tiempo máximo de espera.
+     * @param unidad La unidad del tiempo de espera.
+     * @return true si se procesaron todas las solicitudes, false si venció la
+     * espera.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public boolean detener(long espera, TimeUnit unidad) throws InterruptedException {
+        long limite = System.nanoTime() + unidad.toNanos(espera);
+        synchronized (this) {
+            while (!carriles.isEmpty()) {
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, restante);
+            }
+        }
+        trabajadores.shutdown();
+        return trabajadores.awaitTermination(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Atiende un tramo de las solicitudes de un carril. Si quedan solicitudes
+     * vuelve a programar el carril detrás de los demás; si no, lo descarta.
+     */
+    private void atender(Carril carril) {
+        for (int i = 0; i < SOLICITUDES_POR_TURNO; i++) {
+            Solicitud solicitud;
+            synchronized (this) {
+                solicitud = carril.solicitudes.poll();
+                if (solicitud == null) {
+                    carril.programado = false;
+                    carriles.remove(carril.curso);
+                    notifyAll();
+                    return;
+                }
+            }
+            try {
+                solicitud.resultado.complete(servicio.solicitarInscripcion(solicitud.alumno, carril.curso));
+            } catch (RuntimeException ex) {
+                solicitud.resultado.completeExceptionally(ex);
+            }
+        }
+        trabajadores.execute(carril);
+    }
+
+    /**
+     * Solicitudes pendientes de un curso, en orden de llegada.
+     */
+    private final class Carril implements Runnable {
+
+        private final Curso curso;
+        private final ArrayDeque<Solicitud> solicitudes = new ArrayDeque<>();
+        private boolean programado;
+
+        private Carril(Curso curso) {
+            this.curso = curso;
+        }
+
+        @Override
+        public void run() {
+            atender(this);
+        }
+    }
+
+    /**
+     * Solicitud de inscripción de un alumno en el curso de un carril.
+     */
+    private static final class Solicitud {
+
+        private final Alumno alumno;
+        private final CompletableFuture<ResultadoInscripcion> resultado;
+
+        private Solicitud(Alumno alumno, CompletableFuture<ResultadoInscripcion> resultado) {
+            this.alumno = alumno;
+            this.resultado = resultado;
+        }
+    }
+}
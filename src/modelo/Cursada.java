@@ -1,15 +1,46 @@
 package modelo;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import javax.swing.DefaultListModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Clase que representa una cursada de un curso en el sistema.
  * Implementa la interfaz Serializable para permitir la serialización de objetos.
  */
 public class Cursada implements Serializable{
-    private DefaultListModel<Alumno> alumnos;
+
+    private static final long serialVersionUID = -6588991438663974335L;
+
+    /**
+     * Campos guardados por la serialización de Java. Los alumnos se declaran
+     * como List porque las versiones anteriores los guardaban como
+     * DefaultListModel.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("alumnos", List.class),
+        new ObjectStreamField("docente", Docente.class)
+    };
+
+    private List<Alumno> alumnos;
     private Docente docente;
+    private transient AtomicInteger lugaresOcupados; // lugares reservados, incluidas las inscripciones en curso
+    private transient PriorityQueue<EnEspera> listaEspera; // alumnos esperando un lugar, el primero es el próximo en entrar
+    private transient Set<Alumno> alumnosEnEspera; // los mismos alumnos, para saber en tiempo constante si ya esperan
+    private transient long proximoOrden; // orden de llegada del próximo alumno que entra en la lista de espera
+    private transient Map<Alumno, Calificacion> calificaciones; // solo los alumnos calificados, los demás están sin calificar
+    private transient Set<Alumno> conjuntoAlumnos; // copia de la lista para consultas en tiempo constante, se construye al usarla
 
     /**
      * Constructor de la clase Cursada.
@@ -17,14 +48,337 @@ public class Cursada implements Serializable{
      */
     public Cursada(Docente docente) {  //constructor para instanciar (realizado por admin)
         this.docente = docente;
-        this.alumnos = new DefaultListModel<>();
+        this.alumnos = new ArrayList<>();
+        this.lugaresOcupados = new AtomicInteger();
+        this.listaEspera = new PriorityQueue<>();
+        this.alumnosEnEspera = new HashSet<>();
+        this.calificaciones = new HashMap<>();
+    }
+
+    /**
+     * Obtiene los alumnos inscriptos en la cursada, en el orden en que se
+     * inscribieron.
+     * @return Una copia de la lista de alumnos inscriptos.
+     */
+    public synchronized List<Alumno> getAlumnos() {
+        return new ArrayList<>(alumnos);
+    }
+
+    /**
+     * Obtiene la cantidad de alumnos inscriptos en la cursada, sin copiar la
+     * lista.
+     * @return La cantidad de alumnos inscriptos.
+     */
+    public synchronized int getCantidadAlumnos() {
+        return alumnos.size();
+    }
+
+    /**
+     * Agrega un alumno a la lista de inscriptos de la cursada.
+     * @param alumno El alumno inscripto.
+     */
+    synchronized void agregarAlumno(Alumno alumno) {
+        alumnos.add(alumno);
+        if (conjuntoAlumnos != null) {
+            conjuntoAlumnos.add(alumno);
+        }
+    }
+
+    /**
+     * Indica si un alumno está inscripto en la cursada.
+     * @param alumno El alumno buscado.
+     * @return true si el alumno está inscripto.
+     */
+    public synchronized boolean estaInscripto(Alumno alumno) {
+        if (conjuntoAlumnos == null) {
+            conjuntoAlumnos = new HashSet<>(alumnos);
+        }
+        return conjuntoAlumnos.contains(alumno);
+    }
+
+    /**
+     * Reserva un lugar en la cursada si todavía no se alcanzó el tope. La
+     * reserva se hace con una comparación e intercambio sobre el contador de
+     * lugares, de modo que dos inscripciones simultáneas nunca toman el mismo
+     * lugar ni superan el tope.
+     * @param tope El límite de alumnos de la cursada.
+     * @return La cantidad de lugares ocupados contando el reservado, o -1 si
+     * la cursada está completa.
+     */
+    int reservarLugar(int tope) {
+        while (true) {
+            int ocupados = lugaresOcupados.get();
+            if (ocupados >= tope) {
+                return -1;
+            }
+            if (lugaresOcupados.compareAndSet(ocupados, ocupados + 1)) {
+                return ocupados + 1;
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de lugares reservados, incluidas las inscripciones
+     * que todavía están en curso.
+     * @return La cantidad de lugares ocupados.
+     */
+    int getLugaresOcupados() {
+        return lugaresOcupados.get();
+    }
+
+    /**
+     * Devuelve un lugar reservado cuando la inscripción no pudo completarse.
+     */
+    void liberarLugar() {
+        lugaresOcupados.decrementAndGet();
+    }
+
+    /**
+     * Anota a un alumno en la lista de espera de la cursada. Tienen prioridad
+     * los alumnos con más cursos aprobados al momento de anotarse y, entre
+     * ellos, los que se anotaron primero.
+     * @param alumno El alumno que espera un lugar.
+     * @return true si el alumno se anotó, false si ya estaba en la lista.
+     */
+    synchronized boolean agregarEnEspera(Alumno alumno) {
+        if (!alumnosEnEspera.add(alumno)) {
+            return false;
+        }
+        listaEspera.add(new EnEspera(alumno, alumno.totalCursosAprobados(), proximoOrden++));
+        return true;
+    }
+
+    /**
+     * Indica si un alumno está en la lista de espera de la cursada.
+     * @param alumno El alumno buscado.
+     * @return true si el alumno espera un lugar en la cursada.
+     */
+    public synchronized boolean estaEnEspera(Alumno alumno) {
+        return alumnosEnEspera.contains(alumno);
+    }
+
+    /**
+     * Obtiene el alumno con mayor prioridad de la lista de espera sin
+     * quitarlo.
+     * @return El próximo alumno en entrar, o null si la lista está vacía.
+     */
+    synchronized Alumno primeroEnEspera() {
+        EnEspera primero = listaEspera.peek();
+        return primero == null ? null : primero.alumno;
+    }
+
+    /**
+     * Quita de la lista de espera al alumno con mayor prioridad.
+     * @return El alumno quitado, o null si la lista está vacía.
+     */
+    synchronized Alumno quitarPrimeroEnEspera() {
+        EnEspera primero = listaEspera.poll();
+        if (primero == null) {
+            return null;
+        }
+        alumnosEnEspera.remove(primero.alumno);
+        return primero.alumno;
+    }
+
+    /**
+     * Obtiene los alumnos de la lista de espera en orden de prioridad.
+     * @return Una copia de la lista de espera ordenada.
+     */
+    public synchronized List<Alumno> getListaEspera() {
+        List<EnEspera> ordenada = new ArrayList<>(listaEspera);
+        Collections.sort(ordenada);
+        List<Alumno> alumnosOrdenados = new ArrayList<>(ordenada.size());
+        for (EnEspera enEspera : ordenada) {
+            alumnosOrdenados.add(enEspera.alumno);
+        }
+        return alumnosOrdenados;
+    }
+
+    /**
+     * Obtiene la calificación de un alumno en la cursada.
+     * @param alumno El alumno inscripto.
+     * @return La calificación del alumno, o SIN_CALIFICAR si todavía no fue
+     * calificado.
+     */
+    public synchronized Calificacion getCalificacion(Alumno alumno) {
+        return calificaciones.getOrDefault(alumno, Calificacion.SIN_CALIFICAR);
+    }
+
+    /**
+     * Califica a un alumno inscripto en la cursada. Calificarlo como
+     * SIN_CALIFICAR quita su calificación. Un alumno que no está inscripto no
+     * se califica, ya que la cantidad de alumnos sin calificar y el formato
+     * binario cuentan solo las calificaciones de los inscriptos.
+     * @param alumno El alumno inscripto.
+     * @param calificacion La calificación del alumno.
+     * @return true si el alumno está inscripto y se calificó, false si no
+     * está inscripto.
+     */
+    synchronized boolean calificar(Alumno alumno, Calificacion calificacion) {
+        if (!estaInscripto(alumno)) {
+            return false;
+        }
+        if (calificacion == Calificacion.SIN_CALIFICAR) {
+            calificaciones.remove(alumno);
+        } else {
+            calificaciones.put(alumno, calificacion);
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene la cantidad de alumnos inscriptos que todavía no fueron
+     * calificados, sin recorrer la lista.
+     * @return La cantidad de alumnos sin calificar.
+     */
+    public synchronized int getSinCalificar() {
+        return Math.max(0, alumnos.size() - calificaciones.size());
+    }
+
+    /**
+     * Indica si todos los alumnos inscriptos en la cursada están calificados.
+     * @return true si ningún alumno está sin calificar.
+     */
+    public synchronized boolean todosCalificados() {
+        return getSinCalificar() == 0;
     }
 
     /**
-     * Obtiene la lista de alumnos inscriptos en la cursada.
-     * @return La lista de alumnos inscriptos en la cursada.
+     * Obtiene los alumnos calificados como aprobados, en el orden en que se
+     * inscribieron.
+     * @return Los alumnos aprobados.
      */
-    public DefaultListModel<Alumno> getAlumnos() {
-        return alumnos;
+    public synchronized List<Alumno> getAprobados() {
+        List<Alumno> aprobados = new ArrayList<>();
+        for (Alumno alumno : alumnos) {
+            if (calificaciones.get(alumno) == Calificacion.APROBADO) {
+                aprobados.add(alumno);
+            }
+        }
+        return aprobados;
+    }
+
+    /**
+     * Escribe la cursada en el formato binario del instituto: el docente, los
+     * alumnos inscriptos, como referencias a los usuarios, la lista de espera
+     * y las calificaciones.
+     * @param salida El flujo de escritura del formato binario.
+     * @throws IOException Si algún usuario no pertenece al instituto.
+     */
+    void escribir(CodecInstituto.Salida salida) throws IOException {
+        salida.escribirReferencia(docente);
+        salida.escribirVarInt(alumnos.size());
+        for (Alumno alumno : alumnos) {
+            salida.escribirReferencia(alumno);
+        }
+        List<EnEspera> espera = new ArrayList<>(listaEspera);
+        Collections.sort(espera);
+        salida.escribirVarInt(espera.size());
+        for (EnEspera enEspera : espera) {
+            salida.escribirReferencia(enEspera.alumno);
+            salida.escribirVarInt(enEspera.cursosAprobados);
+        }
+        salida.escribirVarInt(calificaciones.size());
+        for (int i = 0; i < alumnos.size(); i++) {
+            Calificacion calificacion = calificaciones.get(alumnos.get(i));
+            if (calificacion != null) {
+                salida.escribirVarInt(i);
+                salida.escribirByte(calificacion.getCodigo());
+            }
+        }
+    }
+
+    /**
+     * Lee una cursada desde el formato binario del instituto.
+     * @param entrada El flujo de lectura del formato binario.
+     * @return La cursada leída.
+     * @throws IOException Si los datos están dañados.
+     */
+    static Cursada leer(CodecInstituto.Entrada entrada) throws IOException {
+        Cursada cursada = new Cursada((Docente) entrada.leerUsuario());
+        int cantidad = entrada.leerVarInt();
+        for (int i = 0; i < cantidad; i++) {
+            cursada.alumnos.add((Alumno) entrada.leerUsuario());
+        }
+        cursada.lugaresOcupados.set(cantidad);
+        if (entrada.version >= 2) {
+            int enEspera = entrada.leerVarInt();
+            for (int i = 0; i < enEspera; i++) {
+                Alumno alumno = (Alumno) entrada.leerUsuario();
+                cursada.alumnosEnEspera.add(alumno);
+                cursada.listaEspera.add(new EnEspera(alumno, entrada.leerVarInt(), cursada.proximoOrden++));
+            }
+        }
+        if (entrada.version >= 4) {
+            int calificados = entrada.leerVarInt();
+            for (int i = 0; i < calificados; i++) {
+                int posicion = entrada.leerVarInt();
+                Calificacion calificacion = Calificacion.desdeCodigo(entrada.leerByte());
+                if (posicion >= cantidad || calificacion == null) {
+                    throw new IOException("Calificación inválida en la cursada.");
+                }
+                cursada.calificar(cursada.alumnos.get(posicion), calificacion);
+            }
+        }
+        return cursada;
+    }
+
+    /**
+     * Escribe la cursada con la serialización de Java.
+     * @param salida El flujo de salida.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    private synchronized void writeObject(ObjectOutputStream salida) throws IOException {
+        ObjectOutputStream.PutField campos = salida.putFields();
+        campos.put("alumnos", alumnos);
+        campos.put("docente", docente);
+        salida.writeFields();
+    }
+
+    /**
+     * Lee una cursada guardada con la serialización de Java, incluidas las de
+     * las versiones anteriores, y cuenta como ocupados los lugares de sus
+     * alumnos inscriptos.
+     * @param entrada El flujo de entrada.
+     * @throws IOException Si ocurre un error al leer.
+     * @throws ClassNotFoundException Si no se encuentra la clase de algún
+     * objeto leído.
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        alumnos = CodecInstituto.leerListaLegada(campos.get("alumnos", null));
+        docente = (Docente) campos.get("docente", null);
+        lugaresOcupados = new AtomicInteger(alumnos.size());
+        listaEspera = new PriorityQueue<>();
+        alumnosEnEspera = new HashSet<>();
+        calificaciones = new HashMap<>();
+    }
+
+    /**
+     * Alumno anotado en la lista de espera. Guarda la cantidad de cursos
+     * aprobados al anotarse, para que su prioridad no cambie mientras espera,
+     * y el orden de llegada, que desempata. El orden es un contador de la
+     * cursada y no la hora, de modo que al reproducir el journal se obtiene
+     * la misma lista.
+     */
+    private static final class EnEspera implements Comparable<EnEspera> {
+
+        private final Alumno alumno;
+        private final int cursosAprobados;
+        private final long orden;
+
+        private EnEspera(Alumno alumno, int cursosAprobados, long orden) {
+            this.alumno = alumno;
+            this.cursosAprobados = cursosAprobados;
+            this.orden = orden;
+        }
+
+        @Override
+        public int compareTo(EnEspera otro) {
+            if (cursosAprobados != otro.cursosAprobados) {
+                return Integer.compare(otro.cursosAprobados, cursosAprobados);
+            }
+            return Long.compare(orden, otro.orden);
+        }
     }
 }
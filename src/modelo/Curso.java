@@ -1,7 +1,15 @@
 package modelo;
 
+import excepciones.TransicionEstadoInvalidaException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import javax.swing.DefaultListModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Clase que representa un curso en el sistema.
@@ -9,14 +17,35 @@ import javax.swing.DefaultListModel;
  */
 public class Curso implements Serializable{
 
+    private static final long serialVersionUID = 8145321441938816154L;
+
+    /**
+     * Campos guardados por la serialización de Java. El estado se guarda con
+     * su nombre, como en las versiones anteriores, para poder leer sus
+     * archivos de datos, y las cursadas finalizadas se declaran como List
+     * porque esas versiones las guardaban como DefaultListModel.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("nombreCurso", String.class),
+        new ObjectStreamField("estadoCurso", String.class),
+        new ObjectStreamField("descripcionCurso", String.class),
+        new ObjectStreamField("cursosRequeridos", int.class),
+        new ObjectStreamField("topeAlumnos", int.class),
+        new ObjectStreamField("docente", Docente.class),
+        new ObjectStreamField("cursadaActiva", Cursada.class),
+        new ObjectStreamField("cursadasFinalizadas", List.class)
+    };
+
     private String nombreCurso;
-    private String estadoCurso;
+    private volatile EstadoCurso estadoCurso;
     private String descripcionCurso;
     private int cursosRequeridos;
-    private int topeAlumnos;
+    private volatile int topeAlumnos;
     private Docente docente; // se asigna cuando el docente lo propone
-    private Cursada cursadaActiva; // lo instancia el admin
-    private DefaultListModel<Cursada> cursadasFinalizadas; //contiene todas las cursadas finalizadas de cada curso
+    private volatile Cursada cursadaActiva; // lo instancia el admin
+    private List<Cursada> cursadasFinalizadas; //contiene todas las cursadas finalizadas de cada curso
+    private transient IndiceCursos indice; // índice del instituto al que se avisan los cambios de estado
+    private transient int posicionIndice; // posición del curso en el catálogo, para ordenar el índice
 
     /**
      * Constructor de la clase Curso.
@@ -29,10 +58,10 @@ public class Curso implements Serializable{
         this.nombreCurso = nombreCurso;
         this.descripcionCurso = descripcionCurso;
         this.cursosRequeridos = requeridos;
-        this.estadoCurso = "Propuesto";
+        this.estadoCurso = EstadoCurso.PROPUESTO;
         this.topeAlumnos = 0;
         this.docente = docente;
-        this.cursadasFinalizadas = new DefaultListModel<>();
+        this.cursadasFinalizadas = new ArrayList<>();
         this.cursadaActiva = null;
     }
 
@@ -82,16 +111,54 @@ public class Curso implements Serializable{
      * cerrado o cancelado.
      * @return El estado actual del curso.
      */
-    public String getEstadoCurso() {
+    public EstadoCurso getEstadoCurso() {
         return estadoCurso;
     }
 
     /**
-     * Establece el estado del curso.
+     * Establece el estado del curso, validando que la transición desde el
+     * estado actual esté permitida.
+     * @param estadoCurso El nuevo estado del curso.
+     * @throws TransicionEstadoInvalidaException Si el curso no puede pasar del
+     * estado actual al indicado.
+     */
+    public void setEstadoCurso(EstadoCurso estadoCurso) throws TransicionEstadoInvalidaException {
+        if (!this.estadoCurso.puedePasarA(estadoCurso)) {
+            throw new TransicionEstadoInvalidaException(nombreCurso, this.estadoCurso.toString(), String.valueOf(estadoCurso));
+        }
+        cambiarEstado(estadoCurso);
+    }
+
+    /**
+     * Cambia el estado del curso y avisa al índice de cursos del instituto.
+     * Solo se utiliza para transiciones que ya fueron validadas.
      * @param estadoCurso El nuevo estado del curso.
      */
-    public void setEstadoCurso(String estadoCurso) {
+    private void cambiarEstado(EstadoCurso estadoCurso) {
+        EstadoCurso estadoAnterior = this.estadoCurso;
         this.estadoCurso = estadoCurso;
+        if (indice != null && estadoCurso != estadoAnterior) {
+            indice.estadoCambiado(this, estadoAnterior);
+        }
+    }
+
+    /**
+     * Asocia el curso al índice de cursos del instituto, que será avisado de
+     * cada cambio de estado.
+     * @param indice El índice de cursos del instituto.
+     * @param posicion La posición del curso en el catálogo del instituto.
+     */
+    void indexar(IndiceCursos indice, int posicion) {
+        this.indice = indice;
+        this.posicionIndice = posicion;
+    }
+
+    /**
+     * Obtiene la posición del curso en el catálogo con la que fue indexado.
+     * @return La posición del curso en el catálogo.
+     */
+    int getPosicionIndice() {
+        return posicionIndice;
     }
 
     /**
@@ -123,7 +190,16 @@ public class Curso implements Serializable{
      * @param curso El curso cuya cursada se va a almacenar.
      */
     public void almacenarCursada(Curso curso) {
-        this.cursadasFinalizadas.addElement(cursadaActiva);
+        this.cursadasFinalizadas.add(cursadaActiva);
+    }
+
+    /**
+     * Obtiene las cursadas finalizadas del curso, con sus calificaciones, que
+     * no pueden modificarse.
+     * @return Las cursadas finalizadas, de la más antigua a la más reciente.
+     */
+    public List<Cursada> getCursadasFinalizadas() {
+        return Collections.unmodifiableList(cursadasFinalizadas);
     }
 
     /**
@@ -135,30 +211,171 @@ public class Curso implements Serializable{
     }
 
     /**
-     * Reinicia la cursada activa del curso.
+     * Reinicia la cursada activa del curso. La cursada finalizada se almacena
+     * y se da de alta una nueva.
      * @param docente El docente que reinicia la cursada activa.
+     * @throws TransicionEstadoInvalidaException Si el curso no está
+     * finalizado.
      */
-    public void reiniciarCursada(Docente docente) { // método llamado por el docente
+    public void reiniciarCursada(Docente docente) throws TransicionEstadoInvalidaException { // método llamado por el docente
+        if (estadoCurso != EstadoCurso.FINALIZADO) {
+            throw new TransicionEstadoInvalidaException(nombreCurso, estadoCurso.toString(), EstadoCurso.HABILITADO.toString());
+        }
+        this.almacenarCursada(this);
         Cursada nuevaCursada = new Cursada(docente);
         this.cursadaActiva = nuevaCursada;
-        this.setEstadoCurso("Habilitado");
+        this.cambiarEstado(EstadoCurso.HABILITADO);
     }
     
     
 
     /**
-     * Inscribe un alumno en la cursada activa del curso.
+     * Inscribe un alumno en la cursada activa del curso. Solo se inscribe si
+     * el curso está habilitado y puede reservar un lugar en la cursada; la
+     * inscripción que toma el último lugar pasa el curso a cerrado, de modo
+     * que el cierre ocurre una sola vez aunque haya inscripciones simultáneas.
      * @param alumno El alumno que se va a inscribir en la cursada activa.
+     * @return true si el alumno quedó inscripto, false si el curso no está
+     * habilitado o no tiene lugar.
      */
-    public void inscribirAlumno(Alumno alumno) {
-        int inscriptos = cursadaActiva.getAlumnos().size();
+    public boolean inscribirAlumno(Alumno alumno) {
+        Cursada cursada = cursadaActiva;
+        if (estadoCurso != EstadoCurso.HABILITADO || cursada == null) {
+            return false;
+        }
+        int ocupados = cursada.reservarLugar(topeAlumnos);
+        if (ocupados < 0) {
+            return false;
+        }
+        try {
+            cursada.agregarAlumno(alumno);
+        } catch (RuntimeException ex) {
+            cursada.liberarLugar();
+            throw ex;
+        }
+        if (ocupados == topeAlumnos) {
+            this.cambiarEstado(EstadoCurso.CERRADO);
+        }
+        return true;
+    }
+
+    /**
+     * Inscribe a los alumnos de la lista de espera de la cursada activa, en
+     * orden de prioridad, mientras el curso esté habilitado y tenga lugar. Se
+     * invoca cuando el curso gana lugares, por ejemplo al aumentar el tope de
+     * alumnos.
+     * @return Los alumnos inscriptos desde la lista de espera.
+     */
+    List<Alumno> promoverListaEspera() {
+        List<Alumno> promovidos = new ArrayList<>();
+        Cursada cursada = cursadaActiva;
+        if (cursada == null) {
+            return promovidos;
+        }
+        Alumno alumno = cursada.primeroEnEspera();
+        while (alumno != null && inscribirAlumno(alumno)) {
+            cursada.quitarPrimeroEnEspera();
+            promovidos.add(alumno);
+            alumno = cursada.primeroEnEspera();
+        }
+        return promovidos;
+    }
 
-        if (inscriptos < topeAlumnos) {
-            cursadaActiva.getAlumnos().addElement(alumno);
-            inscriptos = cursadaActiva.getAlumnos().size();
-            if (inscriptos == topeAlumnos) {
-                this.setEstadoCurso("Cerrado");
-            }
+    /**
+     * Escribe el curso en el formato binario del instituto. El estado se
+     * guarda como su código y el docente como referencia al usuario.
+     * @param salida El flujo de escritura del formato binario.
+     * @throws IOException Si algún usuario no pertenece al instituto.
+     */
+    void escribir(CodecInstituto.Salida salida) throws IOException {
+        salida.escribirTexto(nombreCurso);
+        salida.escribirTexto(descripcionCurso);
+        salida.escribirVarInt(cursosRequeridos);
+        salida.escribirByte(estadoCurso.getCodigo());
+        salida.escribirVarInt(topeAlumnos);
+        salida.escribirReferencia(docente);
+        salida.escribirBoolean(cursadaActiva != null);
+        if (cursadaActiva != null) {
+            cursadaActiva.escribir(salida);
+        }
+        salida.escribirVarInt(cursadasFinalizadas.size());
+        for (Cursada cursada : cursadasFinalizadas) {
+            cursada.escribir(salida);
+        }
+    }
+
+    /**
+     * Lee un curso desde el formato binario del instituto.
+     * @param entrada El flujo de lectura del formato binario.
+     * @return El curso leído.
+     * @throws IOException Si los datos están dañados.
+     */
+    static Curso leer(CodecInstituto.Entrada entrada) throws IOException {
+        String nombre = entrada.leerTexto();
+        String descripcion = entrada.leerTexto();
+        int requeridos = entrada.leerVarInt();
+        EstadoCurso estado = EstadoCurso.desdeCodigo(entrada.leerByte());
+        if (estado == null) {
+            throw new IOException("Estado de curso desconocido.");
+        }
+        int tope = entrada.leerVarInt();
+        Docente docente = (Docente) entrada.leerUsuario();
+
+        Curso curso = new Curso(nombre, descripcion, requeridos, docente);
+        curso.estadoCurso = estado;
+        curso.topeAlumnos = tope;
+        if (entrada.leerBoolean()) {
+            curso.cursadaActiva = Cursada.leer(entrada);
+        }
+        int finalizadas = entrada.leerVarInt();
+        for (int i = 0; i < finalizadas; i++) {
+            curso.cursadasFinalizadas.add(Cursada.leer(entrada));
+        }
+        return curso;
+    }
+
+    /**
+     * Escribe el curso con la serialización de Java, guardando el estado con
+     * su nombre.
+     * @param salida El flujo de salida.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    private void writeObject(ObjectOutputStream salida) throws IOException {
+        ObjectOutputStream.PutField campos = salida.putFields();
+        campos.put("nombreCurso", nombreCurso);
+        campos.put("estadoCurso", estadoCurso.toString());
+        campos.put("descripcionCurso", descripcionCurso);
+        campos.put("cursosRequeridos", cursosRequeridos);
+        campos.put("topeAlumnos", topeAlumnos);
+        campos.put("docente", docente);
+        campos.put("cursadaActiva", cursadaActiva);
+        campos.put("cursadasFinalizadas", cursadasFinalizadas);
+        salida.writeFields();
+    }
+
+    /**
+     * Lee un curso guardado con la serialización de Java, incluidos los de
+     * las versiones anteriores, convirtiendo el nombre del estado y la lista
+     * de cursadas finalizadas.
+     * @param entrada El flujo de entrada.
+     * @throws IOException Si ocurre un error al leer o el estado no es
+     * conocido.
+     * @throws ClassNotFoundException Si no se encuentra la clase de algún
+     * objeto leído.
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        nombreCurso = (String) campos.get("nombreCurso", null);
+        String estado = (String) campos.get("estadoCurso", null);
+        estadoCurso = EstadoCurso.desdeNombre(estado);
+        if (estadoCurso == null) {
+            throw new InvalidObjectException("Estado de curso desconocido: " + estado);
         }
+        descripcionCurso = (String) campos.get("descripcionCurso", null);
+        cursosRequeridos = campos.get("cursosRequeridos", 0);
+        topeAlumnos = campos.get("topeAlumnos", 0);
+        docente = (Docente) campos.get("docente", null);
+        cursadaActiva = (Cursada) campos.get("cursadaActiva", null);
+        cursadasFinalizadas = CodecInstituto.leerListaLegada(campos.get("cursadasFinalizadas", null));
     }
 }
@@ -6,6 +6,8 @@ package modelo;
  */
 public class Docente extends Usuario {
 
+    private static final long serialVersionUID = -4467666281398581841L;
+
     /**
      * Constructor de la clase Docente.
      * @param nombre El nombre del docente.
@@ -17,4 +19,17 @@ public class Docente extends Usuario {
         this.perfil = "Docente";
     }
 
+    /**
+     * Constructor utilizado al leer el instituto desde el formato binario.
+     * @param nombre El nombre del docente.
+     * @param apellido El apellido del docente.
+     * @param dni El DNI del docente.
+     * @param password El hash de la contraseña almacenada.
+     * @param sancionado Si la cuenta está sancionada.
+     */
+    Docente(String nombre, String apellido, String dni, String password, boolean sancionado) {
+        super(nombre, apellido, dni, password, sancionado);
+        this.perfil = "Docente";
+    }
+
 }
@@ -0,0 +1,115 @@
+package modelo;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Enumera los estados por los que pasa un curso. Cada estado tiene un código
+ * fijo, que es el que se guarda en el archivo de datos, y el nombre con el que
+ * se muestra y se registra en el journal. La tabla de transiciones indica a qué
+ * estados puede pasar un curso desde cada uno:
+ *
+ * Propuesto → Habilitado o Cancelado.
+ * Habilitado → Cerrado o Cancelado.
+ * Cerrado → Finalizado, Habilitado (reapertura) o Cancelado.
+ * Finalizado y Cancelado no admiten cambios. Un curso finalizado solo vuelve
+ * a habilitarse con Curso.reiniciarCursada, que almacena la cursada
+ * finalizada y da de alta una nueva.
+ *
+ * Permanecer en el mismo estado siempre está permitido.
+ */
+public enum EstadoCurso {
+
+    PROPUESTO(0, "Propuesto"),
+    HABILITADO(1, "Habilitado"),
+    CERRADO(2, "Cerrado"),
+    CANCELADO(3, "Cancelado"),
+    FINALIZADO(4, "Finalizado");
+
+    private static final Map<EstadoCurso, Set<EstadoCurso>> TRANSICIONES = new EnumMap<>(EstadoCurso.class);
+
+    static {
+        TRANSICIONES.put(PROPUESTO, EnumSet.of(HABILITADO, CANCELADO));
+        TRANSICIONES.put(HABILITADO, EnumSet.of(CERRADO, CANCELADO));
+        TRANSICIONES.put(CERRADO, EnumSet.of(FINALIZADO, HABILITADO, CANCELADO));
+        TRANSICIONES.put(FINALIZADO, EnumSet.noneOf(EstadoCurso.class));
+        TRANSICIONES.put(CANCELADO, EnumSet.noneOf(EstadoCurso.class));
+    }
+
+    private final byte codigo;
+    private final String nombre;
+
+    /**
+     * Constructor del estado de curso.
+     *
+     * @param codigo El código con el que se almacena el estado.
+     * @param nombre El nombre con el que se muestra el estado.
+     */
+    private EstadoCurso(int codigo, String nombre) {
+        this.codigo = (byte) codigo;
+        this.nombre = nombre;
+    }
+
+    /**
+     * Obtiene el código con el que se almacena el estado en el archivo de
+     * datos.
+     *
+     * @return El código del estado.
+     */
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Indica si un curso en este estado puede pasar al estado indicado.
+     *
+     * @param nuevo El estado al que se quiere pasar.
+     * @return true si la transición está permitida.
+     */
+    public boolean puedePasarA(EstadoCurso nuevo) {
+        return nuevo == this || TRANSICIONES.get(this).contains(nuevo);
+    }
+
+    /**
+     * Se sobreescribe el toString para mostrar el nombre del estado.
+     *
+     * @return El nombre del estado.
+     */
+    @Override
+    public String toString() {
+        return nombre;
+    }
+
+    /**
+     * Busca el estado correspondiente a un código almacenado.
+     *
+     * @param codigo El código leído del archivo de datos.
+     * @return El estado, o null si el código no es conocido.
+     */
+    public static EstadoCurso desdeCodigo(int codigo) {
+        for (EstadoCurso estado : values()) {
+            if (estado.codigo == codigo) {
+                return estado;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Busca el estado correspondiente a un nombre, tal como se muestra en la
+     * interfaz y se registra en el journal.
+     *
+     * @param nombre El nombre del estado.
+     * @return El estado, o null si el nombre no es conocido.
+     */
+    public static EstadoCurso desdeNombre(String nombre) {
+        for (EstadoCurso estado : values()) {
+            if (estado.nombre.equals(nombre)) {
+                return estado;
+            }
+        }
+        return null;
+    }
+}
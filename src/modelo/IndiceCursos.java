@@ -0,0 +1,151 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Índice secundario de los cursos del instituto agrupados por estado, tanto
+ * para todo el catálogo como para los cursos de cada docente. Cada curso
+ * indexado avisa al índice cuando cambia de estado, de modo que los grupos se
+ * mantienen al día sin recorrer el catálogo. Dentro de cada grupo los cursos
+ * se ordenan por su posición en el catálogo, igual que en el listado completo
+ * de cursos. Los cursos habilitados se agrupan además por la cantidad de
+ * cursos aprobados que requieren, para obtener los disponibles para un alumno
+ * sin recorrer los que todavía no puede cursar.
+ *
+ * Los métodos están sincronizados porque los cambios de estado de cursos
+ * distintos pueden ocurrir a la vez; las consultas devuelven copias.
+ */
+class IndiceCursos {
+
+    private static final Comparator<Curso> POR_POSICION = Comparator.comparingInt(Curso::getPosicionIndice);
+
+    private final Map<EstadoCurso, NavigableSet<Curso>> cursosPorEstado = new EnumMap<>(EstadoCurso.class);
+    private final MapaDni<Map<EstadoCurso, NavigableSet<Curso>>> cursosPorDocente = new MapaDni<>(16);
+    private final NavigableMap<Integer, NavigableSet<Curso>> habilitadosPorRequisito = new TreeMap<>();
+
+    /**
+     * Agrega un curso al índice y lo asocia para recibir sus cambios de
+     * estado.
+     *
+     * @param curso El curso a indexar.
+     * @param posicion La posición del curso en el catálogo del instituto.
+     */
+    synchronized void agregar(Curso curso, int posicion) {
+        curso.indexar(this, posicion);
+        grupo(cursosPorEstado, curso.getEstadoCurso()).add(curso);
+        grupo(estadosDocente(curso.getDocente()), curso.getEstadoCurso()).add(curso);
+        if (curso.getEstadoCurso() == EstadoCurso.HABILITADO) {
+            agregarHabilitado(curso);
+        }
+    }
+
+    /**
+     * Mueve un curso al grupo de su nuevo estado. Lo invoca el curso cada vez
+     * que cambia de estado.
+     *
+     * @param curso El curso que cambió de estado.
+     * @param estadoAnterior El estado que tenía el curso antes del cambio.
+     */
+    synchronized void estadoCambiado(Curso curso, EstadoCurso estadoAnterior) {
+        mover(cursosPorEstado, curso, estadoAnterior);
+        mover(estadosDocente(curso.getDocente()), curso, estadoAnterior);
+        if (estadoAnterior == EstadoCurso.HABILITADO) {
+            NavigableSet<Curso> requisito = habilitadosPorRequisito.get(curso.getCursosRequeridos());
+            if (requisito != null) {
+                requisito.remove(curso);
+            }
+        } else if (curso.getEstadoCurso() == EstadoCurso.HABILITADO) {
+            agregarHabilitado(curso);
+        }
+    }
+
+    /**
+     * Obtiene los cursos que se encuentran en un estado, en el orden del
+     * catálogo.
+     *
+     * @param estado El estado buscado.
+     * @return Una copia de los cursos en ese estado.
+     */
+    synchronized List<Curso> getCursos(EstadoCurso estado) {
+        return copia(cursosPorEstado.get(estado));
+    }
+
+    /**
+     * Obtiene los cursos propuestos por un docente que se encuentran en un
+     * estado, en el orden del catálogo.
+     *
+     * @param docente El docente a cargo de los cursos.
+     * @param estado El estado buscado.
+     * @return Una copia de los cursos del docente en ese estado.
+     */
+    synchronized List<Curso> getCursos(Docente docente, EstadoCurso estado) {
+        Map<EstadoCurso, NavigableSet<Curso>> estados = cursosPorDocente.get(docente.getDni());
+        return copia(estados == null ? null : estados.get(estado));
+    }
+
+    /**
+     * Obtiene los cursos habilitados que requieren a lo sumo la cantidad de
+     * cursos aprobados indicada, en el orden del catálogo.
+     *
+     * @param cursosAprobados La cantidad de cursos aprobados del alumno.
+     * @return Los cursos habilitados que el alumno está en condiciones de
+     * cursar.
+     */
+    synchronized List<Curso> getHabilitados(int cursosAprobados) {
+        List<Curso> habilitados = new ArrayList<>();
+        int grupos = 0;
+        for (NavigableSet<Curso> requisito : habilitadosPorRequisito.headMap(cursosAprobados, true).values()) {
+            if (!requisito.isEmpty()) {
+                habilitados.addAll(requisito);
+                grupos++;
+            }
+        }
+        if (grupos > 1) {
+            habilitados.sort(POR_POSICION);
+        }
+        return habilitados;
+    }
+
+    private void agregarHabilitado(Curso curso) {
+        habilitadosPorRequisito.computeIfAbsent(curso.getCursosRequeridos(), r -> new TreeSet<>(POR_POSICION)).add(curso);
+    }
+
+    /**
+     * Obtiene los grupos por estado de los cursos de un docente, creándolos si
+     * todavía no tiene cursos indexados. Los docentes se identifican por su
+     * DNI, igual que en el resto del instituto.
+     */
+    private Map<EstadoCurso, NavigableSet<Curso>> estadosDocente(Docente docente) {
+        Map<EstadoCurso, NavigableSet<Curso>> estados = cursosPorDocente.get(docente.getDni());
+        if (estados == null) {
+            estados = new EnumMap<>(EstadoCurso.class);
+            cursosPorDocente.put(docente.getDni(), estados);
+        }
+        return estados;
+    }
+
+    private static void mover(Map<EstadoCurso, NavigableSet<Curso>> grupos, Curso curso, EstadoCurso estadoAnterior) {
+        NavigableSet<Curso> anterior = grupos.get(estadoAnterior);
+        if (anterior != null) {
+            anterior.remove(curso);
+        }
+        grupo(grupos, curso.getEstadoCurso()).add(curso);
+    }
+
+    private static NavigableSet<Curso> grupo(Map<EstadoCurso, NavigableSet<Curso>> grupos, EstadoCurso estado) {
+        return grupos.computeIfAbsent(estado, e -> new TreeSet<>(POR_POSICION));
+    }
+
+    private static List<Curso> copia(NavigableSet<Curso> cursos) {
+        return cursos == null ? Collections.emptyList() : new ArrayList<>(cursos);
+    }
+}
@@ -0,0 +1,41 @@
+package modelo;
+
+import java.awt.GraphicsEnvironment;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+/**
+ * Destino de los errores que no surgen de una acción del usuario, como las
+ * escrituras del journal, de la copia del instituto o de la compactación, que
+ * ocurren en hilos de fondo. La aplicación de escritorio los muestra en un
+ * cuadro de diálogo y el servidor los escribe en la salida de errores.
+ */
+@FunctionalInterface
+public interface InformadorErrores {
+
+    /**
+     * Escribe los errores en la salida de errores del proceso.
+     */
+    InformadorErrores SALIDA_ERRORES = (mensaje, causa) ->
+            System.err.println(causa == null ? mensaje : mensaje + ": " + causa.getMessage());
+
+    /**
+     * Muestra los errores en un cuadro de diálogo desde el hilo de eventos de
+     * Swing. Si no hay pantalla los escribe en la salida de errores.
+     */
+    InformadorErrores DIALOGO = (mensaje, causa) -> {
+        if (GraphicsEnvironment.isHeadless()) {
+            SALIDA_ERRORES.informar(mensaje, causa);
+        } else {
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null, mensaje));
+        }
+    };
+
+    /**
+     * Informa un error.
+     *
+     * @param mensaje El mensaje para el usuario.
+     * @param causa La excepción que produjo el error, o null si no hay una.
+     */
+    void informar(String mensaje, Exception causa);
+}
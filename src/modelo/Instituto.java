@@ -1,8 +1,15 @@
 package modelo;
 
+import excepciones.TransicionEstadoInvalidaException;
 import java.io.*;
-import javax.swing.DefaultListModel;
-import javax.swing.JOptionPane;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Clase que representa al instituto en el sistema. Implementa la interfaz
@@ -10,22 +17,54 @@ import javax.swing.JOptionPane;
  */
 public class Instituto implements Serializable {
 
-    private DefaultListModel<Usuario> usuarios;
-    private DefaultListModel<Curso> cursos;
+    private static final long serialVersionUID = -7675760477777943013L;
+
+    /**
+     * Campos guardados por la serialización de Java. Las listas se declaran
+     * como List para poder leer también los archivos de las versiones
+     * anteriores, que las guardaban como DefaultListModel.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("usuarios", List.class),
+        new ObjectStreamField("cursos", List.class),
+        new ObjectStreamField("admin", Administrador.class),
+        new ObjectStreamField("ultimaOperacion", long.class)
+    };
+
+    private List<Usuario> usuarios;
+    private List<Curso> cursos;
     private Administrador admin;
+    private long ultimaOperacion; // secuencia de la última operación del journal incluida en este estado
+    private transient RegistroOperaciones registro;
+    private transient InformadorErrores informador; // destino de los errores al guardar, el diálogo si no se configura otro
+    private transient MapaDni<Usuario> usuariosPorDni; // índice de usuarios por DNI, se reconstruye al cargar
+    private transient IndiceCursos indiceCursos; // índice de cursos por estado, se reconstruye al cargar
 
     /**
      * Constructor de la clase Instituto. Inicializa las listas de usuarios y
-     * cursos, y crea un administrador predeterminado.
+     * cursos, y crea un administrador predeterminado. Su contraseña inicial es
+     * provisoria (igual al DNI), por lo que debe cambiarla al ingresar.
      */
     public Instituto() {
-        this.usuarios = new DefaultListModel<>();
-        this.cursos = new DefaultListModel<>();
+        this.usuarios = new ArrayList<>();
+        this.cursos = new ArrayList<>();
         this.admin = new Administrador("Administrador", "Instituto", "1234");//CAMBIAR ANTES DE ENTREGAR
-        this.admin.cambioPassword("1");//MODIFICAR ANTES DE ENTREGAR
         this.altaUsuario(admin);
     }
 
+    /**
+     * Constructor utilizado al leer el instituto desde el formato binario.
+     * Inicializa las listas vacías sin crear el administrador predeterminado.
+     *
+     * @param ultimaOperacion La secuencia de la última operación incluida en
+     * los datos leídos.
+     */
+    private Instituto(long ultimaOperacion) {
+        this.usuarios = new ArrayList<>();
+        this.cursos = new ArrayList<>();
+        this.ultimaOperacion = ultimaOperacion;
+    }
+
     /**
      * Crea un nuevo alumno y lo registra en el instituto.
      *
@@ -60,7 +99,45 @@ public class Instituto implements Serializable {
      * @param user El usuario a registrar.
      */
     private void altaUsuario(Usuario user) {
-        usuarios.addElement(user);
+        usuarios.add(user);
+        getUsuariosPorDni().put(user.getDni(), user);
+    }
+
+    /**
+     * Construye los índices de usuarios y cursos si todavía no fueron
+     * construidos desde que se cargó el instituto.
+     */
+    void construirIndices() {
+        getUsuariosPorDni();
+        getIndiceCursos();
+    }
+
+    /**
+     * Busca un usuario del instituto por su DNI.
+     *
+     * @param dni El DNI del usuario.
+     * @return El usuario encontrado, o null si no existe.
+     */
+    public Usuario buscarPorDni(String dni) {
+        return getUsuariosPorDni().get(dni);
+    }
+
+    /**
+     * Obtiene el índice de usuarios por DNI. Como el índice no se guarda junto
+     * con los datos, se reconstruye a partir de la lista de usuarios la primera
+     * vez que se utiliza luego de cargar el instituto.
+     *
+     * @return El índice de usuarios por DNI.
+     */
+    private MapaDni<Usuario> getUsuariosPorDni() {
+        if (usuariosPorDni == null) {
+            usuariosPorDni = new MapaDni<>(usuarios.size());
+            for (int i = 0; i < usuarios.size(); i++) {
+                Usuario user = usuarios.get(i);
+                usuariosPorDni.put(user.getDni(), user);
+            }
+        }
+        return usuariosPorDni;
     }
 
     /**
@@ -69,93 +146,120 @@ public class Instituto implements Serializable {
      * @param curso El curso a registrar.
      */
     public void altaCurso(Curso curso) {
-        cursos.addElement(curso);
+        IndiceCursos indice = getIndiceCursos();
+        cursos.add(curso);
+        indice.agregar(curso, cursos.size() - 1);
+    }
+
+    /**
+     * Obtiene el índice de cursos por estado. Como el índice no se guarda
+     * junto con los datos, se reconstruye a partir del catálogo la primera vez
+     * que se utiliza luego de cargar el instituto.
+     *
+     * @return El índice de cursos por estado.
+     */
+    private IndiceCursos getIndiceCursos() {
+        if (indiceCursos == null) {
+            indiceCursos = new IndiceCursos();
+            for (int i = 0; i < cursos.size(); i++) {
+                indiceCursos.agregar(cursos.get(i), i);
+            }
+        }
+        return indiceCursos;
     }
 
     /**
-     * Obtiene la lista de usuarios registrados en el instituto.
+     * Obtiene la lista de usuarios registrados en el instituto, que no puede
+     * modificarse.
      *
      * @return La lista de usuarios del instituto.
      */
-    public DefaultListModel<Usuario> getUsuarios() {
-        return usuarios;
+    public List<Usuario> getUsuarios() {
+        return Collections.unmodifiableList(usuarios);
     }
 
     /**
-     * Obtiene la lista de cursos ofrecidos por el instituto.
+     * Obtiene la lista de cursos ofrecidos por el instituto, que no puede
+     * modificarse.
      *
      * @return La lista de cursos del instituto.
      */
-    public DefaultListModel<Curso> getCursos() {
-        return cursos;
+    public List<Curso> getCursos() {
+        return Collections.unmodifiableList(cursos);
     }
 
     /**
-     * Filtra y devuelve la lista de cursos del instituto según su estado.
+     * Filtra y devuelve la lista de cursos del instituto según su estado. Los
+     * cursos se obtienen del índice por estado, por lo que el costo depende de
+     * la cantidad de cursos encontrados y no del tamaño del catálogo.
      *
      * @param estado El estado de los cursos a filtrar.
      * @return La lista de cursos filtrada por estado.
      */
-    public DefaultListModel<Curso> getCursosPorEstado(String estado) {
-        DefaultListModel<Curso> cursosPorEstado = new DefaultListModel<>();
-        int i = 0;
+    public List<Curso> getCursosPorEstado(EstadoCurso estado) {
+        return new ArrayList<>(getIndiceCursos().getCursos(estado));
+    }
 
-        while (i < cursos.size()) {
-            Curso curso = cursos.getElementAt(i);
-            if (curso.getEstadoCurso().equals(estado)) {
-                cursosPorEstado.addElement(curso);
-            }
-            i++;
-        }
-        return cursosPorEstado;
+    /**
+     * Filtra y devuelve la lista de cursos del instituto según el docente y el
+     * estado especificados.
+     *
+     * @param usuarioLogeado El docente logeado en el sistema.
+     * @param filtro El estado a filtrar.
+     * @return La lista de cursos filtrada por docente y estado.
+     */
+    public List<Curso> filtrarCursosPorDocente(Docente usuarioLogeado, EstadoCurso filtro) {
+        return filtrarCursosPorDocente(usuarioLogeado, filtro, filtro);
     }
 
     /**
      * Filtra y devuelve la lista de cursos del instituto según el docente y los
-     * estados especificados.
+     * estados especificados. Los cursos se obtienen del índice de cursos de
+     * cada docente, por lo que el costo depende de la cantidad de cursos del
+     * docente y no del tamaño del catálogo.
      *
      * @param usuarioLogeado El docente logeado en el sistema.
      * @param filtro1 El primer estado a filtrar.
      * @param filtro2 El segundo estado a filtrar.
      * @return La lista de cursos filtrada por docente y estado.
      */
-    public DefaultListModel<Curso> filtrarCursosPorDocente(Docente usuarioLogeado, String filtro1, String filtro2) {
-        DefaultListModel<Curso> cursosPorDocente = new DefaultListModel<>();
-        int i = 0;
+    public List<Curso> filtrarCursosPorDocente(Docente usuarioLogeado, EstadoCurso filtro1, EstadoCurso filtro2) {
+        List<Curso> cursosPorDocente = new ArrayList<>();
+        Iterator<Curso> primero = getIndiceCursos().getCursos(usuarioLogeado, filtro1).iterator();
+        Iterator<Curso> segundo = filtro2 == filtro1 ? Collections.<Curso>emptyIterator()
+                : getIndiceCursos().getCursos(usuarioLogeado, filtro2).iterator();
+        Curso siguiente1 = primero.hasNext() ? primero.next() : null;
+        Curso siguiente2 = segundo.hasNext() ? segundo.next() : null;
 
-        while (i < cursos.size()) {
-            Curso curso = cursos.getElementAt(i);
-            if (curso.getDocente().getDni().equals(usuarioLogeado.getDni())) {
-                if ((curso.getEstadoCurso().equals(filtro1)) || (curso.getEstadoCurso().equals(filtro2))) {
-                    cursosPorDocente.addElement(curso);
-                }
+        // Se intercalan ambos estados respetando el orden del catálogo
+        while (siguiente1 != null || siguiente2 != null) {
+            if (siguiente2 == null || (siguiente1 != null && siguiente1.getPosicionIndice() < siguiente2.getPosicionIndice())) {
+                cursosPorDocente.add(siguiente1);
+                siguiente1 = primero.hasNext() ? primero.next() : null;
+            } else {
+                cursosPorDocente.add(siguiente2);
+                siguiente2 = segundo.hasNext() ? segundo.next() : null;
             }
-            i++;
         }
         return cursosPorDocente;
     }
 
     /**
      * Filtra y devuelve la lista de cursos disponibles según el alumno logeado
-     * para la inscripción.
+     * para la inscripción. Solo se recorren los cursos habilitados cuyos
+     * requisitos el alumno cumple, obtenidos del índice de cursos, y se
+     * descartan en tiempo constante los que ya cursa o aprobó.
      *
      * @param usuarioLogeado El alumno logeado en el sistema.
      * @return La lista de cursos filtrada por alumno.
      */
-    public DefaultListModel<Curso> filtrarCursosPorAlumno(Alumno usuarioLogeado) {
-        DefaultListModel<Curso> cursosPorAlumno = new DefaultListModel<>();
-        int i = 0;
-
-        while (i < cursos.size()) {
-            Curso curso = cursos.getElementAt(i);
-            // Verificar si el curso está habilitado y el alumno cumple con los requisitos
-            if ("Habilitado".equals(curso.getEstadoCurso()) && usuarioLogeado.totalCursosAprobados() >= curso.getCursosRequeridos()) {
-                // Verificar si el curso no está en las listas de cursos inscriptos o cursos aprobados del alumno
-                if (!usuarioLogeado.getCursosInscriptos().contains(curso) && !usuarioLogeado.getCursosAprobados().contains(curso)) {
-                    cursosPorAlumno.addElement(curso);
-                }
+    public List<Curso> filtrarCursosPorAlumno(Alumno usuarioLogeado) {
+        List<Curso> cursosPorAlumno = new ArrayList<>();
+        for (Curso curso : getIndiceCursos().getHabilitados(usuarioLogeado.totalCursosAprobados())) {
+            // Verificar si el curso no está en las listas de cursos inscriptos o cursos aprobados del alumno
+            if (!usuarioLogeado.estaInscriptoOAprobado(curso)) {
+                cursosPorAlumno.add(curso);
             }
-            i++;
         }
         return cursosPorAlumno;
     }
@@ -190,43 +294,479 @@ public class Instituto implements Serializable {
     }
 
     /**
-     * Serializa el objeto Instituto y lo guarda en un archivo con el nombre
-     * proporcionado.
+     * Modifica el estado y el tope de alumnos de un curso. Si el curso queda
+     * habilitado y no tiene una cursada activa, se da de alta una nueva. Si
+     * queda habilitado con lugares libres, se inscriben los alumnos de la
+     * lista de espera.
+     *
+     * @param curso El curso a modificar.
+     * @param estado El nuevo estado del curso.
+     * @param topeAlumnos El nuevo límite de alumnos del curso.
+     * @return Los alumnos inscriptos desde la lista de espera.
+     * @throws TransicionEstadoInvalidaException Si el curso no puede pasar de
+     * su estado actual al indicado; en ese caso el curso no se modifica.
+     */
+    public List<Alumno> modificarCurso(Curso curso, EstadoCurso estado, int topeAlumnos) throws TransicionEstadoInvalidaException {
+        curso.setEstadoCurso(estado);
+        curso.setTopeAlumnos(topeAlumnos);
+        if (estado == EstadoCurso.HABILITADO && curso.getCursadaActiva() == null) {
+            curso.altaCursada(curso.getDocente());
+        }
+        List<Alumno> promovidos = curso.promoverListaEspera();
+        for (Alumno alumno : promovidos) {
+            alumno.agregarCursoInscripto(curso);
+        }
+        return promovidos;
+    }
+
+    /**
+     * Inscribe a un alumno en un curso, agregando al alumno en la cursada
+     * activa del curso y, si obtuvo un lugar, el curso a su lista de
+     * inscriptos.
+     *
+     * @param alumno El alumno que se inscribe.
+     * @param curso El curso en el que se inscribe.
+     * @return true si el alumno quedó inscripto, false si el curso no está
+     * habilitado o no tiene lugar.
+     */
+    public boolean inscribirAlumno(Alumno alumno, Curso curso) {
+        if (!curso.inscribirAlumno(alumno)) {
+            return false;
+        }
+        alumno.agregarCursoInscripto(curso);
+        return true;
+    }
+
+    /**
+     * Inscribe a un alumno en un curso si cumple las condiciones de
+     * inscripción: que el curso esté habilitado o cerrado, que el alumno haya
+     * aprobado los cursos requeridos y que no lo curse ni lo haya aprobado. Si
+     * el curso no tiene lugar porque completó su cupo, el alumno queda en la
+     * lista de espera de la cursada.
+     *
+     * @param alumno El alumno que se inscribe.
+     * @param curso El curso en el que se inscribe.
+     * @return El resultado de la inscripción.
+     */
+    public ResultadoInscripcion solicitarInscripcion(Alumno alumno, Curso curso) {
+        EstadoCurso estado = curso.getEstadoCurso();
+        Cursada cursada = curso.getCursadaActiva();
+        if ((estado != EstadoCurso.HABILITADO && estado != EstadoCurso.CERRADO)
+                || cursada == null
+                || alumno.totalCursosAprobados() < curso.getCursosRequeridos()
+                || alumno.estaInscriptoOAprobado(curso)) {
+            return ResultadoInscripcion.NO_ELEGIBLE;
+        }
+        if (cursada.estaEnEspera(alumno)) {
+            return ResultadoInscripcion.EN_ESPERA;
+        }
+        if (estado == EstadoCurso.HABILITADO && inscribirAlumno(alumno, curso)) {
+            return ResultadoInscripcion.ACEPTADO;
+        }
+        if (cursada.getCantidadAlumnos() >= curso.getTopeAlumnos()) {
+            anotarEnListaEspera(alumno, curso);
+            return ResultadoInscripcion.EN_ESPERA;
+        }
+        return ResultadoInscripcion.COMPLETO;
+    }
+
+    /**
+     * Anota a un alumno en la lista de espera de la cursada activa de un
+     * curso.
+     *
+     * @param alumno El alumno que espera un lugar.
+     * @param curso El curso completo.
+     */
+    public void anotarEnListaEspera(Alumno alumno, Curso curso) {
+        curso.getCursadaActiva().agregarEnEspera(alumno);
+    }
+
+    /**
+     * Califica a un alumno inscripto en la cursada activa de un curso.
+     *
+     * @param curso El curso que se califica.
+     * @param alumno El alumno calificado.
+     * @param calificacion La calificación del alumno.
+     * @return true si se calificó, false si el curso no tiene una cursada
+     * activa o el alumno no está inscripto en ella.
+     */
+    public boolean calificar(Curso curso, Alumno alumno, Calificacion calificacion) {
+        Cursada cursada = curso.getCursadaActiva();
+        return cursada != null && cursada.calificar(alumno, calificacion);
+    }
+
+    /**
+     * Finaliza la cursada activa de un curso. Los alumnos aprobados suman el
+     * curso a sus cursos aprobados y todos los alumnos lo quitan de sus cursos
+     * inscriptos. La cursada conserva la calificación final de cada alumno:
+     * aprobado si está entre los aprobados y desaprobado si no.
+     *
+     * @param curso El curso a finalizar.
+     * @param aprobados Los alumnos que aprobaron la cursada.
+     * @throws TransicionEstadoInvalidaException Si el curso no puede
+     * finalizarse desde su estado actual.
+     */
+    public void finalizarCurso(Curso curso, Collection<Alumno> aprobados) throws TransicionEstadoInvalidaException {
+        curso.setEstadoCurso(EstadoCurso.FINALIZADO);
+        Set<Alumno> alumnosAprobados = new HashSet<>(aprobados);
+        Cursada cursada = curso.getCursadaActiva();
+        for (Alumno alumno : cursada.getAlumnos()) {
+            if (alumnosAprobados.contains(alumno)) {
+                alumno.agregarCursoAprobado(curso);
+                cursada.calificar(alumno, Calificacion.APROBADO);
+            } else {
+                cursada.calificar(alumno, Calificacion.DESAPROBADO);
+            }
+            alumno.quitarCursoInscripto(curso);
+        }
+    }
+
+    /**
+     * Reinicia un curso finalizado, almacenando la cursada anterior y dando de
+     * alta una nueva a cargo del docente indicado.
+     *
+     * @param curso El curso a reiniciar.
+     * @param docente El docente a cargo de la nueva cursada.
+     * @throws TransicionEstadoInvalidaException Si el curso no está
+     * finalizado.
+     */
+    public void reiniciarCurso(Curso curso, Docente docente) throws TransicionEstadoInvalidaException {
+        curso.reiniciarCursada(docente);
+    }
+
+    /**
+     * Establece el registro donde se anotan las operaciones realizadas sobre
+     * el instituto.
+     *
+     * @param registro El registro de operaciones a utilizar.
+     */
+    public void setRegistroOperaciones(RegistroOperaciones registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Establece el destino de los errores al guardar el instituto. Si no se
+     * establece, los errores se muestran en un cuadro de diálogo.
+     *
+     * @param informador El destino de los errores.
+     */
+    public void setInformadorErrores(InformadorErrores informador) {
+        this.informador = informador;
+    }
+
+    /**
+     * Obtiene la secuencia de la última operación incluida en el estado del
+     * instituto.
+     *
+     * @return La secuencia de la última operación aplicada.
+     */
+    public long getUltimaOperacion() {
+        return ultimaOperacion;
+    }
+
+    /**
+     * Registra una operación ya realizada sobre el instituto. Si no hay un
+     * registro de operaciones configurado se guarda el instituto completo en
+     * el archivo de datos. La secuencia se asigna y la operación se entrega al
+     * registro de forma atómica, para que el journal quede en orden de
+     * secuencia aunque se registren operaciones desde varios hilos.
+     *
+     * @param tipo El tipo de operación realizada.
+     * @param datos Los datos necesarios para volver a aplicar la operación.
+     */
+    public synchronized void registrarOperacion(TipoOperacion tipo, String... datos) {
+        if (registro == null) {
+            serializarInstituto("instituto.dat");
+            return;
+        }
+        ultimaOperacion++;
+        registro.registrar(ultimaOperacion, tipo, datos);
+    }
+
+    /**
+     * Vuelve a aplicar una operación leída del journal. Las operaciones cuya
+     * secuencia ya está incluida en el estado del instituto se ignoran.
+     *
+     * @param secuencia La secuencia de la operación.
+     * @param tipo El tipo de operación.
+     * @param datos Los datos registrados de la operación.
+     * @return true si la operación se aplicó, false si ya estaba incluida.
+     * @throws TransicionEstadoInvalidaException Si la operación registra un
+     * cambio de estado que no está permitido.
+     */
+    public boolean aplicarOperacion(long secuencia, TipoOperacion tipo, String[] datos) throws TransicionEstadoInvalidaException {
+        if (secuencia <= ultimaOperacion) {
+            return false;
+        }
+
+        switch (tipo) {
+            case ALTA_ALUMNO:
+                crearAlumno(datos[0], datos[1], datos[2]);
+                break;
+            case ALTA_DOCENTE:
+                crearDocente(datos[0], datos[1], datos[2]);
+                break;
+            case ALTA_CURSO:
+                altaCurso(crearCurso(datos[0], datos[1], Integer.parseInt(datos[2]), (Docente) buscarPorDni(datos[3])));
+                break;
+            case MODIFICAR_CURSO:
+                modificarCurso(buscarCurso(datos[0]), EstadoCurso.desdeNombre(datos[1]), Integer.parseInt(datos[2]));
+                break;
+            case CAMBIO_ESTADO_CURSO:
+                buscarCurso(datos[0]).setEstadoCurso(EstadoCurso.desdeNombre(datos[1]));
+                break;
+            case INSCRIPCION:
+                inscribirAlumno((Alumno) buscarPorDni(datos[0]), buscarCurso(datos[1]));
+                break;
+            case LISTA_ESPERA:
+                anotarEnListaEspera((Alumno) buscarPorDni(datos[0]), buscarCurso(datos[1]));
+                break;
+            case FINALIZAR_CURSO:
+                List<Alumno> aprobados = new ArrayList<>();
+                for (int i = 1; i < datos.length; i++) {
+                    aprobados.add((Alumno) buscarPorDni(datos[i]));
+                }
+                finalizarCurso(buscarCurso(datos[0]), aprobados);
+                break;
+            case CALIFICACION:
+                Curso calificado = buscarCurso(datos[0]);
+                for (int i = 1; i + 1 < datos.length; i += 2) {
+                    calificar(calificado, (Alumno) buscarPorDni(datos[i]), Calificacion.desdeNombre(datos[i + 1]));
+                }
+                break;
+            case REINICIAR_CURSO:
+                reiniciarCurso(buscarCurso(datos[0]), (Docente) buscarPorDni(datos[1]));
+                break;
+            case CAMBIO_PASSWORD:
+                buscarPorDni(datos[0]).establecerPassword(datos[1], datos.length > 2 ? Long.parseLong(datos[2]) : 0);
+                break;
+            case BLANQUEO_PASSWORD:
+                buscarPorDni(datos[0]).blanquearPassword();
+                break;
+            case SUSPENSION:
+                buscarPorDni(datos[0]).suspenderUsuario();
+                break;
+            case REACTIVACION:
+                buscarPorDni(datos[0]).reactivarUsuario();
+                break;
+            default:
+                break;
+        }
+        ultimaOperacion = secuencia;
+        return true;
+    }
+
+    /**
+     * Busca un curso del instituto por su posición en el listado de cursos.
+     *
+     * @param posicion La posición del curso, tal como fue registrada.
+     * @return El curso encontrado.
+     */
+    private Curso buscarCurso(String posicion) {
+        return cursos.get(Integer.parseInt(posicion));
+    }
+
+    /**
+     * Obtiene la posición de un curso en el listado de cursos del instituto.
+     * Como los cursos nunca se eliminan, la posición identifica al curso en
+     * las operaciones registradas. Se toma la que el curso guarda al
+     * agregarse al índice, sin recorrer el listado.
+     *
+     * @param curso El curso buscado.
+     * @return La posición del curso, o -1 si no pertenece al instituto.
+     */
+    public int getPosicionCurso(Curso curso) {
+        getIndiceCursos();
+        int posicion = curso.getPosicionIndice();
+        return posicion >= 0 && posicion < cursos.size() && cursos.get(posicion) == curso ? posicion : -1;
+    }
+
+    /**
+     * Escribe el instituto en el formato binario: la secuencia de la última
+     * operación incluida, los usuarios, el administrador, los cursos y por
+     * último los cursos aprobados e inscriptos de cada alumno, que referencian
+     * a los cursos ya escritos.
+     *
+     * @param salida El flujo de escritura del formato binario.
+     * @throws IOException Si algún objeto referenciado no pertenece al
+     * instituto.
+     */
+    void escribir(CodecInstituto.Salida salida) throws IOException {
+        salida.escribirLong(ultimaOperacion);
+
+        salida.escribirVarInt(usuarios.size());
+        for (int i = 0; i < usuarios.size(); i++) {
+            Usuario user = usuarios.get(i);
+            salida.registrarReferencia(user, i);
+            user.escribir(salida);
+        }
+        salida.escribirReferencia(admin);
+
+        salida.escribirVarInt(cursos.size());
+        for (int i = 0; i < cursos.size(); i++) {
+            salida.registrarReferencia(cursos.get(i), i);
+        }
+        for (int i = 0; i < cursos.size(); i++) {
+            cursos.get(i).escribir(salida);
+        }
+
+        for (int i = 0; i < usuarios.size(); i++) {
+            if (usuarios.get(i) instanceof Alumno) {
+                ((Alumno) usuarios.get(i)).escribirCursos(salida);
+            }
+        }
+    }
+
+    /**
+     * Lee un instituto desde el formato binario.
+     *
+     * @param entrada El flujo de lectura del formato binario.
+     * @return El instituto leído.
+     * @throws IOException Si los datos están dañados.
+     */
+    static Instituto leer(CodecInstituto.Entrada entrada) throws IOException {
+        Instituto instituto = new Instituto(entrada.leerLong());
+
+        int cantidadUsuarios = entrada.leerVarInt();
+        for (int i = 0; i < cantidadUsuarios; i++) {
+            Usuario user = Usuario.leer(entrada);
+            entrada.usuarios.add(user);
+            instituto.altaUsuario(user);
+        }
+        instituto.admin = (Administrador) entrada.leerUsuario();
+
+        int cantidadCursos = entrada.leerVarInt();
+        for (int i = 0; i < cantidadCursos; i++) {
+            Curso curso = Curso.leer(entrada);
+            entrada.cursos.add(curso);
+            instituto.altaCurso(curso);
+        }
+
+        for (int i = 0; i < cantidadUsuarios; i++) {
+            if (entrada.usuarios.get(i) instanceof Alumno) {
+                ((Alumno) entrada.usuarios.get(i)).leerCursos(entrada);
+            }
+        }
+        return instituto;
+    }
+
+    /**
+     * Guarda el objeto Instituto en un archivo con el nombre proporcionado,
+     * utilizando el formato binario del instituto.
      *
      * @param nombreArchivo El nombre del archivo donde se guardará el
      * Instituto.
      */
     public void serializarInstituto(String nombreArchivo) {
-        try (ObjectOutputStream salida = new ObjectOutputStream(new FileOutputStream(nombreArchivo))) {
-            salida.writeObject(this);
+        try (FileOutputStream salida = new FileOutputStream(nombreArchivo)) {
+            salida.write(CodecInstituto.codificar(this));
         } catch (IOException e) {
-            JOptionPane.showMessageDialog(null, "Error al guardar los datos");
+            (informador != null ? informador : InformadorErrores.DIALOGO).informar("Error al guardar los datos", e);
         }
     }
 
     /**
-     * Deserializa un objeto Instituto desde un archivo con el nombre
-     * proporcionado.
+     * Codifica el objeto Instituto en memoria con el formato binario. Quien lo
+     * invoca debe asegurarse de que no se modifique el instituto mientras se
+     * toma la copia.
+     *
+     * @return Los bytes del Instituto codificado.
+     * @throws IOException Si ocurre un error durante la codificación.
+     */
+    public byte[] capturarEstado() throws IOException {
+        return CodecInstituto.codificar(this);
+    }
+
+    /**
+     * Recupera un objeto Instituto desde un archivo con el nombre
+     * proporcionado. Acepta tanto el formato binario como la serialización por
+     * defecto de Java de las versiones anteriores.
      *
      * @param nombreArchivo El nombre del archivo desde donde se leerá el
      * Instituto.
-     * @return El Instituto deserializado, o null si ocurre un error.
-     * @throws FileNotFoundException Si no se encuentra el archivo especificado.
-     * @throws IOException Si ocurre un error de entrada o salida durante la
-     * deserialización.
-     * @throws ClassNotFoundException Si la clase del objeto deserializado no se
-     * encuentra.
+     * @return El Instituto recuperado, o null si ocurre un error, que se
+     * muestra en un cuadro de diálogo.
      */
     public static Instituto deserializarInstituto(String nombreArchivo) {
+        return deserializarInstituto(nombreArchivo, InformadorErrores.DIALOGO);
+    }
+
+    /**
+     * Recupera un objeto Instituto desde un archivo con el nombre
+     * proporcionado, informando los errores al destino indicado.
+     *
+     * @param nombreArchivo El nombre del archivo desde donde se leerá el
+     * Instituto.
+     * @param informador El destino de los errores.
+     * @return El Instituto recuperado, o null si ocurre un error.
+     */
+    public static Instituto deserializarInstituto(String nombreArchivo, InformadorErrores informador) {
         Instituto instituto = null;
-        try (ObjectInputStream entrada = new ObjectInputStream(new FileInputStream(nombreArchivo))) {
-            instituto = (Instituto) entrada.readObject();
+        try (FileInputStream entrada = new FileInputStream(nombreArchivo)) {
+            instituto = decodificar(entrada.readAllBytes());
         } catch (FileNotFoundException e) {
-            JOptionPane.showMessageDialog(null, "El archivo " + nombreArchivo + " no se encontró.");
-        } catch (IOException | ClassNotFoundException e) {
-            JOptionPane.showMessageDialog(null, "Error al recuperar los datos");
+            informador.informar("El archivo " + nombreArchivo + " no se encontró.", e);
+        } catch (IOException e) {
+            informador.informar("Error al recuperar los datos", e);
+        }
+        if (instituto != null) {
+            instituto.setInformadorErrores(informador);
         }
         return instituto;
     }
 
+    /**
+     * Decodifica un Instituto a partir del contenido de un archivo de datos,
+     * detectando si está en el formato binario o en la serialización por
+     * defecto de Java de las versiones anteriores.
+     *
+     * @param datos El contenido del archivo.
+     * @return El Instituto decodificado.
+     * @throws IOException Si el contenido no corresponde a ninguno de los dos
+     * formatos o está dañado.
+     */
+    public static Instituto decodificar(byte[] datos) throws IOException {
+        if (CodecInstituto.esFormatoLegado(datos)) {
+            try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(datos))) {
+                return (Instituto) entrada.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Clase desconocida en el archivo de datos.", e);
+            }
+        }
+        return CodecInstituto.decodificar(ByteBuffer.wrap(datos));
+    }
+
+    /**
+     * Escribe el instituto con la serialización de Java, con las listas de
+     * usuarios y cursos como ArrayList.
+     *
+     * @param salida El flujo de salida.
+     * @throws IOException Si ocurre un error al escribir.
+     */
+    private void writeObject(ObjectOutputStream salida) throws IOException {
+        ObjectOutputStream.PutField campos = salida.putFields();
+        campos.put("usuarios", usuarios);
+        campos.put("cursos", cursos);
+        campos.put("admin", admin);
+        campos.put("ultimaOperacion", ultimaOperacion);
+        salida.writeFields();
+    }
+
+    /**
+     * Lee un instituto guardado con la serialización de Java, incluidos los
+     * de las versiones anteriores, convirtiendo sus listas.
+     *
+     * @param entrada El flujo de entrada.
+     * @throws IOException Si ocurre un error al leer.
+     * @throws ClassNotFoundException Si no se encuentra la clase de algún
+     * objeto leído.
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = entrada.readFields();
+        usuarios = CodecInstituto.leerListaLegada(campos.get("usuarios", null));
+        cursos = CodecInstituto.leerListaLegada(campos.get("cursos", null));
+        admin = (Administrador) campos.get("admin", null);
+        ultimaOperacion = campos.get("ultimaOperacion", 0L);
+    }
+
 }
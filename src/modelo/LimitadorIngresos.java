@@ -0,0 +1,271 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita los intentos de inicio de sesión por clave, que puede ser un DNI o
+ * el origen de los pedidos. Cada clave tiene un cubo de intentos que se
+ * recarga de a uno cada cierto tiempo hasta su capacidad; cada intento
+ * consume uno antes de verificar la contraseña, y los intentos exitosos lo
+ * devuelven, de modo que solo los fallidos agotan el cubo. Cuando una clave
+ * acumula una cantidad de fallos consecutivos queda bloqueada durante un
+ * tiempo que se duplica con cada bloqueo, hasta un máximo.
+ *
+ * Las claves se guardan en un mapa concurrente acotado: al llegar al máximo
+ * se olvidan las claves sin fallos ni bloqueos que no se usan desde hace más
+ * que el bloqueo máximo, y si no alcanza, las usadas hace más tiempo. Los
+ * contadores de intentos, rechazos, fallos y bloqueos permiten monitorear el
+ * limitador.
+ */
+public class LimitadorIngresos {
+
+    private final int capacidad;
+    private final long recargaNanos;
+    private final int fallosParaBloqueo;
+    private final long bloqueoInicialNanos;
+    private final long bloqueoMaximoNanos;
+    private final long olvidoNanos;
+    private final int maximoClaves;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final AtomicBoolean limpiando = new AtomicBoolean();
+    private final LongAdder intentos = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder bloqueos = new LongAdder();
+
+    /**
+     * Constructor de la clase LimitadorIngresos.
+     *
+     * @param capacidad La cantidad de intentos seguidos que admite una clave.
+     * @param recarga El tiempo en que una clave recupera un intento.
+     * @param fallosParaBloqueo La cantidad de fallos consecutivos que bloquean
+     * una clave.
+     * @param bloqueoInicial La duración del primer bloqueo de una clave.
+     * @param bloqueoMaximo La duración máxima de un bloqueo.
+     * @param unidad La unidad de los tiempos anteriores.
+     * @param maximoClaves La cantidad de claves que se recuerdan a la vez.
+     */
+    public LimitadorIngresos(int capacidad, long recarga, int fallosParaBloqueo, long bloqueoInicial, long bloqueoMaximo, TimeUnit unidad, int maximoClaves) {
+        if (capacidad < 1 || recarga < 1 || fallosParaBloqueo < 1 || bloqueoInicial < 1 || bloqueoMaximo < bloqueoInicial || maximoClaves < 1) {
+            throw new IllegalArgumentException("Parámetros del limitador de ingresos inválidos.");
+        }
+        this.capacidad = capacidad;
+        this.recargaNanos = unidad.toNanos(recarga);
+        this.fallosParaBloqueo = fallosParaBloqueo;
+        this.bloqueoInicialNanos = unidad.toNanos(bloqueoInicial);
+        this.bloqueoMaximoNanos = unidad.toNanos(bloqueoMaximo);
+        this.olvidoNanos = Math.max(bloqueoMaximoNanos, capacidad * recargaNanos);
+        this.maximoClaves = maximoClaves;
+    }
+
+    /**
+     * Consume un intento de la clave si no está bloqueada y le quedan
+     * intentos.
+     *
+     * @param clave La clave del intento.
+     * @return 0 si el intento se permite, o los nanosegundos que faltan para
+     * que se permita.
+     */
+    public long consumir(String clave) {
+        intentos.increment();
+        long ahora = System.nanoTime();
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            limpiarSiHaceFalta(ahora);
+            entrada = entradas.computeIfAbsent(clave, c -> new Entrada(ahora));
+        }
+        long espera = entrada.consumir(ahora);
+        if (espera > 0) {
+            rechazados.increment();
+        }
+        return espera;
+    }
+
+    /**
+     * Devuelve un intento consumido que no llegó a verificarse.
+     *
+     * @param clave La clave del intento.
+     */
+    public void devolver(String clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null) {
+            entrada.devolver(System.nanoTime(), false);
+        }
+    }
+
+    /**
+     * Registra un intento exitoso: devuelve el intento consumido y reinicia
+     * los fallos consecutivos y la duración de los bloqueos de la clave.
+     *
+     * @param clave La clave del intento.
+     */
+    public void registrarExito(String clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada != null) {
+            entrada.devolver(System.nanoTime(), true);
+        }
+    }
+
+    /**
+     * Registra un intento fallido, que puede bloquear la clave.
+     *
+     * @param clave La clave del intento.
+     */
+    public void registrarFallo(String clave) {
+        fallos.increment();
+        long ahora = System.nanoTime();
+        if (entradas.computeIfAbsent(clave, c -> new Entrada(ahora)).registrarFallo(ahora)) {
+            bloqueos.increment();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de intentos consultados.
+     *
+     * @return La cantidad de intentos.
+     */
+    public long getIntentos() {
+        return intentos.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de intentos rechazados por falta de intentos o por
+     * bloqueo.
+     *
+     * @return La cantidad de intentos rechazados.
+     */
+    public long getRechazados() {
+        return rechazados.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de intentos fallidos registrados.
+     *
+     * @return La cantidad de fallos.
+     */
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de bloqueos aplicados.
+     *
+     * @return La cantidad de bloqueos.
+     */
+    public long getBloqueos() {
+        return bloqueos.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de claves que se recuerdan actualmente.
+     *
+     * @return La cantidad de claves.
+     */
+    public int getClaves() {
+        return entradas.size();
+    }
+
+    /**
+     * Mantiene el mapa por debajo del máximo de claves antes de agregar una.
+     * Solo un hilo limpia a la vez; mientras tanto los demás pueden agregar
+     * claves por encima del máximo.
+     */
+    private void limpiarSiHaceFalta(long ahora) {
+        if (entradas.size() < maximoClaves || !limpiando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entradas.values().removeIf(entrada -> entrada.olvidable(ahora));
+            if (entradas.size() >= maximoClaves) {
+                List<Map.Entry<String, Entrada>> antiguas = new ArrayList<>(entradas.entrySet());
+                antiguas.sort(Comparator.comparingLong(e -> e.getValue().ultimoUso - ahora));
+                int sobrantes = entradas.size() - maximoClaves * 9 / 10;
+                for (int i = 0; i < sobrantes && i < antiguas.size(); i++) {
+                    entradas.remove(antiguas.get(i).getKey(), antiguas.get(i).getValue());
+                }
+            }
+        } finally {
+            limpiando.set(false);
+        }
+    }
+
+    /**
+     * Estado de una clave: los intentos disponibles, los fallos consecutivos
+     * y el bloqueo vigente.
+     */
+    private final class Entrada {
+
+        private double disponibles;
+        private long ultimaRecarga;
+        private int fallosConsecutivos;
+        private int bloqueosPrevios;
+        private boolean bloqueada;
+        private long bloqueadaHasta;
+        private volatile long ultimoUso;
+
+        private Entrada(long ahora) {
+            this.disponibles = capacidad;
+            this.ultimaRecarga = ahora;
+            this.ultimoUso = ahora;
+        }
+
+        private synchronized long consumir(long ahora) {
+            ultimoUso = ahora;
+            if (bloqueada && ahora - bloqueadaHasta < 0) {
+                return bloqueadaHasta - ahora;
+            }
+            bloqueada = false;
+            recargar(ahora);
+            if (disponibles < 1) {
+                return Math.max(1, (long) ((1 - disponibles) * recargaNanos));
+            }
+            disponibles--;
+            return 0;
+        }
+
+        private synchronized void devolver(long ahora, boolean exito) {
+            recargar(ahora);
+            disponibles = Math.min(capacidad, disponibles + 1);
+            if (exito) {
+                fallosConsecutivos = 0;
+                bloqueosPrevios = 0;
+            }
+        }
+
+        /**
+         * Registra un fallo y devuelve true si con él la clave quedó
+         * bloqueada.
+         */
+        private synchronized boolean registrarFallo(long ahora) {
+            ultimoUso = ahora;
+            if (++fallosConsecutivos < fallosParaBloqueo) {
+                return false;
+            }
+            long duracion = bloqueoInicialNanos << Math.min(bloqueosPrevios, 30);
+            if (duracion <= 0 || duracion > bloqueoMaximoNanos) {
+                duracion = bloqueoMaximoNanos;
+            }
+            bloqueada = true;
+            bloqueadaHasta = ahora + duracion;
+            bloqueosPrevios++;
+            fallosConsecutivos = 0;
+            return true;
+        }
+
+        private void recargar(long ahora) {
+            disponibles = Math.min(capacidad, disponibles + (double) (ahora - ultimaRecarga) / recargaNanos);
+            ultimaRecarga = ahora;
+        }
+
+        private synchronized boolean olvidable(long ahora) {
+            return !(bloqueada && ahora - bloqueadaHasta < 0) && fallosConsecutivos == 0 && ahora - ultimoUso > olvidoNanos;
+        }
+    }
+}
@@ -1,41 +1,271 @@
 package modelo;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 /**
- * Clase que proporciona métodos para generar un hash seguro a partir de una 
- * cadena de texto utilizando el algoritmo SHA-256.
+ * Clase que proporciona métodos para generar y verificar los hashes de las
+ * contraseñas de los usuarios.
+ *
+ * Las contraseñas elegidas por los usuarios se derivan con
+ * PBKDF2WithHmacSHA256, con una sal aleatoria por contraseña y una cantidad
+ * de iteraciones configurable con la propiedad del sistema
+ * instituto.password.iteraciones. El resultado se almacena como
+ * pbkdf2-sha256$iteraciones$sal$hash, con la sal y el hash en Base64, de modo
+ * que cada hash conserva el costo con el que se calculó.
+ *
+ * La contraseña inicial y la blanqueada, iguales al DNI, se siguen guardando
+ * como SHA-256 sin sal en hexadecimal, igual que todas las contraseñas de
+ * los datos anteriores: el DNI no es secreto, por lo que derivarlo con un
+ * costo alto solo encarecería el alta de usuarios. Los métodos verificar
+ * aceptan ambos formatos, y requiereActualizacion indica qué hashes conviene
+ * recalcular cuando el usuario ingresa su contraseña.
+ *
+ * Cada hilo reutiliza su propia instancia de MessageDigest. El texto se
+ * codifica siempre en UTF-8, y la comparación con el hash almacenado recorre
+ * siempre todos los bytes, sin construir cadenas intermedias.
  */
 public class PassHasher {
 
+    private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+    private static final String PREFIJO_PBKDF2 = "pbkdf2-sha256$";
+    private static final int BYTES_SAL = 16;
+    private static final int BITS_HASH = 256;
+    private static final int ITERACIONES_PREDETERMINADAS = 600_000;
+    private static final SecureRandom SAL = new SecureRandom();
+
+    /**
+     * Cantidad de iteraciones con la que se derivan las contraseñas nuevas.
+     */
+    public static final int ITERACIONES = Math.max(1, Integer.getInteger("instituto.password.iteraciones", ITERACIONES_PREDETERMINADAS));
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Toda implementación de Java está obligada a incluir SHA-256
+            throw new IllegalStateException(e);
+        }
+    });
+
     /**
-     * Genera un hash seguro a partir de una cadena de texto utilizando el algoritmo SHA-256.
+     * Genera el hash SHA-256 sin sal de una cadena de texto. Se usa para la
+     * contraseña inicial, igual al DNI del usuario.
      * @param dni La cadena de texto a hashear.
-     * @return El hash resultante en formato hexadecimal, o null si ocurre un error.
+     * @return El hash resultante en formato hexadecimal.
      */
     public static String hash(String dni) {
+        return hexadecimal(digerir(dni.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Genera el hash SHA-256 sin sal de una contraseña recibida como arreglo
+     * de caracteres.
+     * @param password La contraseña a hashear.
+     * @return El hash resultante en formato hexadecimal.
+     */
+    public static String hash(char[] password) {
+        return hexadecimal(digerir(password));
+    }
+
+    /**
+     * Deriva el hash de una contraseña con PBKDF2, una sal aleatoria y la
+     * cantidad de iteraciones configurada. Es costoso a propósito.
+     * @param password La contraseña a derivar.
+     * @return El hash resultante, con su sal y su costo.
+     */
+    public static String derivar(char[] password) {
+        return derivar(password, ITERACIONES);
+    }
+
+    /**
+     * Deriva el hash de una contraseña con PBKDF2, una sal aleatoria y la
+     * cantidad de iteraciones indicada.
+     * @param password La contraseña a derivar.
+     * @param iteraciones La cantidad de iteraciones.
+     * @return El hash resultante, con su sal y su costo.
+     */
+    public static String derivar(char[] password, int iteraciones) {
+        byte[] sal = new byte[BYTES_SAL];
+        SAL.nextBytes(sal);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIJO_PBKDF2 + iteraciones + '$' + base64.encodeToString(sal) + '$'
+                + base64.encodeToString(pbkdf2(password, sal, iteraciones));
+    }
+
+    /**
+     * Indica si un hash almacenado conviene recalcularlo con derivar la
+     * próxima vez que el usuario ingrese su contraseña: los SHA-256 sin sal y
+     * los derivados con menos iteraciones que las configuradas.
+     * @param hashAlmacenado El hash almacenado.
+     * @return true si el hash debe recalcularse.
+     */
+    public static boolean requiereActualizacion(String hashAlmacenado) {
+        if (!hashAlmacenado.startsWith(PREFIJO_PBKDF2)) {
+            return true;
+        }
         try {
-            // Obtener una instancia de MessageDigest con el algoritmo SHA-256
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-
-            // Convertir el DNI a bytes y aplicar el hash
-            byte[] hashBytes = digest.digest(dni.getBytes());
-
-            // Convertir los bytes del hash a una representación hexadecimal
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+            return Integer.parseInt(hashAlmacenado.substring(PREFIJO_PBKDF2.length(), hashAlmacenado.indexOf('$', PREFIJO_PBKDF2.length()))) < ITERACIONES;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Indica si un hash almacenado es un SHA-256 sin sal.
+     * @param hashAlmacenado El hash almacenado.
+     * @return true si el hash no fue derivado con PBKDF2.
+     */
+    public static boolean esHashSimple(String hashAlmacenado) {
+        return !hashAlmacenado.startsWith(PREFIJO_PBKDF2);
+    }
+
+    /**
+     * Verifica si una contraseña corresponde al hash almacenado.
+     * @param password La contraseña a verificar.
+     * @param hashAlmacenado El hash almacenado, en formato hexadecimal.
+     * @return true si la contraseña corresponde al hash.
+     */
+    public static boolean verificar(String password, String hashAlmacenado) {
+        if (hashAlmacenado != null && hashAlmacenado.startsWith(PREFIJO_PBKDF2)) {
+            return verificar(password.toCharArray(), hashAlmacenado);
+        }
+        return verificar(password.getBytes(StandardCharsets.UTF_8), hashAlmacenado);
+    }
+
+    /**
+     * Verifica si una contraseña corresponde al hash almacenado.
+     * @param password La contraseña a verificar.
+     * @param hashAlmacenado El hash almacenado, en formato hexadecimal.
+     * @return true si la contraseña corresponde al hash.
+     */
+    public static boolean verificar(char[] password, String hashAlmacenado) {
+        if (hashAlmacenado != null && hashAlmacenado.startsWith(PREFIJO_PBKDF2)) {
+            return verificarDerivado(password, hashAlmacenado);
+        }
+        return coincide(digerir(password), hashAlmacenado);
+    }
+
+    /**
+     * Verifica si una contraseña codificada en UTF-8 corresponde al hash
+     * almacenado.
+     * @param password Los bytes UTF-8 de la contraseña a verificar.
+     * @param hashAlmacenado El hash almacenado, en formato hexadecimal.
+     * @return true si la contraseña corresponde al hash.
+     */
+    public static boolean verificar(byte[] password, String hashAlmacenado) {
+        if (hashAlmacenado != null && hashAlmacenado.startsWith(PREFIJO_PBKDF2)) {
+            CharBuffer caracteres = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(password));
+            char[] copia = new char[caracteres.remaining()];
+            caracteres.get(copia);
+            try {
+                return verificarDerivado(copia, hashAlmacenado);
+            } finally {
+                Arrays.fill(copia, '\0');
+                if (caracteres.hasArray()) {
+                    Arrays.fill(caracteres.array(), '\0');
+                }
             }
+        }
+        return coincide(digerir(password), hashAlmacenado);
+    }
 
-            // Retornar el hash como una cadena hexadecimal
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            // Manejar el caso en que el algoritmo no esté disponible
-            e.printStackTrace();
-            return null;
+    /**
+     * Verifica una contraseña contra un hash derivado con PBKDF2, usando la
+     * sal y el costo guardados en el propio hash. Un hash mal formado no
+     * corresponde a ninguna contraseña.
+     */
+    private static boolean verificarDerivado(char[] password, String hashAlmacenado) {
+        String[] partes = hashAlmacenado.substring(PREFIJO_PBKDF2.length()).split("\\$");
+        if (partes.length != 3) {
+            return false;
+        }
+        try {
+            Base64.Decoder base64 = Base64.getDecoder();
+            byte[] esperado = base64.decode(partes[2]);
+            return MessageDigest.isEqual(pbkdf2(password, base64.decode(partes[1]), Integer.parseInt(partes[0])), esperado);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] pbkdf2(char[] password, byte[] sal, int iteraciones) {
+        PBEKeySpec especificacion = new PBEKeySpec(password, sal, iteraciones, BITS_HASH);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(especificacion).getEncoded();
+        } catch (GeneralSecurityException e) {
+            // Toda implementación de Java desde la 8 incluye PBKDF2WithHmacSHA256
+            throw new IllegalStateException(e);
+        } finally {
+            especificacion.clearPassword();
+        }
+    }
+
+    private static byte[] digerir(byte[] bytes) {
+        return DIGEST.get().digest(bytes);
+    }
+
+    /**
+     * Codifica los caracteres en UTF-8 sobre un buffer propio, que se borra
+     * después de usarlo para no dejar copias de la contraseña en memoria.
+     */
+    private static byte[] digerir(char[] caracteres) {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(caracteres));
+        MessageDigest digest = DIGEST.get();
+        digest.update(bytes.duplicate());
+        if (bytes.hasArray()) {
+            Arrays.fill(bytes.array(), (byte) 0);
+        }
+        return digest.digest();
+    }
+
+    private static String hexadecimal(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[2 * i] = HEXADECIMAL[(bytes[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEXADECIMAL[bytes[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Compara el hash calculado con el almacenado en hexadecimal, recorriendo
+     * siempre todos los bytes para que el tiempo no dependa de la posición de
+     * la primera diferencia.
+     */
+    private static boolean coincide(byte[] calculado, String hashAlmacenado) {
+        if (hashAlmacenado == null || hashAlmacenado.length() != calculado.length * 2) {
+            return false;
+        }
+        int diferencia = 0;
+        for (int i = 0; i < calculado.length; i++) {
+            diferencia |= (calculado[i] & 0xff) ^ ((valorHexadecimal(hashAlmacenado.charAt(2 * i)) << 4)
+                    | valorHexadecimal(hashAlmacenado.charAt(2 * i + 1)));
+        }
+        return diferencia == 0;
+    }
+
+    /**
+     * Obtiene el valor de un dígito hexadecimal, o un valor fuera de rango si
+     * el carácter no lo es, de modo que la comparación falle.
+     */
+    private static int valorHexadecimal(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
         }
+        return 0x100;
     }
 }
@@ -0,0 +1,17 @@
+package modelo;
+
+/**
+ * Destino donde el instituto registra cada operación del dominio a medida que
+ * ocurre, para poder reconstruir su estado sin reescribir el archivo completo.
+ */
+public interface RegistroOperaciones {
+
+    /**
+     * Registra una operación realizada sobre el instituto.
+     *
+     * @param secuencia El número de secuencia asignado a la operación.
+     * @param tipo El tipo de operación realizada.
+     * @param datos Los datos necesarios para volver a aplicar la operación.
+     */
+    void registrar(long secuencia, TipoOperacion tipo, String... datos);
+}
@@ -0,0 +1,42 @@
+package modelo;
+
+/**
+ * Resultado de la solicitud de inscripción de un alumno en un curso.
+ */
+public enum ResultadoInscripcion {
+
+    /**
+     * El alumno quedó inscripto en el curso.
+     */
+    ACEPTADO("Aceptado"),
+    /**
+     * El curso cerró la inscripción antes de completar su cupo.
+     */
+    COMPLETO("Completo"),
+    /**
+     * El curso no tenía lugares libres y el alumno quedó en su lista de
+     * espera.
+     */
+    EN_ESPERA("En lista de espera"),
+    /**
+     * El curso no está habilitado, el alumno no cumple los cursos requeridos o
+     * ya cursa o aprobó el curso.
+     */
+    NO_ELEGIBLE("No elegible");
+
+    private final String nombre;
+
+    private ResultadoInscripcion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Obtiene el nombre del resultado, tal como se muestra al usuario.
+     *
+     * @return El nombre del resultado.
+     */
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
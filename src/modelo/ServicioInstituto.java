@@ -0,0 +1,1112 @@
+package modelo;
+
+import excepciones.CalificacionInvalidaException;
+import excepciones.ContraseñaInvalidaException;
+import excepciones.CuentaSuspendidaException;
+import excepciones.DemasiadosIntentosException;
+import excepciones.ExisteCursoException;
+import excepciones.ExisteUsuarioException;
+import excepciones.NoExisteUsuarioException;
+import excepciones.TransicionEstadoInvalidaException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fachada de operaciones sobre el instituto segura ante accesos concurrentes.
+ * Cada operación modifica el modelo y la registra en el journal de forma
+ * atómica.
+ *
+ * Las altas de usuarios y cursos, que modifican los listados y los índices del
+ * instituto, toman el cerrojo de escritura global. El resto de las operaciones
+ * toma el cerrojo de lectura global y además el cerrojo de la franja del curso
+ * y de los usuarios involucrados, de modo que las operaciones sobre cursos y
+ * usuarios distintos no se esperan entre sí. Para evitar bloqueos mutuos, los
+ * cerrojos de cursos se toman siempre antes que los de usuarios, y los de
+ * varias franjas en orden creciente.
+ *
+ * La copia del instituto para compactar el journal se toma con el cerrojo de
+ * escritura global, por lo que no incluye operaciones a medio aplicar.
+ */
+public class ServicioInstituto {
+
+    /**
+     * Origen de los inicios de sesión realizados desde la interfaz gráfica.
+     */
+    public static final String ORIGEN_LOCAL = "local";
+
+    private static final int FRANJAS = 64; // potencia de dos
+    private static final int VERIFICACIONES_EN_ESPERA = 256;
+    private static final long VIGENCIA_PASSWORD_MS = TimeUnit.DAYS.toMillis(Math.max(0, Long.getLong("instituto.password.vigenciaDias", 0)));
+
+    private final Instituto instituto;
+    private final ReentrantReadWriteLock estructura = new ReentrantReadWriteLock();
+    private final Lock[] cerrojosCursos = crearCerrojos();
+    private final Lock[] cerrojosUsuarios = crearCerrojos();
+    private ColaInscripciones colaInscripciones;
+    private VerificadorPasswords verificadorPasswords;
+    private final LimitadorIngresos limitadorPorDni;
+    private final LimitadorIngresos limitadorPorOrigen;
+
+    /**
+     * Constructor de la clase ServicioInstituto. Construye los índices del
+     * instituto para que las consultas concurrentes no los inicialicen a la
+     * vez. Los inicios de sesión se limitan a cinco intentos fallidos
+     * seguidos por DNI, que se recuperan de a uno cada doce segundos, y a
+     * sesenta por origen, que se recuperan de a uno por segundo. Cinco fallos
+     * consecutivos bloquean el DNI, y treinta el origen, durante treinta
+     * segundos, el doble en cada bloqueo siguiente y hasta quince minutos.
+     *
+     * @param instituto El instituto sobre el que se realizan las operaciones.
+     */
+    public ServicioInstituto(Instituto instituto) {
+        this(instituto,
+                new LimitadorIngresos(5, 12, 5, 30, 900, TimeUnit.SECONDS, 100_000),
+                new LimitadorIngresos(60, 1, 30, 30, 900, TimeUnit.SECONDS, 10_000));
+    }
+
+    /**
+     * Constructor de la clase ServicioInstituto con límites de inicio de
+     * sesión propios.
+     *
+     * @param instituto El instituto sobre el que se realizan las operaciones.
+     * @param limitadorPorDni El limitador de inicios de sesión por DNI.
+     * @param limitadorPorOrigen El limitador de inicios de sesión por origen.
+     */
+    public ServicioInstituto(Instituto instituto, LimitadorIngresos limitadorPorDni, LimitadorIngresos limitadorPorOrigen) {
+        this.instituto = instituto;
+        this.limitadorPorDni = limitadorPorDni;
+        this.limitadorPorOrigen = limitadorPorOrigen;
+        instituto.construirIndices();
+    }
+
+    /**
+     * Obtiene el limitador de inicios de sesión por DNI, para monitorearlo.
+     *
+     * @return El limitador por DNI.
+     */
+    public LimitadorIngresos getLimitadorPorDni() {
+        return limitadorPorDni;
+    }
+
+    /**
+     * Obtiene el limitador de inicios de sesión por origen, para
+     * monitorearlo.
+     *
+     * @return El limitador por origen.
+     */
+    public LimitadorIngresos getLimitadorPorOrigen() {
+        return limitadorPorOrigen;
+    }
+
+    /**
+     * Obtiene la cola de admisión de inscripciones del instituto, creándola la
+     * primera vez con un trabajador por procesador.
+     *
+     * @return La cola de inscripciones.
+     */
+    public synchronized ColaInscripciones getColaInscripciones() {
+        if (colaInscripciones == null) {
+            colaInscripciones = new ColaInscripciones(this, Runtime.getRuntime().availableProcessors());
+        }
+        return colaInscripciones;
+    }
+
+    /**
+     * Obtiene el verificador de contraseñas del instituto, creándolo la
+     * primera vez con un hilo cada dos procesadores, de modo que los inicios
+     * de sesión nunca ocupen todos los procesadores.
+     *
+     * @return El verificador de contraseñas.
+     */
+    public synchronized VerificadorPasswords getVerificadorPasswords() {
+        if (verificadorPasswords == null) {
+            verificadorPasswords = new VerificadorPasswords(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), VERIFICACIONES_EN_ESPERA);
+        }
+        return verificadorPasswords;
+    }
+
+    /**
+     * Busca un usuario del instituto por su DNI.
+     *
+     * @param dni El DNI del usuario.
+     * @return El usuario encontrado, o null si no existe.
+     */
+    public Usuario buscarPorDni(String dni) {
+        estructura.readLock().lock();
+        try {
+            return instituto.buscarPorDni(dni);
+        } finally {
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Autentica a un usuario con su DNI y su contraseña desde la interfaz
+     * local, esperando a que se verifique la contraseña. No debe invocarse
+     * desde la interfaz gráfica; para eso está autenticarAsync.
+     *
+     * @param dni El DNI del usuario.
+     * @param password La contraseña ingresada, sin cifrar.
+     * @return El usuario autenticado.
+     * @throws NoExisteUsuarioException Si no existe un usuario con el DNI.
+     * @throws ContraseñaInvalidaException Si la contraseña no coincide.
+     * @throws CuentaSuspendidaException Si la cuenta del usuario está
+     * suspendida.
+     * @throws DemasiadosIntentosException Si hubo demasiados intentos
+     * recientes para el DNI o desde el origen.
+     */
+    public Usuario autenticar(String dni, String password) throws NoExisteUsuarioException, ContraseñaInvalidaException, CuentaSuspendidaException, DemasiadosIntentosException {
+        return autenticar(dni, password, ORIGEN_LOCAL);
+    }
+
+    /**
+     * Autentica a un usuario con su DNI y su contraseña, esperando a que se
+     * verifique la contraseña. No debe invocarse desde la interfaz gráfica;
+     * para eso está autenticarAsync.
+     *
+     * @param dni El DNI del usuario.
+     * @param password La contraseña ingresada, sin cifrar.
+     * @param origen El origen del pedido, por ejemplo la dirección del
+     * cliente.
+     * @return El usuario autenticado.
+     * @throws NoExisteUsuarioException Si no existe un usuario con el DNI.
+     * @throws ContraseñaInvalidaException Si la contraseña no coincide.
+     * @throws CuentaSuspendidaException Si la cuenta del usuario está
+     * suspendida.
+     * @throws DemasiadosIntentosException Si hubo demasiados intentos
+     * recientes para el DNI o desde el origen.
+     */
+    public Usuario autenticar(String dni, String password, String origen) throws NoExisteUsuarioException, ContraseñaInvalidaException, CuentaSuspendidaException, DemasiadosIntentosException {
+        try {
+            return autenticarAsync(dni, password.toCharArray(), origen).join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof NoExisteUsuarioException) {
+                throw (NoExisteUsuarioException) causa;
+            } else if (causa instanceof ContraseñaInvalidaException) {
+                throw (ContraseñaInvalidaException) causa;
+            } else if (causa instanceof CuentaSuspendidaException) {
+                throw (CuentaSuspendidaException) causa;
+            } else if (causa instanceof DemasiadosIntentosException) {
+                throw (DemasiadosIntentosException) causa;
+            } else if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Autentica a un usuario con su DNI y su contraseña desde la interfaz
+     * local.
+     *
+     * @param dni El DNI del usuario.
+     * @param password La contraseña ingresada, sin cifrar. Se borra al
+     * terminar la verificación.
+     * @return El usuario autenticado, con los mismos errores que
+     * autenticarAsync con origen.
+     */
+    public CompletableFuture<Usuario> autenticarAsync(String dni, char[] password) {
+        return autenticarAsync(dni, password, ORIGEN_LOCAL);
+    }
+
+    /**
+     * Autentica a un usuario con su DNI y su contraseña. Antes de buscar al
+     * usuario y de verificar la contraseña se consultan los limitadores de
+     * inicios de sesión por DNI y por origen; los intentos fallidos, incluidos
+     * los de DNI inexistentes, se registran en ambos, y los exitosos
+     * devuelven el intento consumido.
+     *
+     * La contraseña se verifica en el verificador de contraseñas, sin tomar
+     * ningún cerrojo mientras tanto. Si es correcta y su hash es un SHA-256
+     * sin sal o fue derivado con menos iteraciones que las configuradas, se
+     * reemplaza por uno derivado con PBKDF2 y se registra en el journal. La
+     * contraseña inicial, igual al DNI, no se actualiza: el usuario debe
+     * cambiarla en este mismo ingreso.
+     *
+     * @param dni El DNI del usuario.
+     * @param password La contraseña ingresada, sin cifrar. Se borra al
+     * terminar la verificación.
+     * @param origen El origen del pedido, por ejemplo la dirección del
+     * cliente.
+     * @return El usuario autenticado. Se completa con
+     * DemasiadosIntentosException si hubo demasiados intentos recientes,
+     * NoExisteUsuarioException si no existe un usuario con el DNI,
+     * ContraseñaInvalidaException si la contraseña no coincide,
+     * CuentaSuspendidaException si la cuenta está suspendida o
+     * RejectedExecutionException si hay demasiadas verificaciones en espera.
+     */
+    public CompletableFuture<Usuario> autenticarAsync(String dni, char[] password, String origen) {
+        long espera = limitadorPorDni.consumir(dni);
+        if (espera == 0) {
+            espera = limitadorPorOrigen.consumir(origen);
+            if (espera > 0) {
+                limitadorPorDni.devolver(dni);
+            }
+        }
+        if (espera > 0) {
+            Arrays.fill(password, '\0');
+            return CompletableFuture.failedFuture(new DemasiadosIntentosException((espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+        }
+        return verificarIngreso(dni, password).whenComplete((usuario, ex) -> {
+            Throwable causa = ex instanceof CompletionException ? ex.getCause() : ex;
+            if (causa == null || causa instanceof CuentaSuspendidaException) {
+                limitadorPorDni.registrarExito(dni);
+                limitadorPorOrigen.registrarExito(origen);
+            } else if (causa instanceof NoExisteUsuarioException || causa instanceof ContraseñaInvalidaException) {
+                limitadorPorDni.registrarFallo(dni);
+                limitadorPorOrigen.registrarFallo(origen);
+            } else {
+                limitadorPorDni.devolver(dni);
+                limitadorPorOrigen.devolver(origen);
+            }
+        });
+    }
+
+    private CompletableFuture<Usuario> verificarIngreso(String dni, char[] password) {
+        Usuario usuario = buscarPorDni(dni);
+        if (usuario == null) {
+            Arrays.fill(password, '\0');
+            return CompletableFuture.failedFuture(new NoExisteUsuarioException(dni));
+        }
+        String almacenado;
+        boolean actualizar;
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            almacenado = usuario.getPassword();
+            actualizar = !usuario.isPasswordProvisoria();
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+        return getVerificadorPasswords().verificarYActualizar(password, almacenado, actualizar).thenApply(hash -> {
+            if (hash == null) {
+                throw new CompletionException(new ContraseñaInvalidaException());
+            }
+            if (!hash.equals(almacenado)) {
+                actualizarPassword(usuario, almacenado, hash);
+            }
+            if (usuario.isSancionado()) {
+                throw new CompletionException(new CuentaSuspendidaException());
+            }
+            return usuario;
+        });
+    }
+
+    /**
+     * Indica si el usuario debe cambiar su contraseña antes de usar el
+     * sistema, porque todavía tiene la inicial o la blanqueada, o porque
+     * venció. Consulta el estado guardado de la contraseña, sin calcular
+     * ningún hash.
+     *
+     * @param usuario El usuario.
+     * @return true si el usuario debe cambiar su contraseña.
+     */
+    public boolean debeCambiarPassword(Usuario usuario) {
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            return usuario.debeCambiarPassword(System.currentTimeMillis());
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    private String leerPassword(Usuario usuario) {
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            return usuario.getPassword();
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza el hash de la contraseña de un usuario por uno actualizado,
+     * salvo que la contraseña haya cambiado mientras se verificaba. El
+     * vencimiento de la contraseña no cambia.
+     */
+    private void actualizarPassword(Usuario usuario, String anterior, String actualizado) {
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            if (usuario.getPassword().equals(anterior)) {
+                usuario.establecerPassword(actualizado, usuario.getVencimientoPassword());
+                instituto.registrarOperacion(TipoOperacion.CAMBIO_PASSWORD, usuario.getDni(), actualizado, String.valueOf(usuario.getVencimientoPassword()));
+            }
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene una copia de la lista de usuarios registrados en el instituto,
+     * que no cambia aunque se registren usuarios nuevos.
+     *
+     * @return La lista de usuarios del instituto.
+     */
+    public List<Usuario> getUsuarios() {
+        estructura.readLock().lock();
+        try {
+            return new ArrayList<>(instituto.getUsuarios());
+        } finally {
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene una copia de la lista de cursos ofrecidos por el instituto, que
+     * no cambia aunque se propongan cursos nuevos.
+     *
+     * @return La lista de cursos del instituto.
+     */
+    public List<Curso> getCursos() {
+        estructura.readLock().lock();
+        try {
+            return new ArrayList<>(instituto.getCursos());
+        } finally {
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene un curso por su posición en el catálogo del instituto.
+     *
+     * @param posicion La posición del curso.
+     * @return El curso, o null si no hay un curso en esa posición.
+     */
+    public Curso getCurso(int posicion) {
+        estructura.readLock().lock();
+        try {
+            List<Curso> cursos = instituto.getCursos();
+            return posicion >= 0 && posicion < cursos.size() ? cursos.get(posicion) : null;
+        } finally {
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la posición de un curso en el catálogo del instituto, que lo
+     * identifica en el journal y en el servidor.
+     *
+     * @param curso El curso buscado.
+     * @return La posición del curso, o -1 si no pertenece al instituto.
+     */
+    public int getPosicionCurso(Curso curso) {
+        estructura.readLock().lock();
+        try {
+            return instituto.getPosicionCurso(curso);
+        } finally {
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filtra y devuelve la lista de cursos del instituto según su estado.
+     *
+     * @param estado El estado de los cursos a filtrar.
+     * @return La lista de cursos filtrada por estado.
+     */
+    public List<Curso> getCursosPorEstado(EstadoCurso estado) {
+        estructura.readLock().lock();
+        try {
+            return instituto.getCursosPorEstado(estado);
+        } finally {
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filtra y devuelve la lista de cursos del instituto según el docente y el
+     * estado especificados.
+     *
+     * @param docente El docente a cargo de los cursos.
+     * @param filtro El estado a filtrar.
+     * @return La lista de cursos filtrada por docente y estado.
+     */
+    public List<Curso> filtrarCursosPorDocente(Docente docente, EstadoCurso filtro) {
+        return filtrarCursosPorDocente(docente, filtro, filtro);
+    }
+
+    /**
+     * Filtra y devuelve la lista de cursos del instituto según el docente y los
+     * estados especificados.
+     *
+     * @param docente El docente a cargo de los cursos.
+     * @param filtro1 El primer estado a filtrar.
+     * @param filtro2 El segundo estado a filtrar.
+     * @return La lista de cursos filtrada por docente y estado.
+     */
+    public List<Curso> filtrarCursosPorDocente(Docente docente, EstadoCurso filtro1, EstadoCurso filtro2) {
+        estructura.readLock().lock();
+        try {
+            return instituto.filtrarCursosPorDocente(docente, filtro1, filtro2);
+        } finally {
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filtra y devuelve la lista de cursos disponibles para la inscripción de
+     * un alumno.
+     *
+     * @param alumno El alumno que se inscribe.
+     * @return La lista de cursos disponibles para el alumno.
+     */
+    public List<Curso> filtrarCursosPorAlumno(Alumno alumno) {
+        estructura.readLock().lock();
+        Lock cerrojoAlumno = cerrojoUsuario(alumno);
+        cerrojoAlumno.lock();
+        try {
+            return instituto.filtrarCursosPorAlumno(alumno);
+        } finally {
+            cerrojoAlumno.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene una copia de los cursos en los que un alumno está inscripto,
+     * tomada con el cerrojo del alumno para que las inscripciones que procesa
+     * la cola al mismo tiempo no la dejen a medias.
+     *
+     * @param alumno El alumno consultado.
+     * @return Los cursos inscriptos, en orden de inscripción.
+     */
+    public List<Curso> getCursosInscriptos(Alumno alumno) {
+        estructura.readLock().lock();
+        Lock cerrojoAlumno = cerrojoUsuario(alumno);
+        cerrojoAlumno.lock();
+        try {
+            return alumno.getCursosInscriptos();
+        } finally {
+            cerrojoAlumno.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene una copia de los cursos aprobados por un alumno, tomada con el
+     * cerrojo del alumno.
+     *
+     * @param alumno El alumno consultado.
+     * @return Los cursos aprobados.
+     */
+    public List<Curso> getCursosAprobados(Alumno alumno) {
+        estructura.readLock().lock();
+        Lock cerrojoAlumno = cerrojoUsuario(alumno);
+        cerrojoAlumno.lock();
+        try {
+            return alumno.getCursosAprobados();
+        } finally {
+            cerrojoAlumno.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Crea un nuevo alumno y lo registra en el instituto. La verificación del
+     * DNI y el alta se realizan de forma atómica.
+     *
+     * @param nombre El nombre del alumno.
+     * @param apellido El apellido del alumno.
+     * @param dni El DNI del alumno.
+     * @throws ExisteUsuarioException Si ya existe un usuario con el DNI.
+     */
+    public void crearAlumno(String nombre, String apellido, String dni) throws ExisteUsuarioException {
+        estructura.writeLock().lock();
+        try {
+            verificarDniLibre(dni);
+            instituto.crearAlumno(nombre, apellido, dni);
+            instituto.registrarOperacion(TipoOperacion.ALTA_ALUMNO, nombre, apellido, dni);
+        } finally {
+            estructura.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Crea un nuevo docente y lo registra en el instituto. La verificación del
+     * DNI y el alta se realizan de forma atómica.
+     *
+     * @param nombre El nombre del docente.
+     * @param apellido El apellido del docente.
+     * @param dni El DNI del docente.
+     * @throws ExisteUsuarioException Si ya existe un usuario con el DNI.
+     */
+    public void crearDocente(String nombre, String apellido, String dni) throws ExisteUsuarioException {
+        estructura.writeLock().lock();
+        try {
+            verificarDniLibre(dni);
+            instituto.crearDocente(nombre, apellido, dni);
+            instituto.registrarOperacion(TipoOperacion.ALTA_DOCENTE, nombre, apellido, dni);
+        } finally {
+            estructura.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Crea un curso propuesto por un docente y lo agrega al instituto. La
+     * verificación del nombre y el alta se realizan de forma atómica.
+     *
+     * @param nombreCurso El nombre del curso.
+     * @param descripcionCurso La descripción del curso.
+     * @param cursosRequeridos La cantidad de cursos aprobados requeridos.
+     * @param docente El docente que propone el curso.
+     * @return El curso creado.
+     * @throws ExisteCursoException Si ya existe un curso con el mismo nombre.
+     */
+    public Curso proponerCurso(String nombreCurso, String descripcionCurso, int cursosRequeridos, Docente docente) throws ExisteCursoException {
+        estructura.writeLock().lock();
+        try {
+            for (Curso existente : instituto.getCursos()) {
+                if (existente.getNombreCurso().equals(nombreCurso)) {
+                    throw new ExisteCursoException(nombreCurso);
+                }
+            }
+            Curso curso = instituto.crearCurso(nombreCurso, descripcionCurso, cursosRequeridos, docente);
+            instituto.altaCurso(curso);
+            instituto.registrarOperacion(TipoOperacion.ALTA_CURSO, nombreCurso, descripcionCurso, String.valueOf(cursosRequeridos), docente.getDni());
+            return curso;
+        } finally {
+            estructura.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Modifica el estado y el tope de alumnos de un curso. Si el curso gana
+     * lugares se inscriben los alumnos de su lista de espera, por lo que se
+     * toman también los cerrojos de esos alumnos.
+     *
+     * @param curso El curso a modificar.
+     * @param estado El nuevo estado del curso.
+     * @param topeAlumnos El nuevo límite de alumnos del curso.
+     * @return La cantidad de alumnos inscriptos desde la lista de espera.
+     * @throws TransicionEstadoInvalidaException Si el curso no puede pasar de
+     * su estado actual al indicado.
+     */
+    public int modificarCurso(Curso curso, EstadoCurso estado, int topeAlumnos) throws TransicionEstadoInvalidaException {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        cerrojoCurso.lock();
+        List<Lock> cerrojosAlumnos = new ArrayList<>();
+        try {
+            if (curso.getCursadaActiva() != null) {
+                bloquearUsuarios(curso.getCursadaActiva().getListaEspera(), cerrojosAlumnos);
+            }
+            int promovidos = instituto.modificarCurso(curso, estado, topeAlumnos).size();
+            instituto.registrarOperacion(TipoOperacion.MODIFICAR_CURSO, posicion(curso), estado.toString(), String.valueOf(topeAlumnos));
+            return promovidos;
+        } finally {
+            desbloquear(cerrojosAlumnos);
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cierra la inscripción de un curso habilitado.
+     *
+     * @param curso El curso a cerrar.
+     * @throws TransicionEstadoInvalidaException Si el curso no está
+     * habilitado.
+     */
+    public void cerrarInscripcion(Curso curso) throws TransicionEstadoInvalidaException {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        cerrojoCurso.lock();
+        try {
+            curso.setEstadoCurso(EstadoCurso.CERRADO);
+            instituto.registrarOperacion(TipoOperacion.CAMBIO_ESTADO_CURSO, posicion(curso), EstadoCurso.CERRADO.toString());
+        } finally {
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inscribe a un alumno en un curso. Solo se registra en el journal la
+     * inscripción que obtuvo un lugar.
+     *
+     * @param alumno El alumno que se inscribe.
+     * @param curso El curso en el que se inscribe.
+     * @return true si el alumno quedó inscripto, false si el curso no está
+     * habilitado o no tiene lugar.
+     */
+    public boolean inscribirAlumno(Alumno alumno, Curso curso) {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        Lock cerrojoAlumno = cerrojoUsuario(alumno);
+        cerrojoCurso.lock();
+        cerrojoAlumno.lock();
+        try {
+            if (!instituto.inscribirAlumno(alumno, curso)) {
+                return false;
+            }
+            instituto.registrarOperacion(TipoOperacion.INSCRIPCION, alumno.getDni(), posicion(curso));
+            return true;
+        } finally {
+            cerrojoAlumno.unlock();
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inscribe a un alumno en un curso verificando antes las condiciones de
+     * inscripción. Se registran en el journal la inscripción aceptada y el
+     * ingreso del alumno a la lista de espera.
+     *
+     * @param alumno El alumno que se inscribe.
+     * @param curso El curso en el que se inscribe.
+     * @return El resultado de la inscripción.
+     */
+    public ResultadoInscripcion solicitarInscripcion(Alumno alumno, Curso curso) {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        Lock cerrojoAlumno = cerrojoUsuario(alumno);
+        cerrojoCurso.lock();
+        cerrojoAlumno.lock();
+        try {
+            Cursada cursada = curso.getCursadaActiva();
+            boolean esperaba = cursada != null && cursada.estaEnEspera(alumno);
+            ResultadoInscripcion resultado = instituto.solicitarInscripcion(alumno, curso);
+            if (resultado == ResultadoInscripcion.ACEPTADO) {
+                instituto.registrarOperacion(TipoOperacion.INSCRIPCION, alumno.getDni(), posicion(curso));
+            } else if (resultado == ResultadoInscripcion.EN_ESPERA && !esperaba) {
+                instituto.registrarOperacion(TipoOperacion.LISTA_ESPERA, alumno.getDni(), posicion(curso));
+            }
+            return resultado;
+        } finally {
+            cerrojoAlumno.unlock();
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Califica a un alumno de la cursada activa de un curso. La calificación
+     * se guarda en la cursada, por lo que solo toma el cerrojo del curso, y
+     * puede cambiarse hasta que el docente finaliza el curso.
+     *
+     * @param curso El curso que se califica.
+     * @param alumno El alumno calificado.
+     * @param calificacion La calificación del alumno.
+     * @throws CalificacionInvalidaException Si el curso no tiene una cursada
+     * activa o el alumno no está inscripto en ella.
+     */
+    public void calificar(Curso curso, Alumno alumno, Calificacion calificacion) throws CalificacionInvalidaException {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        cerrojoCurso.lock();
+        try {
+            Cursada cursada = curso.getCursadaActiva();
+            if (cursada == null || !cursada.estaInscripto(alumno)) {
+                throw new CalificacionInvalidaException("El alumno " + alumno.getDni() + " no está inscripto en el curso " + curso.getNombreCurso() + ".");
+            }
+            if (cursada.getCalificacion(alumno) == calificacion) {
+                return;
+            }
+            instituto.calificar(curso, alumno, calificacion);
+            instituto.registrarOperacion(TipoOperacion.CALIFICACION, posicion(curso), alumno.getDni(), calificacion.toString());
+        } finally {
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Califica de una vez a varios alumnos de la cursada activa de un curso.
+     * Primero valida toda la carga y, si algún alumno no está inscripto en la
+     * cursada, no aplica ninguna calificación. Las calificaciones que cambian
+     * se registran juntas en una sola operación del journal.
+     *
+     * @param curso El curso que se califica.
+     * @param calificaciones La calificación de cada alumno.
+     * @return La cantidad de calificaciones que cambiaron.
+     * @throws CalificacionInvalidaException Si algún alumno no está inscripto
+     * en la cursada o no tiene calificación.
+     */
+    public int calificar(Curso curso, Map<Alumno, Calificacion> calificaciones) throws CalificacionInvalidaException {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        cerrojoCurso.lock();
+        try {
+            Cursada cursada = curso.getCursadaActiva();
+            Map<Alumno, Calificacion> cambios = new LinkedHashMap<>();
+            for (Map.Entry<Alumno, Calificacion> calificacion : calificaciones.entrySet()) {
+                Alumno alumno = calificacion.getKey();
+                if (cursada == null || !cursada.estaInscripto(alumno)) {
+                    throw new CalificacionInvalidaException("El alumno " + alumno.getDni() + " no está inscripto en el curso " + curso.getNombreCurso() + ".");
+                }
+                if (calificacion.getValue() == null) {
+                    throw new CalificacionInvalidaException("Falta la calificación del alumno " + alumno.getDni() + ".");
+                }
+                if (cursada.getCalificacion(alumno) != calificacion.getValue()) {
+                    cambios.put(alumno, calificacion.getValue());
+                }
+            }
+            if (cambios.isEmpty()) {
+                return 0;
+            }
+            List<String> datos = new ArrayList<>(1 + 2 * cambios.size());
+            datos.add(posicion(curso));
+            for (Map.Entry<Alumno, Calificacion> cambio : cambios.entrySet()) {
+                instituto.calificar(curso, cambio.getKey(), cambio.getValue());
+                datos.add(cambio.getKey().getDni());
+                datos.add(cambio.getValue().toString());
+            }
+            instituto.registrarOperacion(TipoOperacion.CALIFICACION, datos.toArray(new String[0]));
+            return cambios.size();
+        } finally {
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Importa las calificaciones de la cursada activa de un curso desde un
+     * texto CSV, con una línea por alumno con su DNI y su calificación
+     * (Aprobado o Desaprobado) separados por coma o punto y coma. Se ignoran
+     * las líneas vacías y una primera línea de encabezado que comience con
+     * "dni". La carga se valida completa antes de aplicarla, igual que con
+     * calificar.
+     *
+     * @param curso El curso que se califica.
+     * @param csv El texto CSV.
+     * @return La cantidad de calificaciones que cambiaron.
+     * @throws IOException Si ocurre un error al leer el texto.
+     * @throws CalificacionInvalidaException Si alguna línea está mal formada,
+     * repite un alumno, no corresponde a un alumno inscripto o tiene una
+     * calificación no válida.
+     */
+    public int importarCalificaciones(Curso curso, Reader csv) throws IOException, CalificacionInvalidaException {
+        BufferedReader lector = new BufferedReader(csv);
+        Map<Alumno, Calificacion> calificaciones = new LinkedHashMap<>();
+        int numero = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            linea = linea.trim();
+            if (linea.isEmpty() || (numero == 1 && linea.regionMatches(true, 0, "dni", 0, 3))) {
+                continue;
+            }
+            String[] campos = linea.split("[,;]", -1);
+            if (campos.length != 2) {
+                throw new CalificacionInvalidaException("Línea " + numero + ": se esperaba DNI y calificación.");
+            }
+            String dni = campos[0].trim();
+            Calificacion calificacion = Calificacion.desdeNombre(campos[1].trim());
+            if (calificacion != Calificacion.APROBADO && calificacion != Calificacion.DESAPROBADO) {
+                throw new CalificacionInvalidaException("Línea " + numero + ": calificación inválida: " + campos[1].trim() + ".");
+            }
+            Usuario usuario = buscarPorDni(dni);
+            if (!(usuario instanceof Alumno)) {
+                throw new CalificacionInvalidaException("Línea " + numero + ": no existe el alumno " + dni + ".");
+            }
+            if (calificaciones.put((Alumno) usuario, calificacion) != null) {
+                throw new CalificacionInvalidaException("Línea " + numero + ": el alumno " + dni + " está repetido.");
+            }
+        }
+        return calificar(curso, calificaciones);
+    }
+
+    /**
+     * Finaliza la cursada activa de un curso, que conserva las calificaciones
+     * de sus alumnos. Los aprobados son los alumnos calificados como
+     * aprobados en la cursada, por lo que todos deben estar calificados. Toma
+     * los cerrojos de todos los alumnos de la cursada, que se modifican al
+     * finalizar.
+     *
+     * @param curso El curso a finalizar.
+     * @throws TransicionEstadoInvalidaException Si el curso no tiene una
+     * cursada activa o no puede finalizarse desde su estado actual.
+     * @throws CalificacionInvalidaException Si queda algún alumno sin
+     * calificar.
+     */
+    public void finalizarCurso(Curso curso) throws TransicionEstadoInvalidaException, CalificacionInvalidaException {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        cerrojoCurso.lock();
+        List<Lock> cerrojosAlumnos = new ArrayList<>();
+        try {
+            Cursada cursada = curso.getCursadaActiva();
+            if (cursada == null) {
+                throw new TransicionEstadoInvalidaException(curso.getNombreCurso(), curso.getEstadoCurso().toString(), EstadoCurso.FINALIZADO.toString());
+            }
+            if (!cursada.todosCalificados()) {
+                throw new CalificacionInvalidaException("Quedan " + cursada.getSinCalificar() + " alumnos sin calificar en el curso " + curso.getNombreCurso() + ".");
+            }
+            bloquearUsuarios(cursada.getAlumnos(), cerrojosAlumnos);
+
+            List<Alumno> aprobados = cursada.getAprobados();
+            instituto.finalizarCurso(curso, aprobados);
+            List<String> datos = new ArrayList<>();
+            datos.add(posicion(curso));
+            for (Alumno alumno : aprobados) {
+                datos.add(alumno.getDni());
+            }
+            instituto.registrarOperacion(TipoOperacion.FINALIZAR_CURSO, datos.toArray(new String[0]));
+        } finally {
+            desbloquear(cerrojosAlumnos);
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reinicia un curso finalizado con una nueva cursada a cargo del docente
+     * indicado.
+     *
+     * @param curso El curso a reiniciar.
+     * @param docente El docente a cargo de la nueva cursada.
+     * @throws TransicionEstadoInvalidaException Si el curso no está
+     * finalizado.
+     */
+    public void reiniciarCurso(Curso curso, Docente docente) throws TransicionEstadoInvalidaException {
+        estructura.readLock().lock();
+        Lock cerrojoCurso = cerrojoCurso(curso);
+        cerrojoCurso.lock();
+        try {
+            instituto.reiniciarCurso(curso, docente);
+            instituto.registrarOperacion(TipoOperacion.REINICIAR_CURSO, posicion(curso), docente.getDni());
+        } finally {
+            cerrojoCurso.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cambia la contraseña de un usuario. El hash de la nueva contraseña se
+     * deriva antes de tomar los cerrojos, en el hilo que invoca el método.
+     *
+     * @param usuario El usuario.
+     * @param nuevaPassword La nueva contraseña, sin cifrar.
+     */
+    public void cambiarPassword(Usuario usuario, String nuevaPassword) {
+        establecerPassword(usuario, PassHasher.derivar(nuevaPassword.toCharArray()));
+    }
+
+    /**
+     * Cambia la contraseña de un usuario si la contraseña actual es correcta.
+     * La verificación y la derivación del nuevo hash se realizan en el
+     * verificador de contraseñas.
+     *
+     * @param usuario El usuario.
+     * @param actual La contraseña actual, sin cifrar. Se borra al terminar.
+     * @param nueva La nueva contraseña, sin cifrar. Se borra al terminar.
+     * @return true si se cambió la contraseña, false si la contraseña actual
+     * no es correcta. Se completa con RejectedExecutionException si hay
+     * demasiadas verificaciones en espera.
+     */
+    public CompletableFuture<Boolean> cambiarPassword(Usuario usuario, char[] actual, char[] nueva) {
+        VerificadorPasswords verificador = getVerificadorPasswords();
+        return verificador.verificar(actual, leerPassword(usuario)).thenCompose(correcta -> {
+            if (!correcta) {
+                Arrays.fill(nueva, '\0');
+                return CompletableFuture.completedFuture(false);
+            }
+            return verificador.derivar(nueva).thenApply(hash -> {
+                establecerPassword(usuario, hash);
+                return true;
+            });
+        });
+    }
+
+    /**
+     * Establece la nueva contraseña de un usuario, que vence al cabo de la
+     * vigencia configurada con la propiedad del sistema
+     * instituto.password.vigenciaDias, o nunca si no está configurada.
+     */
+    private void establecerPassword(Usuario usuario, String hash) {
+        long vencimiento = VIGENCIA_PASSWORD_MS > 0 ? System.currentTimeMillis() + VIGENCIA_PASSWORD_MS : 0;
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            usuario.establecerPassword(hash, vencimiento);
+            instituto.registrarOperacion(TipoOperacion.CAMBIO_PASSWORD, usuario.getDni(), hash, String.valueOf(vencimiento));
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Blanquea la contraseña de un usuario.
+     *
+     * @param usuario El usuario.
+     */
+    public void blanquearPassword(Usuario usuario) {
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            usuario.blanquearPassword();
+            instituto.registrarOperacion(TipoOperacion.BLANQUEO_PASSWORD, usuario.getDni());
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suspende la cuenta de un usuario.
+     *
+     * @param usuario El usuario.
+     */
+    public void suspenderUsuario(Usuario usuario) {
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            usuario.suspenderUsuario();
+            instituto.registrarOperacion(TipoOperacion.SUSPENSION, usuario.getDni());
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reactiva la cuenta de un usuario.
+     *
+     * @param usuario El usuario.
+     */
+    public void reactivarUsuario(Usuario usuario) {
+        estructura.readLock().lock();
+        Lock cerrojo = cerrojoUsuario(usuario);
+        cerrojo.lock();
+        try {
+            usuario.reactivarUsuario();
+            instituto.registrarOperacion(TipoOperacion.REACTIVACION, usuario.getDni());
+        } finally {
+            cerrojo.unlock();
+            estructura.readLock().unlock();
+        }
+    }
+
+    /**
+     * Toma una copia consistente del instituto junto con la secuencia de la
+     * última operación que incluye. Mientras se toma la copia no se aplica
+     * ninguna operación.
+     *
+     * @return La copia del instituto.
+     * @throws IOException Si ocurre un error al codificar el instituto.
+     */
+    public Captura capturarEstado() throws IOException {
+        estructura.writeLock().lock();
+        try {
+            return new Captura(instituto.capturarEstado(), instituto.getUltimaOperacion());
+        } finally {
+            estructura.writeLock().unlock();
+        }
+    }
+
+    private void verificarDniLibre(String dni) throws ExisteUsuarioException {
+        if (instituto.buscarPorDni(dni) != null) {
+            throw new ExisteUsuarioException(dni);
+        }
+    }
+
+    private String posicion(Curso curso) {
+        return String.valueOf(instituto.getPosicionCurso(curso));
+    }
+
+    private Lock cerrojoCurso(Curso curso) {
+        return cerrojosCursos[franja(System.identityHashCode(curso))];
+    }
+
+    private Lock cerrojoUsuario(Usuario usuario) {
+        return cerrojosUsuarios[franja(usuario.getDni().hashCode())];
+    }
+
+    /**
+     * Toma los cerrojos de las franjas de varios usuarios en orden creciente.
+     * Cada cerrojo tomado se agrega a la lista, para liberarlo aunque se
+     * interrumpa el bloqueo.
+     */
+    private void bloquearUsuarios(Collection<? extends Usuario> usuarios, List<Lock> tomados) {
+        TreeSet<Integer> franjas = new TreeSet<>();
+        for (Usuario usuario : usuarios) {
+            franjas.add(franja(usuario.getDni().hashCode()));
+        }
+        for (int franja : franjas) {
+            cerrojosUsuarios[franja].lock();
+            tomados.add(cerrojosUsuarios[franja]);
+        }
+    }
+
+    private static void desbloquear(List<Lock> cerrojos) {
+        for (int i = cerrojos.size() - 1; i >= 0; i--) {
+            cerrojos.get(i).unlock();
+        }
+    }
+
+    private static int franja(int hash) {
+        return (hash ^ (hash >>> 16)) & (FRANJAS - 1);
+    }
+
+    private static Lock[] crearCerrojos() {
+        Lock[] cerrojos = new Lock[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            cerrojos[i] = new ReentrantLock();
+        }
+        return cerrojos;
+    }
+
+    /**
+     * Copia del instituto codificada en el formato binario, junto con la
+     * secuencia de la última operación incluida.
+     */
+    public static final class Captura {
+
+        private final byte[] datos;
+        private final long secuencia;
+
+        private Captura(byte[] datos, long secuencia) {
+            this.datos = datos;
+            this.secuencia = secuencia;
+        }
+
+        /**
+         * Obtiene los bytes del instituto codificado.
+         *
+         * @return Los bytes de la copia.
+         */
+        public byte[] getDatos() {
+            return datos;
+        }
+
+        /**
+         * Obtiene la secuencia de la última operación incluida en la copia.
+         *
+         * @return La secuencia de la última operación incluida.
+         */
+        public long getSecuencia() {
+            return secuencia;
+        }
+    }
+}
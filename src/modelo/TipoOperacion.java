@@ -0,0 +1,59 @@
+package modelo;
+
+/**
+ * Enumera las operaciones del dominio que se registran en el journal del
+ * instituto. Cada operación tiene un código fijo que es el que se guarda en el
+ * archivo, por lo que los códigos existentes no deben modificarse.
+ */
+public enum TipoOperacion {
+
+    ALTA_ALUMNO(1),
+    ALTA_DOCENTE(2),
+    ALTA_CURSO(3),
+    MODIFICAR_CURSO(4),
+    CAMBIO_ESTADO_CURSO(5),
+    INSCRIPCION(6),
+    FINALIZAR_CURSO(7),
+    REINICIAR_CURSO(8),
+    CAMBIO_PASSWORD(9),
+    BLANQUEO_PASSWORD(10),
+    SUSPENSION(11),
+    REACTIVACION(12),
+    LISTA_ESPERA(13),
+    CALIFICACION(14);
+
+    private final byte codigo;
+
+    /**
+     * Constructor del tipo de operación.
+     *
+     * @param codigo El código con el que se almacena la operación.
+     */
+    private TipoOperacion(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    /**
+     * Obtiene el código con el que se almacena la operación en el journal.
+     *
+     * @return El código de la operación.
+     */
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Busca el tipo de operación correspondiente a un código almacenado.
+     *
+     * @param codigo El código leído del journal.
+     * @return El tipo de operación, o null si el código no es conocido.
+     */
+    public static TipoOperacion desdeCodigo(byte codigo) {
+        for (TipoOperacion tipo : values()) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        return null;
+    }
+}
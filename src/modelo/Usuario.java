@@ -1,5 +1,7 @@
 package modelo;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import static modelo.PassHasher.hash;
 
@@ -9,12 +11,16 @@ import static modelo.PassHasher.hash;
  */
 public abstract class Usuario implements Serializable {
 
+    private static final long serialVersionUID = -8470446300651264127L;
+
     private String dni;
     protected String nombre;
     protected String apellido;
     private String password;
     private boolean sancionado;
     protected String perfil; //admin, alumno, docente
+    private boolean passwordProvisoria; // la inicial o la blanqueada, igual al DNI
+    private long vencimientoPassword; // en milisegundos desde 1970, 0 si no vence
 
     /**
      * Constructor de la clase Usuario. Se utiliza metodo hash importado de la clase 
@@ -29,6 +35,24 @@ public abstract class Usuario implements Serializable {
         this.dni = dni;
         this.password = hash(dni);
         this.sancionado = false;
+        this.passwordProvisoria = true;
+    }
+
+    /**
+     * Constructor utilizado al leer el instituto desde el formato binario. No
+     * calcula el hash de la contraseña, sino que recibe el ya almacenado.
+     * @param nombre El nombre del usuario.
+     * @param apellido El apellido del usuario.
+     * @param dni El DNI del usuario.
+     * @param password El hash de la contraseña almacenada.
+     * @param sancionado Si el usuario está sancionado.
+     */
+    Usuario(String nombre, String apellido, String dni, String password, boolean sancionado) {
+        this.nombre = nombre;
+        this.apellido = apellido;
+        this.dni = dni;
+        this.password = password;
+        this.sancionado = sancionado;
     }
 
     /**
@@ -64,18 +88,63 @@ public abstract class Usuario implements Serializable {
     }
 
     /**
-     * Restablece la contraseña del usuario.
+     * Indica si la contraseña del usuario es provisoria, es decir la inicial
+     * o la blanqueada, iguales al DNI.
+     * @return true si la contraseña es provisoria.
+     */
+    public boolean isPasswordProvisoria() {
+        return passwordProvisoria;
+    }
+
+    /**
+     * Devuelve el momento en que vence la contraseña del usuario.
+     * @return El vencimiento en milisegundos desde 1970, o 0 si no vence.
+     */
+    public long getVencimientoPassword() {
+        return vencimientoPassword;
+    }
+
+    /**
+     * Indica si el usuario debe cambiar su contraseña antes de usar el
+     * sistema, porque es provisoria o porque venció.
+     * @param ahora El momento actual en milisegundos desde 1970.
+     * @return true si el usuario debe cambiar su contraseña.
+     */
+    public boolean debeCambiarPassword(long ahora) {
+        return passwordProvisoria || (vencimientoPassword != 0 && ahora >= vencimientoPassword);
+    }
+
+    /**
+     * Restablece la contraseña del usuario. La nueva contraseña es provisoria.
      */
     public void blanquearPassword() {
         this.password = hash(dni);
+        this.passwordProvisoria = true;
+        this.vencimientoPassword = 0;
     }
 
     /**
-     * Cambia la contraseña del usuario.
+     * Cambia la contraseña del usuario, sin vencimiento. El hash se deriva con
+     * PBKDF2 y una sal aleatoria, lo que demora del orden de cien
+     * milisegundos.
      * @param pass La nueva contraseña.
      */
     public void cambioPassword(String pass) {
-        this.password = hash(pass);
+        establecerPassword(PassHasher.derivar(pass.toCharArray()), 0);
+    }
+
+    /**
+     * Establece una contraseña elegida por el usuario a partir de un hash ya
+     * calculado. Se utiliza al cambiar la contraseña y al reconstruir el
+     * estado del instituto desde el journal.
+     * @param passwordHasheada El hash de la contraseña.
+     * @param vencimiento El vencimiento de la contraseña en milisegundos desde
+     * 1970, o 0 si no vence.
+     */
+    void establecerPassword(String passwordHasheada, long vencimiento) {
+        this.password = passwordHasheada;
+        this.passwordProvisoria = false;
+        this.vencimientoPassword = vencimiento;
     }
 
     /**
@@ -125,6 +194,89 @@ public abstract class Usuario implements Serializable {
         return perfil + "\nNombre: " + nombre + "\nApellido:" + apellido + "\nDni: " + dni;
     }
 
+    /**
+     * Escribe los datos del usuario en el formato binario del instituto,
+     * comenzando por el código de su perfil.
+     * @param salida El flujo de escritura del formato binario.
+     */
+    void escribir(CodecInstituto.Salida salida) {
+        if (this instanceof Administrador) {
+            salida.escribirByte(0);
+        } else if (this instanceof Alumno) {
+            salida.escribirByte(1);
+        } else {
+            salida.escribirByte(2);
+        }
+        salida.escribirDni(dni);
+        salida.escribirTexto(nombre);
+        salida.escribirTexto(apellido);
+        salida.escribirTexto(password);
+        salida.escribirBoolean(sancionado);
+        salida.escribirBoolean(passwordProvisoria);
+        salida.escribirLong(vencimientoPassword);
+    }
+
+    /**
+     * Lee un usuario desde el formato binario del instituto, creando la
+     * subclase que corresponde a su perfil. Las versiones anteriores a la 3
+     * no guardan el estado de la contraseña: se considera provisoria si es el
+     * hash del DNI, y sin vencimiento.
+     * @param entrada El flujo de lectura del formato binario.
+     * @return El usuario leído.
+     * @throws IOException Si el código de perfil no es válido.
+     */
+    static Usuario leer(CodecInstituto.Entrada entrada) throws IOException {
+        int codigoPerfil = entrada.leerByte();
+        String dni = entrada.leerDni();
+        String nombre = entrada.leerTexto();
+        String apellido = entrada.leerTexto();
+        String password = entrada.leerTexto();
+        boolean sancionado = entrada.leerBoolean();
+
+        Usuario usuario;
+        switch (codigoPerfil) {
+            case 0:
+                usuario = new Administrador(nombre, apellido, dni, password, sancionado);
+                break;
+            case 1:
+                usuario = new Alumno(nombre, apellido, dni, password, sancionado);
+                break;
+            case 2:
+                usuario = new Docente(nombre, apellido, dni, password, sancionado);
+                break;
+            default:
+                throw new IOException("Perfil de usuario desconocido: " + codigoPerfil);
+        }
+        if (entrada.version >= 3) {
+            usuario.passwordProvisoria = entrada.leerBoolean();
+            usuario.vencimientoPassword = entrada.leerLong();
+        } else {
+            usuario.passwordProvisoria = esPasswordInicial(dni, password);
+        }
+        return usuario;
+    }
+
+    /**
+     * Lee un usuario guardado con la serialización de Java. Los de las
+     * versiones anteriores no tienen el estado de la contraseña: se considera
+     * provisoria si es el hash del DNI.
+     * @param entrada El flujo de entrada.
+     * @throws IOException Si ocurre un error al leer.
+     * @throws ClassNotFoundException Si no se encuentra la clase de algún
+     * objeto leído.
+     */
+    private void readObject(ObjectInputStream entrada) throws IOException, ClassNotFoundException {
+        entrada.defaultReadObject();
+        if (!passwordProvisoria && esPasswordInicial(dni, password)) {
+            passwordProvisoria = true;
+            vencimientoPassword = 0;
+        }
+    }
+
+    private static boolean esPasswordInicial(String dni, String password) {
+        return PassHasher.esHashSimple(password) && PassHasher.verificar(dni, password);
+    }
+
     /**
      * Devuelve el estado de la cuenta del usuario (activo o sancionado).
      * @return "Activa" si la cuenta no está sancionada, "Sancionada" en caso contrario.
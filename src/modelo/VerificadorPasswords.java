@@ -0,0 +1,112 @@
+package modelo;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en un grupo acotado de hilos los cálculos de hash de contraseñas,
+ * que con PBKDF2 tardan del orden de cien milisegundos cada uno. Así los
+ * inicios de sesión no detienen la interfaz gráfica mientras se verifican, y
+ * muchos inicios de sesión simultáneos no ocupan todos los procesadores: los
+ * que exceden la cantidad de hilos esperan en una cola, y los que exceden la
+ * cola se rechazan en lugar de acumularse.
+ */
+public class VerificadorPasswords {
+
+    private final ThreadPoolExecutor hilos;
+
+    /**
+     * Constructor de la clase VerificadorPasswords.
+     *
+     * @param cantidadHilos La cantidad de hilos que calculan los hashes.
+     * @param capacidadCola La cantidad máxima de cálculos en espera.
+     */
+    public VerificadorPasswords(int cantidadHilos, int capacidadCola) {
+        AtomicInteger numero = new AtomicInteger();
+        this.hilos = new ThreadPoolExecutor(cantidadHilos, cantidadHilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), tarea -> {
+                    Thread hilo = new Thread(tarea, "verificador-passwords-" + numero.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+    }
+
+    /**
+     * Verifica una contraseña contra el hash almacenado.
+     *
+     * @param password La contraseña ingresada, que se borra al terminar.
+     * @param hashAlmacenado El hash almacenado.
+     * @return Si la contraseña corresponde al hash. Se completa con
+     * RejectedExecutionException si la cola está llena.
+     */
+    public CompletableFuture<Boolean> verificar(char[] password, String hashAlmacenado) {
+        return ejecutar(password, () -> PassHasher.verificar(password, hashAlmacenado));
+    }
+
+    /**
+     * Deriva el hash de una contraseña nueva.
+     *
+     * @param password La contraseña, que se borra al terminar.
+     * @return El hash derivado. Se completa con RejectedExecutionException si
+     * la cola está llena.
+     */
+    public CompletableFuture<String> derivar(char[] password) {
+        return ejecutar(password, () -> PassHasher.derivar(password));
+    }
+
+    /**
+     * Verifica una contraseña y, si corresponde al hash almacenado, calcula
+     * también su hash actualizado cuando el almacenado lo requiere, en la
+     * misma tarea para no volver a esperar en la cola.
+     *
+     * @param password La contraseña ingresada, que se borra al terminar.
+     * @param hashAlmacenado El hash almacenado.
+     * @param actualizar Si debe calcularse el hash actualizado.
+     * @return El hash actualizado, el almacenado si no hace falta actualizarlo,
+     * o null si la contraseña no corresponde. Se completa con
+     * RejectedExecutionException si la cola está llena.
+     */
+    public CompletableFuture<String> verificarYActualizar(char[] password, String hashAlmacenado, boolean actualizar) {
+        return ejecutar(password, () -> {
+            if (!PassHasher.verificar(password, hashAlmacenado)) {
+                return null;
+            }
+            return actualizar && PassHasher.requiereActualizacion(hashAlmacenado) ? PassHasher.derivar(password) : hashAlmacenado;
+        });
+    }
+
+    /**
+     * Deja de aceptar cálculos y espera a que terminen los ya encolados.
+     *
+     * @param espera El tiempo máximo de espera.
+     * @param unidad La unidad del tiempo de espera.
+     * @return true si terminaron todos los cálculos, false si venció la
+     * espera.
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public boolean detener(long espera, TimeUnit unidad) throws InterruptedException {
+        hilos.shutdown();
+        return hilos.awaitTermination(espera, unidad);
+    }
+
+    private <T> CompletableFuture<T> ejecutar(char[] password, Supplier<T> calculo) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return calculo.get();
+                } finally {
+                    Arrays.fill(password, '\0');
+                }
+            }, hilos);
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(password, '\0');
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package persistencia;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import modelo.InformadorErrores;
+import modelo.Instituto;
+import modelo.ServicioInstituto;
+
+/**
+ * Puesta en marcha de la persistencia del instituto, compartida por la
+ * aplicación de escritorio y el servidor. Carga el archivo de datos, aplica el
+ * journal y deja iniciados el escritor de persistencia y la compactación
+ * periódica.
+ */
+public class ArranqueInstituto {
+
+    private static final String ARCHIVO_DATOS = "instituto.dat";
+    private static final String ARCHIVO_JOURNAL = "instituto.journal";
+    private static final long UMBRAL_COMPACTACION = 1000;
+    private static final long PERIODO_COMPACTACION_MINUTOS = 5;
+
+    private ArranqueInstituto() {
+    }
+
+    /**
+     * Inicia la persistencia con los archivos predeterminados, instituto.dat e
+     * instituto.journal.
+     *
+     * @param informador El destino de los errores que ocurran después del
+     * arranque, al guardar o compactar.
+     * @return El servicio sobre el instituto cargado.
+     * @throws IOException Si los datos no pudieron recuperarse.
+     */
+    public static ServicioInstituto iniciar(InformadorErrores informador) throws IOException {
+        return iniciar(ARCHIVO_DATOS, ARCHIVO_JOURNAL, informador);
+    }
+
+    /**
+     * Inicia la persistencia del instituto. Si el archivo de datos no existe,
+     * es la primera vez que se ejecuta el programa y se crea un instituto
+     * nuevo. Si existe, se convierte al formato binario en caso de que haya
+     * sido guardado por una versión anterior y se carga mapeándolo en memoria.
+     * A continuación se aplican las operaciones registradas en el journal
+     * desde la última vez que se guardó el archivo completo, se inicia el
+     * escritor que registra las operaciones siguientes en segundo plano y la
+     * compactación periódica del journal.
+     *
+     * @param archivoDatos El nombre del archivo de datos.
+     * @param archivoJournal El nombre del archivo del journal.
+     * @param informador El destino de los errores que ocurran después del
+     * arranque, al guardar o compactar.
+     * @return El servicio sobre el instituto cargado.
+     * @throws IOException Si el archivo de datos o el journal no pudieron
+     * leerse; en ese caso no se inicia nada, para no sobrescribir los datos.
+     */
+    public static ServicioInstituto iniciar(String archivoDatos, String archivoJournal, InformadorErrores informador) throws IOException {
+        Instituto icet;
+        if (!new File(archivoDatos).exists()) {
+            icet = new Instituto();
+            icet.setInformadorErrores(informador);
+            icet.serializarInstituto(archivoDatos);
+        } else {
+            try {
+                ConversorLegado.convertir(archivoDatos);
+            } catch (IOException e) {
+                // El cargador también lee el formato anterior; se vuelve a intentar en el próximo inicio
+                informador.informar("Error al convertir los datos", e);
+            }
+            icet = CargadorMapeado.cargar(archivoDatos);
+            icet.setInformadorErrores(informador);
+        }
+
+        Journal journal = new Journal(archivoJournal, informador);
+        journal.reproducir(icet);
+
+        // Las operaciones siguientes se registran desde un hilo propio, fuera del hilo de eventos
+        EscritorPersistencia escritor = new EscritorPersistencia(journal, informador);
+        escritor.iniciar();
+        escritor.instalarVaciadoAlSalir();
+        icet.setRegistroOperaciones(escritor);
+
+        ServicioInstituto servicio = new ServicioInstituto(icet);
+
+        Compactador compactador = new Compactador(servicio, journal, archivoDatos, UMBRAL_COMPACTACION, informador);
+        compactador.iniciar(PERIODO_COMPACTACION_MINUTOS, TimeUnit.MINUTES);
+        escritor.setCompactador(compactador);
+        return servicio;
+    }
+}
@@ -0,0 +1,46 @@
+package persistencia;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import modelo.CodecInstituto;
+import modelo.Instituto;
+
+/**
+ * Cargador del archivo de datos del instituto que mapea el archivo en memoria
+ * con FileChannel.map y decodifica el formato binario directamente desde el
+ * MappedByteBuffer, sin lecturas intermedias ni copias del archivo completo.
+ * Los archivos en el formato anterior se leen con la serialización de Java.
+ */
+public class CargadorMapeado {
+
+    /**
+     * Carga el instituto desde el archivo indicado mapeándolo en memoria. El
+     * instituto decodificado no conserva referencias al buffer, pero el mapeo
+     * no se libera al cerrar el canal sino cuando el recolector de basura
+     * descarta el buffer; por eso Compactador reintenta el reemplazo del
+     * archivo en los sistemas que no permiten reemplazar un archivo mapeado.
+     *
+     * @param nombreArchivo El nombre del archivo de datos.
+     * @return El instituto cargado.
+     * @throws IOException Si el archivo no existe, no puede mapearse o sus
+     * datos están dañados.
+     */
+    public static Instituto cargar(String nombreArchivo) throws IOException {
+        Path archivo = Paths.get(nombreArchivo);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            byte[] inicio = new byte[Math.min(2, buffer.remaining())];
+            buffer.get(0, inicio);
+            if (CodecInstituto.esFormatoLegado(inicio)) {
+                byte[] datos = new byte[buffer.remaining()];
+                buffer.get(datos);
+                return Instituto.decodificar(datos);
+            }
+            return CodecInstituto.decodificar(buffer);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package persistencia;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import modelo.InformadorErrores;
+import modelo.ServicioInstituto;
+
+/**
+ * Compactador periódico del journal del instituto. Cuando el journal supera
+ * una cantidad de registros, toma una copia consistente del instituto, la
+ * escribe en un archivo nuevo que reemplaza de forma atómica al archivo de
+ * datos y descarta del journal los registros que quedaron incluidos en la
+ * copia. Así el journal se mantiene acotado y el tiempo de inicio no crece con
+ * los años de operaciones acumuladas.
+ */
+public class Compactador {
+
+    private static final int INTENTOS_REEMPLAZO = 5;
+
+    private final ServicioInstituto servicio;
+    private final Journal journal;
+    private final File archivoDatos;
+    private final long umbralRegistros;
+    private final InformadorErrores informador;
+    private ScheduledExecutorService planificador;
+
+    /**
+     * Constructor de la clase Compactador.
+     *
+     * @param servicio El servicio del instituto del que se toman las copias.
+     * @param journal El journal donde se registran las operaciones.
+     * @param nombreArchivoDatos El nombre del archivo de datos del instituto.
+     * @param umbralRegistros La cantidad de registros del journal a partir de
+     * la cual se compacta.
+     * @param informador El destino de los errores de la compactación.
+     */
+    public Compactador(ServicioInstituto servicio, Journal journal, String nombreArchivoDatos, long umbralRegistros, InformadorErrores informador) {
+        this.servicio = servicio;
+        this.journal = journal;
+        this.archivoDatos = new File(nombreArchivoDatos);
+        this.umbralRegistros = umbralRegistros;
+        this.informador = informador;
+    }
+
+    /**
+     * Inicia la compactación periódica en un hilo de fondo.
+     *
+     * @param periodo El tiempo entre cada revisión del journal.
+     * @param unidad La unidad del periodo.
+     */
+    public synchronized void iniciar(long periodo, TimeUnit unidad) {
+        if (planificador != null) {
+            return;
+        }
+        planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "compactador-journal");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(this::compactarSiCorresponde, periodo, periodo, unidad);
+    }
+
+    /**
+     * Detiene la compactación periódica.
+     */
+    public synchronized void detener() {
+        if (planificador != null) {
+            planificador.shutdown();
+            planificador = null;
+        }
+    }
+
+    /**
+     * Compacta el journal si superó el umbral de registros. Los errores se
+     * entregan al informador sin interrumpir la compactación periódica.
+     */
+    public void compactarSiCorresponde() {
+        if (journal.getCantidadRegistros() < umbralRegistros) {
+            return;
+        }
+        try {
+            compactar();
+        } catch (IOException e) {
+            informador.informar("Error al guardar los datos", e);
+        }
+    }
+
+    /**
+     * Toma una copia del instituto, la escribe en un archivo temporal y lo
+     * reemplaza por el archivo de datos. Luego descarta del journal las
+     * operaciones incluidas en la copia. Si el proceso se interrumpe después
+     * del reemplazo, esas operaciones se ignoran al reproducir el journal
+     * porque su secuencia ya está incluida en la copia.
+     *
+     * @return La secuencia de la última operación incluida en la copia.
+     * @throws IOException Si ocurre un error al escribir la copia o el journal.
+     */
+    public synchronized long compactar() throws IOException {
+        ServicioInstituto.Captura captura = servicio.capturarEstado();
+
+        File temporal = new File(archivoDatos.getPath() + ".tmp");
+        try (FileOutputStream salida = new FileOutputStream(temporal)) {
+            salida.write(captura.getDatos());
+            salida.getFD().sync();
+        }
+        reemplazarArchivoDatos(temporal);
+
+        journal.descartarHasta(captura.getSecuencia());
+        return captura.getSecuencia();
+    }
+
+    /**
+     * Reemplaza de forma atómica el archivo de datos por la copia nueva. En
+     * Windows no puede reemplazarse un archivo mientras siga mapeado en
+     * memoria, y el mapeo que hace CargadorMapeado al iniciar recién se libera
+     * cuando el recolector de basura descarta su buffer. Si el reemplazo
+     * falla, se solicita una recolección y se reintenta unas pocas veces antes
+     * de informar el error; el archivo de datos anterior queda intacto.
+     *
+     * @param temporal El archivo con la copia nueva.
+     * @throws IOException Si el archivo de datos no pudo reemplazarse.
+     */
+    private void reemplazarArchivoDatos(File temporal) throws IOException {
+        for (int intento = 1;; intento++) {
+            try {
+                Files.move(temporal.toPath(), archivoDatos.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return;
+            } catch (FileSystemException e) {
+                if (intento == INTENTOS_REEMPLAZO) {
+                    throw e;
+                }
+                System.gc();
+                try {
+                    Thread.sleep(100L * intento);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
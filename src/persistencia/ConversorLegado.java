@@ -0,0 +1,73 @@
+package persistencia;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import modelo.CodecInstituto;
+import modelo.Instituto;
+
+/**
+ * Convierte el archivo de datos de las versiones anteriores, guardado con la
+ * serialización por defecto de Java, al formato binario del instituto. El
+ * archivo original se conserva con la extensión ".legado".
+ */
+public class ConversorLegado {
+
+    /**
+     * Convierte el archivo indicado en los argumentos, o "instituto.dat" si no
+     * se indica ninguno.
+     *
+     * @param args El nombre del archivo a convertir (opcional).
+     * @throws IOException Si ocurre un error al leer o escribir el archivo.
+     */
+    public static void main(String[] args) throws IOException {
+        String nombreArchivo = args.length > 0 ? args[0] : "instituto.dat";
+        if (convertir(nombreArchivo)) {
+            System.out.println("Archivo " + nombreArchivo + " convertido al formato binario.");
+        } else {
+            System.out.println("El archivo " + nombreArchivo + " ya está en el formato binario.");
+        }
+    }
+
+    /**
+     * Convierte un archivo de datos al formato binario si todavía está en el
+     * formato anterior. Para saberlo se leen solo los primeros bytes, de modo
+     * que un archivo ya convertido no se carga en memoria. El reemplazo del
+     * archivo es atómico.
+     *
+     * @param nombreArchivo El nombre del archivo de datos.
+     * @return true si el archivo se convirtió, false si ya estaba en el
+     * formato binario.
+     * @throws IOException Si ocurre un error al leer o escribir el archivo.
+     */
+    public static boolean convertir(String nombreArchivo) throws IOException {
+        File archivo = new File(nombreArchivo);
+        ByteBuffer inicio = ByteBuffer.allocate(2);
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            while (inicio.hasRemaining() && canal.read(inicio) > 0) {
+                // Un archivo más corto que la marca no está en el formato anterior
+            }
+        }
+        if (!CodecInstituto.esFormatoLegado(inicio.array())) {
+            return false;
+        }
+
+        byte[] datos = Files.readAllBytes(archivo.toPath());
+
+        Instituto instituto = Instituto.decodificar(datos);
+        Files.copy(archivo.toPath(), new File(nombreArchivo + ".legado").toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        File temporal = new File(nombreArchivo + ".tmp");
+        try (FileOutputStream salida = new FileOutputStream(temporal)) {
+            salida.write(CodecInstituto.codificar(instituto));
+            salida.getFD().sync();
+        }
+        Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+}
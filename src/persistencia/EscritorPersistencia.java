@@ -0,0 +1,246 @@
+package persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import modelo.InformadorErrores;
+import modelo.RegistroOperaciones;
+import modelo.TipoOperacion;
+
+/**
+ * Escritor del journal que trabaja en un hilo propio, fuera del hilo de
+ * eventos de Swing. Los controladores solo encolan el registro de cada
+ * operación y siguen respondiendo; el hilo de persistencia agrupa las
+ * operaciones que llegan en ráfaga y las escribe con una única escritura. Los
+ * errores se entregan al informador de errores indicado.
+ *
+ * Si un lote no puede escribirse se reintenta unas pocas veces, sin escribir
+ * los siguientes, para que el journal no quede con operaciones faltantes. Si
+ * sigue fallando se fuerza una copia completa del instituto, que incluye las
+ * operaciones del lote. Si tampoco puede guardarse la copia, el escritor deja
+ * de agregar registros al journal, que conserva así un prefijo consistente de
+ * las operaciones, y vuelve a intentar la copia con cada operación nueva.
+ */
+public class EscritorPersistencia implements RegistroOperaciones {
+
+    private static final long DEMORA_AGRUPAMIENTO_MS = 10;
+    private static final int INTENTOS_ESCRITURA = 3;
+    private static final long DEMORA_REINTENTO_MS = 100;
+
+    private final Journal journal;
+    private final InformadorErrores informador;
+    private final Thread hilo;
+    private List<byte[]> pendientes;
+    private boolean escribiendo;
+    private boolean detenido;
+    private volatile Compactador compactador;
+    private boolean suspendido; // el journal dejó de escribirse hasta lograr una copia completa
+
+    /**
+     * Constructor de la clase EscritorPersistencia.
+     *
+     * @param journal El journal donde se escriben las operaciones.
+     * @param informador El destino de los errores de escritura.
+     */
+    public EscritorPersistencia(Journal journal, InformadorErrores informador) {
+        this.journal = journal;
+        this.informador = informador;
+        this.pendientes = new ArrayList<>();
+        this.hilo = new Thread(this::escribirPendientes, "escritor-persistencia");
+        this.hilo.setDaemon(true);
+    }
+
+    /**
+     * Establece el compactador con el que se fuerza una copia completa del
+     * instituto cuando el journal no puede escribirse.
+     *
+     * @param compactador El compactador del instituto.
+     */
+    public void setCompactador(Compactador compactador) {
+        this.compactador = compactador;
+    }
+
+    /**
+     * Inicia el hilo de persistencia.
+     */
+    public void iniciar() {
+        hilo.start();
+    }
+
+    /**
+     * Registra el vaciado del escritor al finalizar la aplicación, de modo que
+     * las operaciones pendientes se escriban aunque se cierre la última
+     * ventana.
+     */
+    public void instalarVaciadoAlSalir() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::detener, "vaciado-persistencia"));
+    }
+
+    /**
+     * Encola el registro de una operación para que el hilo de persistencia lo
+     * escriba en el journal.
+     *
+     * @param secuencia La secuencia asignada a la operación.
+     * @param tipo El tipo de operación.
+     * @param datos Los datos necesarios para volver a aplicar la operación.
+     */
+    @Override
+    public void registrar(long secuencia, TipoOperacion tipo, String... datos) {
+        byte[] registro;
+        try {
+            registro = Journal.codificar(secuencia, tipo, datos);
+        } catch (IOException e) {
+            informador.informar("Error al guardar los datos", e);
+            return;
+        }
+        synchronized (this) {
+            pendientes.add(registro);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Espera a que todas las operaciones encoladas hasta el momento queden
+     * escritas en el journal.
+     */
+    public synchronized void vaciar() {
+        boolean interrumpido = false;
+        while ((!pendientes.isEmpty() || escribiendo) && hilo.isAlive()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Escribe las operaciones pendientes y detiene el hilo de persistencia.
+     */
+    public void detener() {
+        vaciar();
+        synchronized (this) {
+            detenido = true;
+            notifyAll();
+        }
+        journal.cerrar();
+    }
+
+    /**
+     * Ciclo del hilo de persistencia. Espera a que haya operaciones pendientes,
+     * deja pasar una breve demora para agrupar las que llegan en ráfaga y las
+     * escribe todas juntas.
+     */
+    private void escribirPendientes() {
+        while (true) {
+            List<byte[]> lote;
+            synchronized (this) {
+                try {
+                    while (pendientes.isEmpty() && !detenido) {
+                        wait();
+                    }
+                    if (pendientes.isEmpty()) {
+                        return;
+                    }
+                    if (!detenido) {
+                        wait(DEMORA_AGRUPAMIENTO_MS);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                lote = pendientes;
+                pendientes = new ArrayList<>();
+                escribiendo = true;
+            }
+
+            guardar(lote);
+
+            synchronized (this) {
+                escribiendo = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Escribe un lote en el journal, reintentando si falla. Si no puede
+     * escribirse, o si el journal está suspendido por un error anterior, se
+     * fuerza una copia completa del instituto en su lugar.
+     *
+     * @param lote Los registros a escribir, en orden de secuencia.
+     */
+    private void guardar(List<byte[]> lote) {
+        if (suspendido) {
+            forzarCopia(lote, null);
+            return;
+        }
+        for (int intento = 1;; intento++) {
+            try {
+                journal.escribirLote(lote);
+                return;
+            } catch (IOException e) {
+                if (intento == INTENTOS_ESCRITURA) {
+                    forzarCopia(lote, e);
+                    return;
+                }
+            }
+            try {
+                Thread.sleep(DEMORA_REINTENTO_MS * intento);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                forzarCopia(lote, null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reemplaza la escritura de un lote por una copia completa del instituto,
+     * que incluye todas las operaciones ya registradas. Si la copia se guarda,
+     * el journal vuelve a escribirse con las operaciones siguientes; si no, el
+     * journal queda suspendido.
+     *
+     * @param lote Los registros que no pudieron escribirse.
+     * @param error El error de escritura del lote, o null si el journal ya
+     * estaba suspendido.
+     */
+    private void forzarCopia(List<byte[]> lote, IOException error) {
+        Compactador copia = compactador;
+        if (copia != null) {
+            try {
+                long secuencia = copia.compactar();
+                if (secuenciaDe(lote.get(lote.size() - 1)) <= secuencia) {
+                    if (suspendido) {
+                        suspendido = false;
+                        informador.informar("Se recuperó el guardado de los datos", null);
+                    }
+                    return;
+                }
+            } catch (IOException e) {
+                if (error != null) {
+                    error.addSuppressed(e);
+                } else if (!suspendido) {
+                    error = e;
+                }
+            }
+        }
+        if (!suspendido) {
+            suspendido = true;
+            informador.informar("Error al guardar los datos. Las operaciones siguientes no se guardarán hasta poder escribir una copia completa", error);
+        }
+    }
+
+    /**
+     * Obtiene la secuencia de la operación de un registro codificado.
+     *
+     * @param registro El registro completo, con su encabezado.
+     * @return La secuencia de la operación.
+     */
+    private static long secuenciaDe(byte[] registro) {
+        return ByteBuffer.wrap(registro, 8, 8).getLong();
+    }
+}
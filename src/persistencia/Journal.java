@@ -0,0 +1,326 @@
+package persistencia;
+
+import excepciones.TransicionEstadoInvalidaException;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import modelo.InformadorErrores;
+import modelo.Instituto;
+import modelo.RegistroOperaciones;
+import modelo.TipoOperacion;
+
+/**
+ * Journal de solo agregado donde se registra cada operación realizada sobre el
+ * instituto. En lugar de reescribir el archivo completo del instituto en cada
+ * cambio, se agrega al final del journal un registro compacto con la operación,
+ * y al iniciar el programa se vuelven a aplicar los registros sobre la última
+ * copia guardada del instituto.
+ *
+ * Cada registro tiene el formato: longitud (int), CRC32 del contenido (int) y
+ * el contenido, formado por la secuencia de la operación (long), su código
+ * (byte), la cantidad de datos (short) y cada dato en UTF.
+ */
+public class Journal implements RegistroOperaciones {
+
+    private static final int LONGITUD_MAXIMA_REGISTRO = 1 << 20;
+
+    private final File archivo;
+    private final InformadorErrores informador;
+    private DataOutputStream salida;
+    private long cantidadRegistros;
+    private long longitudValida = -1; // bytes del archivo que terminan en un registro completo, -1 si no se conoce
+
+    /**
+     * Constructor de la clase Journal.
+     *
+     * @param nombreArchivo El nombre del archivo del journal.
+     * @param informador El destino de los errores de escritura que no pueden
+     * devolverse a quien invoca.
+     */
+    public Journal(String nombreArchivo, InformadorErrores informador) {
+        this.archivo = new File(nombreArchivo);
+        this.informador = informador;
+    }
+
+    /**
+     * Vuelve a aplicar sobre el instituto las operaciones registradas en el
+     * journal. Si el último registro quedó incompleto o dañado (por ejemplo,
+     * por un corte durante la escritura) se descarta junto con todo lo que le
+     * sigue. Las operaciones deben tener secuencias consecutivas a partir de
+     * la última incluida en el instituto: un salto indica que se perdió una
+     * operación y las siguientes no pueden aplicarse.
+     *
+     * @param instituto El instituto sobre el que se aplican las operaciones.
+     * @return La cantidad de operaciones aplicadas.
+     * @throws IOException Si ocurre un error al leer el journal, falta alguna
+     * operación o alguna operación registrada no puede aplicarse.
+     */
+    public synchronized int reproducir(Instituto instituto) throws IOException {
+        if (!archivo.exists()) {
+            return 0;
+        }
+
+        int aplicadas = 0;
+        long posicionValida = 0;
+        cantidadRegistros = 0;
+
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(archivo)))) {
+            byte[] contenido;
+            while ((contenido = leerContenido(entrada)) != null) {
+                DataInputStream registro = new DataInputStream(new ByteArrayInputStream(contenido));
+                long secuencia = registro.readLong();
+                TipoOperacion tipo = TipoOperacion.desdeCodigo(registro.readByte());
+                if (tipo == null) {
+                    break;
+                }
+                String[] datos = new String[registro.readUnsignedShort()];
+                for (int i = 0; i < datos.length; i++) {
+                    datos[i] = registro.readUTF();
+                }
+
+                long esperada = instituto.getUltimaOperacion() + 1;
+                if (secuencia > esperada) {
+                    throw new IOException("Falta la operación " + esperada + " del journal, que precede a la " + secuencia + ".");
+                }
+                try {
+                    if (instituto.aplicarOperacion(secuencia, tipo, datos)) {
+                        aplicadas++;
+                    }
+                } catch (TransicionEstadoInvalidaException e) {
+                    throw new IOException("Operación " + secuencia + " del journal no aplicable: " + e.getMessage(), e);
+                } catch (RuntimeException e) {
+                    // Un registro con CRC válido puede referirse a un curso o usuario inexistente o tener datos mal formados
+                    throw new IOException("Operación " + secuencia + " del journal no aplicable: " + e, e);
+                }
+                posicionValida += 8 + contenido.length;
+                cantidadRegistros++;
+            }
+        }
+
+        if (posicionValida < archivo.length()) {
+            recortar(posicionValida);
+        }
+        longitudValida = posicionValida;
+        return aplicadas;
+    }
+
+    /**
+     * Descarta del journal los registros cuyas operaciones ya están incluidas
+     * en una copia completa del instituto. Los registros posteriores se copian
+     * a un archivo nuevo que reemplaza al journal de forma atómica, de modo
+     * que una interrupción en medio del proceso no pierde operaciones.
+     *
+     * @param secuencia La secuencia de la última operación incluida en la
+     * copia completa del instituto.
+     * @throws IOException Si ocurre un error al reescribir el journal.
+     */
+    public synchronized void descartarHasta(long secuencia) throws IOException {
+        cerrar();
+        if (!archivo.exists()) {
+            return;
+        }
+
+        File temporal = new File(archivo.getPath() + ".tmp");
+        long conservados = 0;
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(archivo)));
+                FileOutputStream archivoTemporal = new FileOutputStream(temporal);
+                DataOutputStream copia = new DataOutputStream(new BufferedOutputStream(archivoTemporal))) {
+            byte[] contenido;
+            while ((contenido = leerContenido(entrada)) != null) {
+                if (ByteBuffer.wrap(contenido).getLong() > secuencia) {
+                    copia.writeInt(contenido.length);
+                    copia.writeInt(calcularCrc(contenido));
+                    copia.write(contenido);
+                    conservados++;
+                }
+            }
+            copia.flush();
+            archivoTemporal.getFD().sync();
+        }
+        Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        cantidadRegistros = conservados;
+        longitudValida = archivo.length();
+    }
+
+    /**
+     * Obtiene la cantidad de registros que contiene actualmente el journal.
+     *
+     * @return La cantidad de registros del journal.
+     */
+    public synchronized long getCantidadRegistros() {
+        return cantidadRegistros;
+    }
+
+    /**
+     * Agrega al final del journal el registro de una operación.
+     *
+     * @param secuencia La secuencia asignada a la operación.
+     * @param tipo El tipo de operación.
+     * @param datos Los datos necesarios para volver a aplicar la operación.
+     */
+    @Override
+    public void registrar(long secuencia, TipoOperacion tipo, String... datos) {
+        try {
+            escribirLote(Collections.singletonList(codificar(secuencia, tipo, datos)));
+        } catch (IOException e) {
+            informador.informar("Error al guardar los datos", e);
+        }
+    }
+
+    /**
+     * Agrega al final del journal un lote de registros ya codificados con una
+     * única escritura al archivo. Si la escritura falla, el archivo se cierra y
+     * se recorta hasta el final del último registro completo, para que el lote
+     * pueda volver a escribirse sin dejar un registro a medio escribir delante
+     * de los siguientes.
+     *
+     * @param registros Los registros a agregar, en orden de secuencia.
+     * @throws IOException Si ocurre un error al escribir el journal.
+     */
+    synchronized void escribirLote(List<byte[]> registros) throws IOException {
+        if (salida == null) {
+            abrir();
+        }
+        long escritos = 0;
+        try {
+            for (byte[] registro : registros) {
+                salida.write(registro);
+                escritos += registro.length;
+            }
+            salida.flush();
+        } catch (IOException e) {
+            descartarSalida();
+            try {
+                recortar(longitudValida);
+            } catch (IOException er) {
+                // Se vuelve a recortar al reabrir el archivo en el próximo intento
+                e.addSuppressed(er);
+            }
+            throw e;
+        }
+        longitudValida += escritos;
+        cantidadRegistros += registros.size();
+    }
+
+    /**
+     * Abre el archivo del journal para agregar registros al final. Si tiene
+     * restos de una escritura fallida después del último registro completo,
+     * se recorta antes.
+     *
+     * @throws IOException Si el archivo no puede abrirse o recortarse.
+     */
+    private void abrir() throws IOException {
+        if (longitudValida < 0) {
+            longitudValida = archivo.length();
+        } else if (archivo.length() > longitudValida) {
+            recortar(longitudValida);
+        }
+        salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archivo, true)));
+    }
+
+    /**
+     * Cierra el archivo después de una escritura fallida, descartando lo que
+     * haya quedado en el buffer.
+     */
+    private void descartarSalida() {
+        try {
+            salida.close();
+        } catch (IOException e) {
+            // El descriptor se libera igual; el error ya se informa con el de la escritura
+        }
+        salida = null;
+    }
+
+    /**
+     * Recorta el archivo del journal a la longitud indicada.
+     *
+     * @param longitud La nueva longitud del archivo.
+     * @throws IOException Si el archivo no puede recortarse.
+     */
+    private void recortar(long longitud) throws IOException {
+        try (RandomAccessFile recorte = new RandomAccessFile(archivo, "rw")) {
+            recorte.setLength(longitud);
+        }
+    }
+
+    /**
+     * Cierra el archivo del journal.
+     */
+    public synchronized void cerrar() {
+        if (salida != null) {
+            try {
+                salida.close();
+            } catch (IOException e) {
+                informador.informar("Error al guardar los datos", e);
+            }
+            salida = null;
+        }
+    }
+
+    /**
+     * Lee el contenido del siguiente registro del journal, verificando su
+     * longitud y su CRC32.
+     *
+     * @param entrada El flujo de lectura del journal.
+     * @return El contenido del registro, o null si no hay más registros válidos.
+     * @throws IOException Si ocurre un error de lectura.
+     */
+    private static byte[] leerContenido(DataInputStream entrada) throws IOException {
+        try {
+            int longitud = entrada.readInt();
+            if (longitud <= 0 || longitud > LONGITUD_MAXIMA_REGISTRO) {
+                return null;
+            }
+            int crc = entrada.readInt();
+            byte[] contenido = new byte[longitud];
+            entrada.readFully(contenido);
+            return crc == calcularCrc(contenido) ? contenido : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Codifica una operación como un registro completo del journal.
+     *
+     * @param secuencia La secuencia de la operación.
+     * @param tipo El tipo de operación.
+     * @param datos Los datos de la operación.
+     * @return Los bytes del registro, listos para agregar al archivo.
+     * @throws IOException Si algún dato no puede codificarse.
+     */
+    static byte[] codificar(long secuencia, TipoOperacion tipo, String... datos) throws IOException {
+        ByteArrayOutputStream bytesContenido = new ByteArrayOutputStream(64);
+        DataOutputStream contenido = new DataOutputStream(bytesContenido);
+        contenido.writeLong(secuencia);
+        contenido.writeByte(tipo.getCodigo());
+        contenido.writeShort(datos.length);
+        for (String dato : datos) {
+            contenido.writeUTF(dato);
+        }
+        byte[] bytes = bytesContenido.toByteArray();
+
+        ByteArrayOutputStream bytesRegistro = new ByteArrayOutputStream(bytes.length + 8);
+        DataOutputStream registro = new DataOutputStream(bytesRegistro);
+        registro.writeInt(bytes.length);
+        registro.writeInt(calcularCrc(bytes));
+        registro.write(bytes);
+        return bytesRegistro.toByteArray();
+    }
+
+    /**
+     * Calcula el CRC32 del contenido de un registro.
+     *
+     * @param contenido El contenido del registro.
+     * @return El valor del CRC32.
+     */
+    private static int calcularCrc(byte[] contenido) {
+        CRC32 crc = new CRC32();
+        crc.update(contenido);
+        return (int) crc.getValue();
+    }
+}
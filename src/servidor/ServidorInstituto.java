@@ -0,0 +1,624 @@
+package servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import excepciones.CalificacionInvalidaException;
+import excepciones.ContraseñaInvalidaException;
+import excepciones.CuentaSuspendidaException;
+import excepciones.DemasiadosIntentosException;
+import excepciones.NoExisteUsuarioException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import modelo.Alumno;
+import modelo.Calificacion;
+import modelo.Curso;
+import modelo.Docente;
+import modelo.EstadoCurso;
+import modelo.LimitadorIngresos;
+import modelo.ResultadoInscripcion;
+import modelo.ServicioInstituto;
+import modelo.Usuario;
+
+/**
+ * Servidor HTTP local que expone las operaciones del instituto sin la
+ * interfaz gráfica: inicio de sesión, búsqueda de usuarios, listado de cursos,
+ * inscripción, calificación y los contadores de los límites de inicio de
+ * sesión. Cada pedido se atiende en un hilo virtual propio, de modo que
+ * cientos de alumnos pueden inscribirse a la vez sin reservar un hilo del
+ * sistema por conexión. Todas las operaciones pasan por
+ * el servicio del instituto, igual que en la interfaz gráfica.
+ *
+ * Los parámetros se reciben en la consulta de la URL o en el cuerpo del
+ * pedido como formulario, salvo la carga de calificaciones en lote, que recibe
+ * el cuerpo como CSV. Las respuestas se devuelven en JSON. Los cursos se
+ * identifican por su posición en el catálogo del instituto. Después de iniciar
+ * sesión, cada pedido debe incluir el encabezado "Authorization: Bearer" con
+ * el token recibido.
+ *
+ * Igual que en la interfaz gráfica, un usuario que debe cambiar su contraseña
+ * (por ejemplo, en su primer ingreso, cuando la contraseña es su DNI) recibe
+ * una sesión restringida que solo permite cambiar la contraseña y cerrar la
+ * sesión.
+ */
+public class ServidorInstituto {
+
+    private static final long DURACION_SESION_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private final ServicioInstituto servicio;
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+    private final Map<String, Sesion> sesiones = new ConcurrentHashMap<>();
+    private final SecureRandom aleatorio = new SecureRandom();
+
+    /**
+     * Constructor de la clase ServidorInstituto. El servidor escucha solo en
+     * la interfaz local.
+     *
+     * @param servicio El servicio del instituto.
+     * @param puerto El puerto en el que escucha el servidor.
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public ServidorInstituto(ServicioInstituto servicio, int puerto) throws IOException {
+        this.servicio = servicio;
+        this.servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        this.servidor.setExecutor(hilos);
+        this.servidor.createContext("/api/login", manejador("POST", this::login));
+        this.servidor.createContext("/api/logout", manejador("POST", this::logout));
+        this.servidor.createContext("/api/password", manejador("POST", this::cambiarPassword));
+        this.servidor.createContext("/api/usuarios", manejador("GET", this::buscarUsuario));
+        this.servidor.createContext("/api/cursos", manejador("GET", this::listarCursos));
+        this.servidor.createContext("/api/inscripciones", manejador("POST", this::inscribir));
+        this.servidor.createContext("/api/calificaciones", manejador("POST", this::calificar));
+        this.servidor.createContext("/api/calificaciones/lote", manejador("POST", this::calificarLote));
+        this.servidor.createContext("/api/monitoreo", manejador("GET", this::monitorear));
+    }
+
+    /**
+     * Inicia el servidor.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Detiene el servidor, esperando a lo sumo la demora indicada a que
+     * terminen los pedidos en curso.
+     *
+     * @param demoraSegundos Los segundos de espera.
+     */
+    public void detener(int demoraSegundos) {
+        servidor.stop(demoraSegundos);
+        hilos.shutdown();
+    }
+
+    /**
+     * Obtiene el puerto en el que escucha el servidor.
+     *
+     * @return El puerto del servidor.
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Inicia la sesión de un usuario. Parámetros: dni y password. Si el
+     * usuario debe cambiar su contraseña, la sesión queda restringida al
+     * cambio de contraseña.
+     */
+    private Respuesta login(Pedido pedido) throws ErrorPedido {
+        Usuario usuario;
+        try {
+            usuario = servicio.autenticar(pedido.requerido("dni"), pedido.requerido("password"), pedido.origen);
+        } catch (NoExisteUsuarioException | ContraseñaInvalidaException ex) {
+            throw new ErrorPedido(401, "DNI o contraseña incorrectos.");
+        } catch (CuentaSuspendidaException ex) {
+            throw new ErrorPedido(403, ex.getMessage());
+        } catch (DemasiadosIntentosException ex) {
+            throw new ErrorPedido(429, ex.getMessage());
+        } catch (RejectedExecutionException ex) {
+            throw new ErrorPedido(503, "Hay demasiados inicios de sesión en curso. Intente nuevamente.");
+        }
+        boolean cambiarPassword = servicio.debeCambiarPassword(usuario);
+        String token = nuevoToken();
+        sesiones.put(token, new Sesion(usuario, cambiarPassword));
+        Json json = new Json()
+                .texto("token", token)
+                .texto("perfil", usuario.getPerfil())
+                .texto("nombre", usuario.getNombre())
+                .texto("apellido", usuario.getApellido())
+                .valor("cambiarPassword", cambiarPassword);
+        return new Respuesta(200, json.toString());
+    }
+
+    /**
+     * Cierra la sesión del usuario.
+     */
+    private Respuesta logout(Pedido pedido) throws ErrorPedido {
+        sesion(pedido);
+        sesiones.remove(pedido.token);
+        return new Respuesta(200, new Json().valor("ok", true).toString());
+    }
+
+    /**
+     * Cambia la contraseña del usuario de la sesión, con las mismas reglas que
+     * la interfaz gráfica: la nueva contraseña tiene 8 caracteres y no es el
+     * DNI. Se admite también en una sesión restringida, que queda habilitada
+     * para el resto de las operaciones. Parámetros: actual y nueva.
+     */
+    private Respuesta cambiarPassword(Pedido pedido) throws ErrorPedido {
+        Sesion sesion = sesion(pedido);
+        String nueva = pedido.requerido("nueva");
+        if (nueva.length() != 8) {
+            throw new ErrorPedido(400, "La nueva contraseña debe contener 8 caracteres.");
+        }
+        if (nueva.equals(sesion.usuario.getDni())) {
+            throw new ErrorPedido(400, new ContraseñaInvalidaException().getMessage());
+        }
+        boolean cambiada;
+        try {
+            cambiada = servicio.cambiarPassword(sesion.usuario, pedido.requerido("actual").toCharArray(), nueva.toCharArray()).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RejectedExecutionException) {
+                throw new ErrorPedido(503, "Hay demasiadas operaciones en curso. Intente nuevamente.");
+            }
+            throw ex;
+        }
+        if (!cambiada) {
+            throw new ErrorPedido(401, "Contraseña actual incorrecta.");
+        }
+        sesion.restringida = false;
+        return new Respuesta(200, new Json().valor("ok", true).toString());
+    }
+
+    /**
+     * Devuelve los contadores de los limitadores de inicio de sesión, por DNI
+     * y por origen. Solo para el administrador.
+     */
+    private Respuesta monitorear(Pedido pedido) throws ErrorPedido {
+        requerirPerfil(usuarioSesion(pedido), "Admin");
+        Json json = new Json()
+                .valor("ingresosPorDni", json(servicio.getLimitadorPorDni()))
+                .valor("ingresosPorOrigen", json(servicio.getLimitadorPorOrigen()))
+                .valor("sesiones", sesiones.size());
+        return new Respuesta(200, json.toString());
+    }
+
+    /**
+     * Busca un usuario por su DNI. Solo para el administrador. Parámetro: dni.
+     */
+    private Respuesta buscarUsuario(Pedido pedido) throws ErrorPedido {
+        requerirPerfil(usuarioSesion(pedido), "Admin");
+        Usuario usuario = servicio.buscarPorDni(pedido.requerido("dni"));
+        if (usuario == null) {
+            throw new ErrorPedido(404, "El usuario buscado: " + pedido.parametros.get("dni") + " no existe.");
+        }
+        Json json = new Json()
+                .texto("dni", usuario.getDni())
+                .texto("perfil", usuario.getPerfil())
+                .texto("nombre", usuario.getNombre())
+                .texto("apellido", usuario.getApellido())
+                .texto("estadoCuenta", usuario.getEstadoCuenta());
+        return new Respuesta(200, json.toString());
+    }
+
+    /**
+     * Lista cursos del instituto. Parámetro opcional: estado. Con
+     * disponibles=true, un alumno obtiene los cursos en los que puede
+     * inscribirse; un docente obtiene siempre solo sus cursos.
+     */
+    private Respuesta listarCursos(Pedido pedido) throws ErrorPedido {
+        Usuario usuario = usuarioSesion(pedido);
+        String nombreEstado = pedido.parametros.get("estado");
+        EstadoCurso estado = null;
+        if (nombreEstado != null) {
+            estado = EstadoCurso.desdeNombre(nombreEstado);
+            if (estado == null) {
+                throw new ErrorPedido(400, "Estado de curso desconocido: " + nombreEstado);
+            }
+        }
+
+        List<Curso> cursos;
+        if ("true".equals(pedido.parametros.get("disponibles"))) {
+            cursos = servicio.filtrarCursosPorAlumno((Alumno) requerirPerfil(usuario, "Alumno"));
+        } else if (usuario instanceof Docente) {
+            cursos = estado == null
+                    ? servicio.filtrarCursosPorDocente((Docente) usuario, EstadoCurso.HABILITADO, EstadoCurso.CERRADO)
+                    : servicio.filtrarCursosPorDocente((Docente) usuario, estado);
+        } else if (estado != null) {
+            cursos = servicio.getCursosPorEstado(estado);
+        } else {
+            cursos = servicio.getCursos();
+        }
+
+        StringBuilder lista = new StringBuilder("[");
+        for (int i = 0; i < cursos.size(); i++) {
+            if (i > 0) {
+                lista.append(',');
+            }
+            lista.append(json(cursos.get(i)));
+        }
+        lista.append(']');
+        return new Respuesta(200, new Json().lista("cursos", lista.toString()).toString());
+    }
+
+    /**
+     * Inscribe al alumno de la sesión en un lote de cursos a través de la cola
+     * de inscripciones. Parámetro: cursos, las posiciones separadas por comas.
+     */
+    private Respuesta inscribir(Pedido pedido) throws ErrorPedido {
+        Alumno alumno = (Alumno) requerirPerfil(usuarioSesion(pedido), "Alumno");
+        List<Curso> cursos = new ArrayList<>();
+        for (String posicion : pedido.requerido("cursos").split(",")) {
+            cursos.add(curso(posicion.trim()));
+        }
+        Map<Curso, ResultadoInscripcion> resultados = servicio.getColaInscripciones().encolar(alumno, cursos).join();
+
+        StringBuilder lista = new StringBuilder("[");
+        for (Map.Entry<Curso, ResultadoInscripcion> resultado : resultados.entrySet()) {
+            if (lista.length() > 1) {
+                lista.append(',');
+            }
+            lista.append(new Json()
+                    .valor("curso", servicio.getPosicionCurso(resultado.getKey()))
+                    .texto("nombre", resultado.getKey().getNombreCurso())
+                    .texto("resultado", resultado.getValue().name()));
+        }
+        lista.append(']');
+        return new Respuesta(200, new Json().lista("resultados", lista.toString()).toString());
+    }
+
+    /**
+     * Califica a un alumno de un curso cerrado del docente de la sesión.
+     * Parámetros: curso, dni y calificacion (Aprobado o Desaprobado).
+     */
+    private Respuesta calificar(Pedido pedido) throws ErrorPedido {
+        Curso curso = cursoACalificar(pedido);
+        String nombreCalificacion = pedido.requerido("calificacion");
+        Calificacion calificacion = Calificacion.desdeNombre(nombreCalificacion);
+        if (calificacion != Calificacion.APROBADO && calificacion != Calificacion.DESAPROBADO) {
+            throw new ErrorPedido(400, "Calificación inválida: " + nombreCalificacion);
+        }
+        Usuario usuario = servicio.buscarPorDni(pedido.requerido("dni"));
+        if (!(usuario instanceof Alumno)) {
+            throw new ErrorPedido(404, "El alumno no está inscripto en el curso.");
+        }
+        try {
+            servicio.calificar(curso, (Alumno) usuario, calificacion);
+        } catch (CalificacionInvalidaException e) {
+            throw new ErrorPedido(404, "El alumno no está inscripto en el curso.");
+        }
+        return new Respuesta(200, new Json().valor("ok", true).toString());
+    }
+
+    /**
+     * Califica en lote a los alumnos de un curso cerrado del docente de la
+     * sesión. Parámetro: curso. El cuerpo es un CSV con una línea "dni,
+     * calificacion" por alumno; si alguna línea es inválida no se aplica
+     * ninguna.
+     */
+    private Respuesta calificarLote(Pedido pedido) throws ErrorPedido {
+        Curso curso = cursoACalificar(pedido);
+        if (pedido.cuerpo == null) {
+            throw new ErrorPedido(400, "El cuerpo del pedido debe ser text/csv.");
+        }
+        try {
+            int cambios = servicio.importarCalificaciones(curso, new StringReader(pedido.cuerpo));
+            return new Respuesta(200, new Json().valor("ok", true).valor("calificados", cambios)
+                    .valor("sinCalificar", curso.getCursadaActiva().getSinCalificar()).toString());
+        } catch (CalificacionInvalidaException ex) {
+            throw new ErrorPedido(400, ex.getMessage());
+        } catch (IOException ex) {
+            throw new ErrorPedido(400, "No se pudo leer el CSV.");
+        }
+    }
+
+    /**
+     * Obtiene el curso del pedido y verifica que pertenezca al docente de la
+     * sesión y esté cerrado.
+     */
+    private Curso cursoACalificar(Pedido pedido) throws ErrorPedido {
+        Docente docente = (Docente) requerirPerfil(usuarioSesion(pedido), "Docente");
+        Curso curso = curso(pedido.requerido("curso"));
+        if (curso.getDocente() != docente) {
+            throw new ErrorPedido(403, "El curso no pertenece al docente.");
+        }
+        if (curso.getEstadoCurso() != EstadoCurso.CERRADO) {
+            throw new ErrorPedido(409, "Solo se califican los cursos cerrados.");
+        }
+        return curso;
+    }
+
+    /**
+     * Obtiene el usuario de la sesión del pedido y extiende su vencimiento. Las
+     * sesiones restringidas no pueden usarse hasta cambiar la contraseña.
+     */
+    private Usuario usuarioSesion(Pedido pedido) throws ErrorPedido {
+        Sesion sesion = sesion(pedido);
+        if (sesion.restringida) {
+            throw new ErrorPedido(403, "Debe cambiar la contraseña antes de continuar.");
+        }
+        return sesion.usuario;
+    }
+
+    /**
+     * Obtiene la sesión del pedido, restringida o no, y extiende su
+     * vencimiento.
+     */
+    private Sesion sesion(Pedido pedido) throws ErrorPedido {
+        Sesion sesion = pedido.token == null ? null : sesiones.get(pedido.token);
+        long ahora = System.currentTimeMillis();
+        if (sesion == null || sesion.vencimiento < ahora) {
+            if (sesion != null) {
+                sesiones.remove(pedido.token);
+            }
+            throw new ErrorPedido(401, "Sesión inválida o vencida.");
+        }
+        sesion.vencimiento = ahora + DURACION_SESION_MS;
+        return sesion;
+    }
+
+    private static Usuario requerirPerfil(Usuario usuario, String perfil) throws ErrorPedido {
+        if (!perfil.equals(usuario.getPerfil())) {
+            throw new ErrorPedido(403, "Operación no permitida para el perfil " + usuario.getPerfil() + ".");
+        }
+        return usuario;
+    }
+
+    private Curso curso(String posicion) throws ErrorPedido {
+        Curso curso;
+        try {
+            curso = servicio.getCurso(Integer.parseInt(posicion));
+        } catch (NumberFormatException ex) {
+            curso = null;
+        }
+        if (curso == null) {
+            throw new ErrorPedido(404, "El curso " + posicion + " no existe.");
+        }
+        return curso;
+    }
+
+    private Json json(Curso curso) {
+        return new Json()
+                .valor("id", servicio.getPosicionCurso(curso))
+                .texto("nombre", curso.getNombreCurso())
+                .texto("descripcion", curso.getDescripcionCurso())
+                .texto("estado", curso.getEstadoCurso().toString())
+                .texto("docente", String.valueOf(curso.getDocente()))
+                .valor("inscriptos", curso.getCursadaActiva() == null ? 0 : curso.getCursadaActiva().getCantidadAlumnos())
+                .valor("tope", curso.getTopeAlumnos());
+    }
+
+    private static Json json(LimitadorIngresos limitador) {
+        return new Json()
+                .valor("intentos", limitador.getIntentos())
+                .valor("rechazados", limitador.getRechazados())
+                .valor("fallos", limitador.getFallos())
+                .valor("bloqueos", limitador.getBloqueos())
+                .valor("claves", limitador.getClaves());
+    }
+
+    private String nuevoToken() {
+        byte[] bytes = new byte[16];
+        aleatorio.nextBytes(bytes);
+        StringBuilder token = new StringBuilder(32);
+        for (byte b : bytes) {
+            token.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Crea el manejador de una ruta que acepta un único método HTTP. Los
+     * errores del pedido se responden con su código y mensaje; cualquier otro
+     * error se responde como error interno.
+     */
+    private static HttpHandler manejador(String metodo, Operacion operacion) {
+        return intercambio -> {
+            Respuesta respuesta;
+            try {
+                if (!metodo.equals(intercambio.getRequestMethod())) {
+                    throw new ErrorPedido(405, "Método no permitido.");
+                }
+                respuesta = operacion.atender(new Pedido(intercambio));
+            } catch (ErrorPedido ex) {
+                respuesta = new Respuesta(ex.codigo, new Json().texto("error", ex.getMessage()).toString());
+            } catch (RuntimeException ex) {
+                respuesta = new Respuesta(500, new Json().texto("error", "Error interno del servidor.").toString());
+            }
+            enviar(intercambio, respuesta);
+        };
+    }
+
+    private static void enviar(HttpExchange intercambio, Respuesta respuesta) throws IOException {
+        byte[] cuerpo = respuesta.cuerpo.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(respuesta.codigo, cuerpo.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(cuerpo);
+        }
+    }
+
+    /**
+     * Operación atendida por una ruta del servidor.
+     */
+    @FunctionalInterface
+    private interface Operacion {
+
+        Respuesta atender(Pedido pedido) throws ErrorPedido;
+    }
+
+    /**
+     * Datos de un pedido: los parámetros de la consulta y del cuerpo, y el
+     * token de sesión.
+     */
+    private static final class Pedido {
+
+        private final Map<String, String> parametros = new HashMap<>();
+        private final String token;
+        private final String origen;
+        private String cuerpo; // el cuerpo de los pedidos text/csv
+
+        private Pedido(HttpExchange intercambio) throws IOException {
+            agregarParametros(intercambio.getRequestURI().getRawQuery());
+            String tipo = intercambio.getRequestHeaders().getFirst("Content-Type");
+            if (tipo != null && tipo.startsWith("application/x-www-form-urlencoded")) {
+                agregarParametros(new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            } else if (tipo != null && tipo.startsWith("text/csv")) {
+                cuerpo = new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            }
+            String autorizacion = intercambio.getRequestHeaders().getFirst("Authorization");
+            this.token = autorizacion != null && autorizacion.startsWith("Bearer ") ? autorizacion.substring(7).trim() : null;
+            this.origen = intercambio.getRemoteAddress().getAddress().getHostAddress();
+        }
+
+        private void agregarParametros(String consulta) {
+            if (consulta == null || consulta.isEmpty()) {
+                return;
+            }
+            for (String par : consulta.split("&")) {
+                int igual = par.indexOf('=');
+                String nombre = igual < 0 ? par : par.substring(0, igual);
+                String valor = igual < 0 ? "" : par.substring(igual + 1);
+                parametros.put(URLDecoder.decode(nombre, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+            }
+        }
+
+        private String requerido(String nombre) throws ErrorPedido {
+            String valor = parametros.get(nombre);
+            if (valor == null || valor.isEmpty()) {
+                throw new ErrorPedido(400, "Falta el parámetro " + nombre + ".");
+            }
+            return valor;
+        }
+    }
+
+    /**
+     * Respuesta a un pedido: el código HTTP y el cuerpo en JSON.
+     */
+    private static final class Respuesta {
+
+        private final int codigo;
+        private final String cuerpo;
+
+        private Respuesta(int codigo, String cuerpo) {
+            this.codigo = codigo;
+            this.cuerpo = cuerpo;
+        }
+    }
+
+    /**
+     * Error de un pedido que se responde al cliente con su código HTTP.
+     */
+    private static final class ErrorPedido extends Exception {
+
+        private static final long serialVersionUID = 8570646274133211978L;
+
+        private final int codigo;
+
+        private ErrorPedido(int codigo, String mensaje) {
+            super(mensaje);
+            this.codigo = codigo;
+        }
+    }
+
+    /**
+     * Sesión iniciada por un usuario. Vence si no se usa durante
+     * DURACION_SESION_MS. Una sesión restringida solo permite cambiar la
+     * contraseña.
+     */
+    private static final class Sesion {
+
+        private final Usuario usuario;
+        private volatile long vencimiento;
+        private volatile boolean restringida;
+
+        private Sesion(Usuario usuario, boolean restringida) {
+            this.usuario = usuario;
+            this.vencimiento = System.currentTimeMillis() + DURACION_SESION_MS;
+            this.restringida = restringida;
+        }
+    }
+
+    /**
+     * Constructor mínimo de objetos JSON con los campos en el orden en que se
+     * agregan.
+     */
+    private static final class Json {
+
+        private final StringBuilder campos = new StringBuilder();
+
+        private Json texto(String nombre, String valor) {
+            return agregar(nombre, valor == null ? "null" : comillas(valor));
+        }
+
+        private Json valor(String nombre, Object valor) {
+            return agregar(nombre, String.valueOf(valor));
+        }
+
+        private Json lista(String nombre, String lista) {
+            return agregar(nombre, lista);
+        }
+
+        private Json agregar(String nombre, String valor) {
+            if (campos.length() > 0) {
+                campos.append(',');
+            }
+            campos.append(comillas(nombre)).append(':').append(valor);
+            return this;
+        }
+
+        private static String comillas(String texto) {
+            StringBuilder resultado = new StringBuilder(texto.length() + 2).append('"');
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                switch (c) {
+                    case '"':
+                        resultado.append("\\\"");
+                        break;
+                    case '\\':
+                        resultado.append("\\\\");
+                        break;
+                    case '\n':
+                        resultado.append("\\n");
+                        break;
+                    case '\r':
+                        resultado.append("\\r");
+                        break;
+                    case '\t':
+                        resultado.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            resultado.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            resultado.append(c);
+                        }
+                }
+            }
+            return resultado.append('"').toString();
+        }
+
+        @Override
+        public String toString() {
+            return "{" + campos + "}";
+        }
+    }
+}